@@ -1,9 +1,12 @@
 package com.stockmarket.domain;
 
 public abstract class Asset {
+    private static final PriceListener[] NO_LISTENERS = new PriceListener[0];
+
     private final String symbol;
     private final String name;
-    private double marketPrice;
+    private volatile double marketPrice;
+    private volatile PriceListener[] priceListeners;
 
     public Asset(String symbol, String name, double marketPrice) {
         if (symbol == null || symbol.trim().isEmpty()) {
@@ -22,6 +25,7 @@ public abstract class Asset {
         this.symbol = symbol.trim();
         this.name = name.trim();
         this.marketPrice = marketPrice;
+        this.priceListeners = NO_LISTENERS;
     }
 
     public String getSymbol() {
@@ -43,7 +47,42 @@ public abstract class Asset {
         if (Double.isNaN(marketPrice) || Double.isInfinite(marketPrice)) {
             throw new IllegalArgumentException("Cena rynkowa musi być skończoną liczbą");
         }
+        double oldPrice = this.marketPrice;
         this.marketPrice = marketPrice;
+        if (oldPrice != marketPrice) {
+            PriceListener[] listeners = priceListeners;
+            for (int i = 0; i < listeners.length; i++) {
+                listeners[i].onPriceChanged(this, oldPrice, marketPrice);
+            }
+        }
+    }
+
+    public synchronized void addPriceListener(PriceListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Słuchacz cen nie może być null");
+        }
+        PriceListener[] listeners = new PriceListener[priceListeners.length + 1];
+        System.arraycopy(priceListeners, 0, listeners, 0, priceListeners.length);
+        listeners[priceListeners.length] = listener;
+        priceListeners = listeners;
+    }
+
+    public synchronized boolean removePriceListener(PriceListener listener) {
+        PriceListener[] current = priceListeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                PriceListener[] listeners = new PriceListener[current.length - 1];
+                System.arraycopy(current, 0, listeners, 0, i);
+                System.arraycopy(current, i + 1, listeners, i, current.length - i - 1);
+                priceListeners = listeners;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getPriceListenerCount() {
+        return priceListeners.length;
     }
 
     public abstract AssetType getAssetType();
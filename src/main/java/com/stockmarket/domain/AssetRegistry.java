@@ -0,0 +1,170 @@
+package com.stockmarket.domain;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class AssetRegistry {
+    private final ConcurrentMap<String, Asset> assets;
+    private final ConcurrentMap<String, Set<Subscription>> subscriptions;
+    private final ReferenceQueue<PriceListener> collectedListeners;
+    private final PriceListener dispatcher;
+
+    private static final class Subscription extends WeakReference<PriceListener> {
+        private final String symbol;
+        private final int hash;
+
+        Subscription(PriceListener listener, String symbol, ReferenceQueue<PriceListener> queue) {
+            super(listener, queue);
+            this.symbol = symbol;
+            this.hash = System.identityHashCode(listener);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Subscription)) {
+                return false;
+            }
+            PriceListener listener = get();
+            return listener != null && listener == ((Subscription) other).get();
+        }
+    }
+
+    public AssetRegistry() {
+        this.assets = new ConcurrentHashMap<>();
+        this.subscriptions = new ConcurrentHashMap<>();
+        this.collectedListeners = new ReferenceQueue<>();
+        this.dispatcher = this::dispatch;
+    }
+
+    public Asset intern(Asset asset) {
+        if (asset == null) {
+            throw new IllegalArgumentException("Asset nie może być null");
+        }
+
+        Asset canonical = assets.get(asset.getSymbol());
+        if (canonical == null) {
+            Asset copy = asset.createCopy();
+            copy.addPriceListener(dispatcher);
+            canonical = assets.putIfAbsent(copy.getSymbol(), copy);
+            if (canonical == null) {
+                return copy;
+            }
+        }
+        if (canonical.getClass() != asset.getClass()) {
+            throw new IllegalArgumentException("Symbol " + asset.getSymbol() + " jest już zarejestrowany jako "
+                + canonical.getAssetType());
+        }
+        return canonical;
+    }
+
+    public Asset get(String symbol) {
+        return symbol == null ? null : assets.get(symbol);
+    }
+
+    public int size() {
+        return assets.size();
+    }
+
+    public void subscribe(Asset asset, PriceListener listener) {
+        if (asset == null || listener == null) {
+            throw new IllegalArgumentException("Asset i słuchacz cen nie mogą być null");
+        }
+        String symbol = asset.getSymbol();
+        if (assets.get(symbol) != asset) {
+            throw new IllegalArgumentException("Asset " + symbol + " nie pochodzi z tego rejestru");
+        }
+
+        purgeCollectedListeners();
+        subscriptions.computeIfAbsent(symbol, key -> ConcurrentHashMap.newKeySet())
+            .add(new Subscription(listener, symbol, collectedListeners));
+    }
+
+    public boolean unsubscribe(Asset asset, PriceListener listener) {
+        if (asset == null || listener == null) {
+            return false;
+        }
+
+        purgeCollectedListeners();
+        Set<Subscription> subscribers = subscriptions.get(asset.getSymbol());
+        return subscribers != null && subscribers.remove(new Subscription(listener, asset.getSymbol(), null));
+    }
+
+    public int getSubscriberCount(String symbol) {
+        purgeCollectedListeners();
+        Set<Subscription> subscribers = symbol == null ? null : subscriptions.get(symbol);
+        return subscribers == null ? 0 : subscribers.size();
+    }
+
+    public int applyPrices(PriceSource prices) {
+        if (prices == null) {
+            throw new IllegalArgumentException("Źródło cen nie może być null");
+        }
+
+        int repriced = 0;
+        for (Asset asset : assets.values()) {
+            double price = prices.getPrice(asset.getSymbol());
+            if (!Double.isNaN(price) && asset.getMarketPrice() != price) {
+                asset.setMarketPrice(price);
+                repriced++;
+            }
+        }
+        return repriced;
+    }
+
+    public int applyPrices(String[] symbols, double[] prices, int count) {
+        if (symbols == null || prices == null) {
+            throw new IllegalArgumentException("Tablice symboli i cen nie mogą być null");
+        }
+        if (count < 0 || count > symbols.length || count > prices.length) {
+            throw new IllegalArgumentException("Nieprawidłowa liczba cen: " + count);
+        }
+
+        int repriced = 0;
+        for (int i = 0; i < count; i++) {
+            Asset asset = symbols[i] == null ? null : assets.get(symbols[i]);
+            if (asset != null && asset.getMarketPrice() != prices[i]) {
+                asset.setMarketPrice(prices[i]);
+                repriced++;
+            }
+        }
+        return repriced;
+    }
+
+    private void dispatch(Asset asset, double oldPrice, double newPrice) {
+        purgeCollectedListeners();
+        Set<Subscription> subscribers = subscriptions.get(asset.getSymbol());
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscription subscription : subscribers) {
+            PriceListener listener = subscription.get();
+            if (listener != null) {
+                listener.onPriceChanged(asset, oldPrice, newPrice);
+            }
+        }
+    }
+
+    // słuchacz porzuconego portfela trafia do kolejki po odśmieceniu i jest usuwany w O(1)
+    private void purgeCollectedListeners() {
+        Reference<? extends PriceListener> collected;
+        while ((collected = collectedListeners.poll()) != null) {
+            Subscription subscription = (Subscription) collected;
+            Set<Subscription> subscribers = subscriptions.get(subscription.symbol);
+            if (subscribers != null) {
+                subscribers.remove(subscription);
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.stockmarket.domain;
+
+public interface PriceListener {
+    void onPriceChanged(Asset asset, double oldPrice, double newPrice);
+}
@@ -0,0 +1,5 @@
+package com.stockmarket.domain;
+
+public interface PriceSource {
+    double getPrice(String symbol);
+}
@@ -0,0 +1,129 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.PurchaseLot;
+
+import java.time.LocalDate;
+import java.util.List;
+
+class AssetHolding {
+    private final Asset asset;
+    private final LotStore lots;
+    private int totalQuantity;
+    private double totalCost;
+    private double marketValue;
+
+    AssetHolding(Asset asset) {
+        this.asset = asset;
+        this.lots = new LotStore();
+        this.totalQuantity = 0;
+        this.totalCost = 0.0;
+        this.marketValue = 0.0;
+    }
+
+    Asset getAsset() {
+        return asset;
+    }
+
+    PurchaseLotView getPurchaseLots() {
+        return new PurchaseLotView(lots);
+    }
+
+    int getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    double getTotalCost() {
+        return totalCost;
+    }
+
+    double getMarketValue() {
+        return marketValue;
+    }
+
+    double revalue() {
+        marketValue = asset.calculateRealValue(totalQuantity);
+        return marketValue;
+    }
+
+    boolean isEmpty() {
+        return lots.isEmpty();
+    }
+
+    void addLot(LocalDate purchaseDate, double unitPrice, int quantity) {
+        addLot(toEpochDay(purchaseDate), unitPrice, quantity);
+    }
+
+    void addLot(int epochDay, double unitPrice, int quantity) {
+        lots.add(epochDay, unitPrice, quantity);
+        totalQuantity += quantity;
+        totalCost += quantity * unitPrice;
+    }
+
+    void addLots(List<PurchaseLot> source) {
+        lots.ensureCapacity(source.size());
+        if (source instanceof PurchaseLotView) {
+            PurchaseLotView view = (PurchaseLotView) source;
+            for (int i = 0; i < view.size(); i++) {
+                int quantity = view.getQuantity(i);
+                double unitPrice = view.getUnitPrice(i);
+                lots.add((int) view.getEpochDay(i), unitPrice, quantity);
+                totalQuantity += quantity;
+                totalCost += quantity * unitPrice;
+            }
+            return;
+        }
+
+        for (int i = 0; i < source.size(); i++) {
+            PurchaseLot lot = source.get(i);
+            addLot(lot.getPurchaseDate(), lot.getUnitPrice(), lot.getQuantity());
+        }
+    }
+
+    void addLots(int[] epochDays, double[] unitPrices, int[] quantities, int count) {
+        lots.ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            lots.add(epochDays[i], unitPrices[i], quantities[i]);
+            totalQuantity += quantities[i];
+            totalCost += quantities[i] * unitPrices[i];
+        }
+    }
+
+    static int toEpochDay(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Data zakupu poza obsługiwanym zakresem: " + date);
+        }
+        return (int) epochDay;
+    }
+
+    double consumeFifo(int quantity, double salePrice) {
+        double totalProfit = 0.0;
+        int remainingToSell = quantity;
+
+        while (remainingToSell > 0) {
+            int lotQuantity = lots.headQuantity();
+            double unitPrice = lots.headUnitPrice();
+
+            if (lotQuantity <= remainingToSell) {
+                double lotProfit = lotQuantity * (salePrice - unitPrice);
+                totalProfit += lotProfit;
+                remainingToSell -= lotQuantity;
+                recordConsumed(lotQuantity, unitPrice);
+                lots.pollHead();
+            } else {
+                double lotProfit = remainingToSell * (salePrice - unitPrice);
+                totalProfit += lotProfit;
+                recordConsumed(remainingToSell, unitPrice);
+                lots.setHeadQuantity(lotQuantity - remainingToSell);
+                remainingToSell = 0;
+            }
+        }
+        return totalProfit;
+    }
+
+    private void recordConsumed(int quantity, double unitPrice) {
+        totalQuantity -= quantity;
+        totalCost -= quantity * unitPrice;
+    }
+}
@@ -0,0 +1,275 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.PurchaseLot;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentPortfolio {
+    public static final int DEFAULT_STRIPE_COUNT = 64;
+
+    private final double initialCash;
+    private final CashLedger cash;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    private static class CashLedger {
+        private final AtomicLong bits;
+
+        CashLedger(double initialCash) {
+            this.bits = new AtomicLong(Double.doubleToRawLongBits(initialCash));
+        }
+
+        double get() {
+            return Double.longBitsToDouble(bits.get());
+        }
+
+        void withdraw(double amount) {
+            while (true) {
+                long current = bits.get();
+                double available = Double.longBitsToDouble(current);
+                TradeValidator.checkFunds(amount, available);
+                if (bits.compareAndSet(current, Double.doubleToRawLongBits(available - amount))) {
+                    return;
+                }
+            }
+        }
+
+        void deposit(double amount) {
+            while (true) {
+                long current = bits.get();
+                double updated = Double.longBitsToDouble(current) + amount;
+                if (bits.compareAndSet(current, Double.doubleToRawLongBits(updated))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // pozycje symboli jednej blokady i zmiana gotówki wywołana ich transakcjami
+    private static class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final HoldingsStore holdings = new HeapHoldingsStore();
+        private double cashFlow;
+
+        Asset heldAsset(Asset asset) {
+            String symbol = asset.getSymbol();
+            return holdings.contains(symbol) ? holdings.getAsset(symbol) : asset.createCopy();
+        }
+    }
+
+    public ConcurrentPortfolio(double initialCash) {
+        this(initialCash, DEFAULT_STRIPE_COUNT);
+    }
+
+    public ConcurrentPortfolio(double initialCash, int stripeCount) {
+        if (initialCash < 0) {
+            throw new IllegalArgumentException("Początkowa gotówka nie może być ujemna");
+        }
+        if (Double.isNaN(initialCash) || Double.isInfinite(initialCash)) {
+            throw new IllegalArgumentException("Gotówka musi być skończoną liczbą");
+        }
+        if (stripeCount <= 0 || stripeCount > (1 << 16)) {
+            throw new IllegalArgumentException("Liczba blokad musi mieścić się w zakresie 1..65536");
+        }
+
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+
+        this.initialCash = initialCash;
+        this.cash = new CashLedger(initialCash);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    private Stripe stripeFor(String symbol) {
+        int h = symbol.hashCode();
+        return stripes[(h ^ (h >>> 16)) & stripeMask];
+    }
+
+    public void addAsset(Asset asset, int quantity, LocalDate purchaseDate) {
+        int epochDay = TradeValidator.checkPurchase(asset, quantity, purchaseDate);
+        double purchaseCost = asset.getPurchaseCost(quantity);
+
+        Stripe stripe = stripeFor(asset.getSymbol());
+        stripe.lock.lock();
+        try {
+            cash.withdraw(purchaseCost);
+            stripe.holdings.addLot(stripe.heldAsset(asset), epochDay, asset.getMarketPrice(), quantity);
+            stripe.cashFlow -= purchaseCost;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void restoreHolding(Asset asset, List<PurchaseLot> lots) {
+        TradeValidator.checkLots(asset, lots);
+
+        Stripe stripe = stripeFor(asset.getSymbol());
+        stripe.lock.lock();
+        try {
+            stripe.holdings.addLots(stripe.heldAsset(asset), lots);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public SaleResult sellAsset(String symbol, int quantity, double salePrice) {
+        TradeValidator.checkSale(symbol, quantity, salePrice);
+
+        double totalRevenue = salePrice * quantity;
+        double totalProfit;
+
+        Stripe stripe = stripeFor(symbol);
+        stripe.lock.lock();
+        try {
+            TradeValidator.checkAvailable(stripe.holdings, symbol, quantity);
+            totalProfit = stripe.holdings.sell(symbol, quantity, salePrice);
+            cash.deposit(totalRevenue);
+            stripe.cashFlow += totalRevenue;
+        } finally {
+            stripe.lock.unlock();
+        }
+        return new SaleResult(totalRevenue, totalProfit);
+    }
+
+    // każda blokada jest brana osobno; transakcja zmienia gotówkę i pozycję w obrębie jednej
+    // blokady, więc jest widoczna w całości albo wcale
+    public double auditPortfolio() {
+        double totalValue = initialCash;
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[i];
+            stripe.lock.lock();
+            try {
+                totalValue = stripe.holdings.revalueAll(totalValue + stripe.cashFlow);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return totalValue;
+    }
+
+    public Portfolio snapshot() {
+        double snapshotCash = initialCash;
+        List<Asset> assets = new ArrayList<>();
+        List<List<PurchaseLot>> lots = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[i];
+            stripe.lock.lock();
+            try {
+                snapshotCash += stripe.cashFlow;
+                List<String> symbols = stripe.holdings.getSymbols();
+                for (int j = 0; j < symbols.size(); j++) {
+                    assets.add(stripe.holdings.getAsset(symbols.get(j)));
+                    lots.add(new ArrayList<>(stripe.holdings.getPurchaseLots(symbols.get(j))));
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        Portfolio portfolio = new Portfolio(snapshotCash);
+        for (int i = 0; i < assets.size(); i++) {
+            portfolio.restoreHolding(assets.get(i), lots.get(i));
+        }
+        portfolio.clearDirtySymbols();
+        return portfolio;
+    }
+
+    public double getCash() {
+        return cash.get();
+    }
+
+    public int getHoldingsCount() {
+        int count = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[i];
+            stripe.lock.lock();
+            try {
+                count += stripe.holdings.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return count;
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public int getAssetQuantity(String symbol) {
+        if (symbol == null) {
+            return 0;
+        }
+        Stripe stripe = stripeFor(symbol);
+        stripe.lock.lock();
+        try {
+            return stripe.holdings.getTotalQuantity(symbol);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public double getCostBasis(String symbol) {
+        if (symbol == null) {
+            return 0.0;
+        }
+        Stripe stripe = stripeFor(symbol);
+        stripe.lock.lock();
+        try {
+            return stripe.holdings.getTotalCost(symbol);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public Asset getAsset(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        Stripe stripe = stripeFor(symbol);
+        stripe.lock.lock();
+        try {
+            return stripe.holdings.getAsset(symbol);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public List<PurchaseLot> getPurchaseLots(String symbol) {
+        if (symbol == null) {
+            return new ArrayList<>();
+        }
+        Stripe stripe = stripeFor(symbol);
+        stripe.lock.lock();
+        try {
+            return new ArrayList<>(stripe.holdings.getPurchaseLots(symbol));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public List<String> getAllAssetSymbols() {
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[i];
+            stripe.lock.lock();
+            try {
+                symbols.addAll(stripe.holdings.getSymbols());
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return symbols;
+    }
+}
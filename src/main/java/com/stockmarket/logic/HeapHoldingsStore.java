@@ -0,0 +1,112 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.PurchaseLot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class HeapHoldingsStore implements HoldingsStore {
+    private final Map<String, AssetHolding> holdings;
+
+    HeapHoldingsStore() {
+        this.holdings = new HashMap<>();
+    }
+
+    private AssetHolding getOrCreate(Asset asset) {
+        String symbol = asset.getSymbol();
+        AssetHolding holding = holdings.get(symbol);
+        if (holding == null) {
+            holding = new AssetHolding(asset);
+            holdings.put(symbol, holding);
+        }
+        return holding;
+    }
+
+    @Override
+    public boolean contains(String symbol) {
+        return holdings.containsKey(symbol);
+    }
+
+    @Override
+    public Asset getAsset(String symbol) {
+        AssetHolding holding = holdings.get(symbol);
+        return holding == null ? null : holding.getAsset();
+    }
+
+    @Override
+    public int getTotalQuantity(String symbol) {
+        AssetHolding holding = holdings.get(symbol);
+        return holding == null ? 0 : holding.getTotalQuantity();
+    }
+
+    @Override
+    public double getTotalCost(String symbol) {
+        AssetHolding holding = holdings.get(symbol);
+        return holding == null ? 0.0 : holding.getTotalCost();
+    }
+
+    @Override
+    public double getMarketValue(String symbol) {
+        AssetHolding holding = holdings.get(symbol);
+        return holding == null ? 0.0 : holding.getMarketValue();
+    }
+
+    @Override
+    public double revalue(String symbol) {
+        AssetHolding holding = holdings.get(symbol);
+        return holding == null ? 0.0 : holding.revalue();
+    }
+
+    @Override
+    public void addLot(Asset asset, int epochDay, double unitPrice, int quantity) {
+        getOrCreate(asset).addLot(epochDay, unitPrice, quantity);
+    }
+
+    @Override
+    public void addLots(Asset asset, List<PurchaseLot> lots) {
+        getOrCreate(asset).addLots(lots);
+    }
+
+    @Override
+    public void addLots(Asset asset, int[] epochDays, double[] unitPrices, int[] quantities, int count) {
+        getOrCreate(asset).addLots(epochDays, unitPrices, quantities, count);
+    }
+
+    @Override
+    public double sell(String symbol, int quantity, double salePrice) {
+        AssetHolding holding = holdings.get(symbol);
+        double profit = holding.consumeFifo(quantity, salePrice);
+        if (holding.isEmpty()) {
+            holdings.remove(symbol);
+        }
+        return profit;
+    }
+
+    @Override
+    public PurchaseLotView getPurchaseLots(String symbol) {
+        AssetHolding holding = holdings.get(symbol);
+        return holding == null ? PurchaseLotView.EMPTY : holding.getPurchaseLots();
+    }
+
+    @Override
+    public int size() {
+        return holdings.size();
+    }
+
+    @Override
+    public List<String> getSymbols() {
+        return new ArrayList<>(holdings.keySet());
+    }
+
+    @Override
+    public double revalueAll(double initialValue) {
+        double totalValue = initialValue;
+        for (AssetHolding holding : holdings.values()) {
+            totalValue += holding.revalue();
+        }
+        return totalValue;
+    }
+}
@@ -0,0 +1,6 @@
+package com.stockmarket.logic;
+
+public enum HoldingsBackend {
+    HEAP,
+    OFF_HEAP
+}
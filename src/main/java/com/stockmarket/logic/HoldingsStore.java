@@ -0,0 +1,36 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.PurchaseLot;
+
+import java.util.List;
+
+interface HoldingsStore {
+    boolean contains(String symbol);
+
+    Asset getAsset(String symbol);
+
+    int getTotalQuantity(String symbol);
+
+    double getTotalCost(String symbol);
+
+    double getMarketValue(String symbol);
+
+    double revalue(String symbol);
+
+    void addLot(Asset asset, int epochDay, double unitPrice, int quantity);
+
+    void addLots(Asset asset, List<PurchaseLot> lots);
+
+    void addLots(Asset asset, int[] epochDays, double[] unitPrices, int[] quantities, int count);
+
+    double sell(String symbol, int quantity, double salePrice);
+
+    PurchaseLotView getPurchaseLots(String symbol);
+
+    int size();
+
+    List<String> getSymbols();
+
+    double revalueAll(double initialValue);
+}
@@ -0,0 +1,13 @@
+package com.stockmarket.logic;
+
+interface LotSource {
+    int size();
+
+    int epochDay(int index);
+
+    double unitPrice(int index);
+
+    int quantity(int index);
+
+    int getModCount();
+}
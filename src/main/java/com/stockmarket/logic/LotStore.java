@@ -0,0 +1,112 @@
+package com.stockmarket.logic;
+
+final class LotStore implements LotSource {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] epochDays;
+    private double[] unitPrices;
+    private int[] quantities;
+    private int head;
+    private int tail;
+    private int modCount;
+
+    LotStore() {
+        this.epochDays = new int[INITIAL_CAPACITY];
+        this.unitPrices = new double[INITIAL_CAPACITY];
+        this.quantities = new int[INITIAL_CAPACITY];
+        this.head = 0;
+        this.tail = 0;
+        this.modCount = 0;
+    }
+
+    @Override
+    public int size() {
+        return tail - head;
+    }
+
+    boolean isEmpty() {
+        return head == tail;
+    }
+
+    @Override
+    public int getModCount() {
+        return modCount;
+    }
+
+    void add(int epochDay, double unitPrice, int quantity) {
+        if (tail == quantities.length) {
+            makeRoom(1);
+        }
+        epochDays[tail] = epochDay;
+        unitPrices[tail] = unitPrice;
+        quantities[tail] = quantity;
+        tail++;
+        modCount++;
+    }
+
+    void ensureCapacity(int additional) {
+        if (quantities.length - tail < additional) {
+            makeRoom(additional);
+        }
+    }
+
+    private void makeRoom(int additional) {
+        int size = size();
+        int required = size + additional;
+        if (required <= quantities.length / 2 + quantities.length / 4) {
+            System.arraycopy(epochDays, head, epochDays, 0, size);
+            System.arraycopy(unitPrices, head, unitPrices, 0, size);
+            System.arraycopy(quantities, head, quantities, 0, size);
+        } else {
+            int capacity = Math.max(required, quantities.length * 2);
+            int[] newEpochDays = new int[capacity];
+            double[] newUnitPrices = new double[capacity];
+            int[] newQuantities = new int[capacity];
+            System.arraycopy(epochDays, head, newEpochDays, 0, size);
+            System.arraycopy(unitPrices, head, newUnitPrices, 0, size);
+            System.arraycopy(quantities, head, newQuantities, 0, size);
+            epochDays = newEpochDays;
+            unitPrices = newUnitPrices;
+            quantities = newQuantities;
+        }
+        head = 0;
+        tail = size;
+    }
+
+    @Override
+    public int epochDay(int index) {
+        return epochDays[head + index];
+    }
+
+    @Override
+    public double unitPrice(int index) {
+        return unitPrices[head + index];
+    }
+
+    @Override
+    public int quantity(int index) {
+        return quantities[head + index];
+    }
+
+    int headQuantity() {
+        return quantities[head];
+    }
+
+    double headUnitPrice() {
+        return unitPrices[head];
+    }
+
+    void setHeadQuantity(int quantity) {
+        quantities[head] = quantity;
+        modCount++;
+    }
+
+    void pollHead() {
+        head++;
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+        }
+        modCount++;
+    }
+}
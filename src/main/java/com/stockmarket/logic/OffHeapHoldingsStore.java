@@ -0,0 +1,430 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.PurchaseLot;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+final class OffHeapHoldingsStore implements HoldingsStore {
+    private static final int LOT_BYTES = 16;
+    private static final int LOT_QUANTITY = 4;
+    private static final int LOT_PRICE = 8;
+
+    private static final int SLOT_BYTES = 48;
+    private static final int SLOT_BLOCK = 0;
+    private static final int SLOT_HEAD = 8;
+    private static final int SLOT_COUNT = 12;
+    private static final int SLOT_SHIFT = 16;
+    private static final int SLOT_QUANTITY = 20;
+    private static final int SLOT_COST = 24;
+    private static final int SLOT_MOD_COUNT = 32;
+    private static final int SLOT_VALUE = 40;
+
+    private static final int MIN_BLOCK_SHIFT = 2;
+    private static final int MAX_BLOCK_SHIFT = 26;
+    private static final int MIN_CHUNK_BYTES = 1 << 16;
+    private static final int MAX_CHUNK_BYTES = 1 << 26;
+    private static final int INITIAL_SLOTS = 16;
+
+    private final SymbolIndex index;
+    private final List<ByteBuffer> chunks;
+    private final long[][] freeBlocks;
+    private final int[] freeBlockCounts;
+    private int sharedChunk;
+    private int sharedOffset;
+    private int nextChunkBytes;
+
+    private ByteBuffer slots;
+    private Asset[] assets;
+    private int slotHighWater;
+    private int[] freeSlots;
+    private int freeSlotCount;
+
+    private static class SlotLots implements LotSource {
+        private final OffHeapHoldingsStore store;
+        private final int slot;
+
+        SlotLots(OffHeapHoldingsStore store, int slot) {
+            this.store = store;
+            this.slot = slot;
+        }
+
+        @Override
+        public int size() {
+            return store.slots.getInt(slot * SLOT_BYTES + SLOT_COUNT);
+        }
+
+        @Override
+        public int epochDay(int index) {
+            return store.lotBuffer(slot).getInt(store.lotPosition(slot, index));
+        }
+
+        @Override
+        public double unitPrice(int index) {
+            return store.lotBuffer(slot).getDouble(store.lotPosition(slot, index) + LOT_PRICE);
+        }
+
+        @Override
+        public int quantity(int index) {
+            return store.lotBuffer(slot).getInt(store.lotPosition(slot, index) + LOT_QUANTITY);
+        }
+
+        @Override
+        public int getModCount() {
+            return store.slots.getInt(slot * SLOT_BYTES + SLOT_MOD_COUNT);
+        }
+    }
+
+    OffHeapHoldingsStore() {
+        this.index = new SymbolIndex();
+        this.chunks = new ArrayList<>();
+        this.freeBlocks = new long[MAX_BLOCK_SHIFT + 1][];
+        this.freeBlockCounts = new int[MAX_BLOCK_SHIFT + 1];
+        this.sharedChunk = -1;
+        this.sharedOffset = 0;
+        this.nextChunkBytes = MIN_CHUNK_BYTES;
+        this.slots = allocate(INITIAL_SLOTS * SLOT_BYTES);
+        this.assets = new Asset[INITIAL_SLOTS];
+        this.slotHighWater = 0;
+        this.freeSlots = new int[INITIAL_SLOTS];
+        this.freeSlotCount = 0;
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    private long allocateBlock(int shift) {
+        if (freeBlockCounts[shift] > 0) {
+            freeBlockCounts[shift]--;
+            return freeBlocks[shift][freeBlockCounts[shift]];
+        }
+
+        int bytes = LOT_BYTES << shift;
+        if (bytes > MAX_CHUNK_BYTES / 4) {
+            chunks.add(allocate(bytes));
+            return (long) (chunks.size() - 1) << 32;
+        }
+        if (sharedChunk < 0 || sharedOffset + bytes > chunks.get(sharedChunk).capacity()) {
+            int chunkBytes = Math.max(nextChunkBytes, bytes);
+            chunks.add(allocate(chunkBytes));
+            sharedChunk = chunks.size() - 1;
+            sharedOffset = 0;
+            nextChunkBytes = Math.min(MAX_CHUNK_BYTES, nextChunkBytes * 2);
+        }
+        long address = ((long) sharedChunk << 32) | sharedOffset;
+        sharedOffset += bytes;
+        return address;
+    }
+
+    private void freeBlock(long address, int shift) {
+        long[] stack = freeBlocks[shift];
+        if (stack == null) {
+            stack = new long[4];
+        } else if (freeBlockCounts[shift] == stack.length) {
+            long[] grown = new long[stack.length * 2];
+            System.arraycopy(stack, 0, grown, 0, stack.length);
+            stack = grown;
+        }
+        freeBlocks[shift] = stack;
+        stack[freeBlockCounts[shift]] = address;
+        freeBlockCounts[shift]++;
+    }
+
+    private ByteBuffer lotBuffer(int slot) {
+        return chunks.get((int) (slots.getLong(slot * SLOT_BYTES + SLOT_BLOCK) >>> 32));
+    }
+
+    private int lotPosition(int slot, int lotIndex) {
+        int base = slot * SLOT_BYTES;
+        int offset = (int) slots.getLong(base + SLOT_BLOCK);
+        int capacityMask = (1 << slots.getInt(base + SLOT_SHIFT)) - 1;
+        return offset + ((slots.getInt(base + SLOT_HEAD) + lotIndex) & capacityMask) * LOT_BYTES;
+    }
+
+    private int slotOf(String symbol) {
+        return symbol == null ? -1 : index.get(symbol);
+    }
+
+    private int getOrCreateSlot(Asset asset, int additionalLots) {
+        String symbol = asset.getSymbol();
+        int slot = index.get(symbol);
+        if (slot >= 0) {
+            ensureLotCapacity(slot, additionalLots);
+            return slot;
+        }
+        if (additionalLots > (1 << MAX_BLOCK_SHIFT)) {
+            throw new IllegalStateException("Przekroczono maksymalną liczbę partii aktywa: " + (1 << MAX_BLOCK_SHIFT));
+        }
+
+        if (freeSlotCount > 0) {
+            freeSlotCount--;
+            slot = freeSlots[freeSlotCount];
+        } else {
+            if (slotHighWater == assets.length) {
+                growSlots();
+            }
+            slot = slotHighWater;
+            slotHighWater++;
+        }
+
+        int base = slot * SLOT_BYTES;
+        slots.putLong(base + SLOT_BLOCK, allocateBlock(MIN_BLOCK_SHIFT));
+        slots.putInt(base + SLOT_HEAD, 0);
+        slots.putInt(base + SLOT_COUNT, 0);
+        slots.putInt(base + SLOT_SHIFT, MIN_BLOCK_SHIFT);
+        slots.putInt(base + SLOT_QUANTITY, 0);
+        slots.putDouble(base + SLOT_COST, 0.0);
+        slots.putDouble(base + SLOT_VALUE, 0.0);
+        assets[slot] = asset;
+        index.put(symbol, slot);
+        ensureLotCapacity(slot, additionalLots);
+        return slot;
+    }
+
+    private void growSlots() {
+        int capacity = assets.length * 2;
+        ByteBuffer grown = allocate(capacity * SLOT_BYTES);
+        ByteBuffer source = slots.duplicate();
+        source.clear();
+        grown.put(source);
+        grown.clear();
+        slots = grown;
+
+        Asset[] grownAssets = new Asset[capacity];
+        System.arraycopy(assets, 0, grownAssets, 0, assets.length);
+        assets = grownAssets;
+
+        int[] grownFree = new int[capacity];
+        System.arraycopy(freeSlots, 0, grownFree, 0, freeSlotCount);
+        freeSlots = grownFree;
+    }
+
+    private void releaseSlot(int slot, String symbol) {
+        int base = slot * SLOT_BYTES;
+        freeBlock(slots.getLong(base + SLOT_BLOCK), slots.getInt(base + SLOT_SHIFT));
+        slots.putInt(base + SLOT_HEAD, 0);
+        slots.putInt(base + SLOT_COUNT, 0);
+        slots.putInt(base + SLOT_QUANTITY, 0);
+        slots.putDouble(base + SLOT_COST, 0.0);
+        slots.putDouble(base + SLOT_VALUE, 0.0);
+        touch(slot);
+        assets[slot] = null;
+        index.remove(symbol);
+        freeSlots[freeSlotCount] = slot;
+        freeSlotCount++;
+    }
+
+    private void touch(int slot) {
+        int position = slot * SLOT_BYTES + SLOT_MOD_COUNT;
+        slots.putInt(position, slots.getInt(position) + 1);
+    }
+
+    private void ensureLotCapacity(int slot, int additional) {
+        int base = slot * SLOT_BYTES;
+        int count = slots.getInt(base + SLOT_COUNT);
+        int shift = slots.getInt(base + SLOT_SHIFT);
+        long required = (long) count + additional;
+        if (required <= (1L << shift)) {
+            return;
+        }
+
+        int newShift = shift;
+        while ((1L << newShift) < required) {
+            newShift++;
+        }
+        if (newShift > MAX_BLOCK_SHIFT) {
+            throw new IllegalStateException("Przekroczono maksymalną liczbę partii aktywa: " + (1 << MAX_BLOCK_SHIFT));
+        }
+
+        long oldBlock = slots.getLong(base + SLOT_BLOCK);
+        long newBlock = allocateBlock(newShift);
+        ByteBuffer source = chunks.get((int) (oldBlock >>> 32));
+        ByteBuffer target = chunks.get((int) (newBlock >>> 32));
+        int targetOffset = (int) newBlock;
+        for (int i = 0; i < count; i++) {
+            int from = lotPosition(slot, i);
+            int to = targetOffset + i * LOT_BYTES;
+            target.putLong(to, source.getLong(from));
+            target.putLong(to + LOT_PRICE, source.getLong(from + LOT_PRICE));
+        }
+        freeBlock(oldBlock, shift);
+
+        slots.putLong(base + SLOT_BLOCK, newBlock);
+        slots.putInt(base + SLOT_HEAD, 0);
+        slots.putInt(base + SLOT_SHIFT, newShift);
+    }
+
+    private void appendLot(int slot, int epochDay, double unitPrice, int quantity) {
+        int base = slot * SLOT_BYTES;
+        int count = slots.getInt(base + SLOT_COUNT);
+        ByteBuffer buffer = lotBuffer(slot);
+        int position = lotPosition(slot, count);
+        buffer.putInt(position, epochDay);
+        buffer.putInt(position + LOT_QUANTITY, quantity);
+        buffer.putDouble(position + LOT_PRICE, unitPrice);
+        slots.putInt(base + SLOT_COUNT, count + 1);
+        slots.putInt(base + SLOT_QUANTITY, slots.getInt(base + SLOT_QUANTITY) + quantity);
+        slots.putDouble(base + SLOT_COST, slots.getDouble(base + SLOT_COST) + quantity * unitPrice);
+    }
+
+    @Override
+    public boolean contains(String symbol) {
+        return slotOf(symbol) >= 0;
+    }
+
+    @Override
+    public Asset getAsset(String symbol) {
+        int slot = slotOf(symbol);
+        return slot < 0 ? null : assets[slot];
+    }
+
+    @Override
+    public int getTotalQuantity(String symbol) {
+        int slot = slotOf(symbol);
+        return slot < 0 ? 0 : slots.getInt(slot * SLOT_BYTES + SLOT_QUANTITY);
+    }
+
+    @Override
+    public double getTotalCost(String symbol) {
+        int slot = slotOf(symbol);
+        return slot < 0 ? 0.0 : slots.getDouble(slot * SLOT_BYTES + SLOT_COST);
+    }
+
+    @Override
+    public double getMarketValue(String symbol) {
+        int slot = slotOf(symbol);
+        return slot < 0 ? 0.0 : slots.getDouble(slot * SLOT_BYTES + SLOT_VALUE);
+    }
+
+    @Override
+    public double revalue(String symbol) {
+        int slot = slotOf(symbol);
+        return slot < 0 ? 0.0 : revalueSlot(slot);
+    }
+
+    private double revalueSlot(int slot) {
+        int base = slot * SLOT_BYTES;
+        double value = assets[slot].calculateRealValue(slots.getInt(base + SLOT_QUANTITY));
+        slots.putDouble(base + SLOT_VALUE, value);
+        return value;
+    }
+
+    @Override
+    public void addLot(Asset asset, int epochDay, double unitPrice, int quantity) {
+        int slot = getOrCreateSlot(asset, 1);
+        appendLot(slot, epochDay, unitPrice, quantity);
+        touch(slot);
+    }
+
+    @Override
+    public void addLots(Asset asset, List<PurchaseLot> lots) {
+        int slot = getOrCreateSlot(asset, lots.size());
+        if (lots instanceof PurchaseLotView) {
+            PurchaseLotView view = (PurchaseLotView) lots;
+            for (int i = 0; i < view.size(); i++) {
+                appendLot(slot, (int) view.getEpochDay(i), view.getUnitPrice(i), view.getQuantity(i));
+            }
+        } else {
+            for (int i = 0; i < lots.size(); i++) {
+                PurchaseLot lot = lots.get(i);
+                appendLot(slot, AssetHolding.toEpochDay(lot.getPurchaseDate()), lot.getUnitPrice(), lot.getQuantity());
+            }
+        }
+        touch(slot);
+    }
+
+    @Override
+    public void addLots(Asset asset, int[] epochDays, double[] unitPrices, int[] quantities, int count) {
+        int slot = getOrCreateSlot(asset, count);
+        for (int i = 0; i < count; i++) {
+            appendLot(slot, epochDays[i], unitPrices[i], quantities[i]);
+        }
+        touch(slot);
+    }
+
+    @Override
+    public double sell(String symbol, int quantity, double salePrice) {
+        int slot = index.get(symbol);
+        int base = slot * SLOT_BYTES;
+        ByteBuffer buffer = lotBuffer(slot);
+        int head = slots.getInt(base + SLOT_HEAD);
+        int count = slots.getInt(base + SLOT_COUNT);
+        int capacityMask = (1 << slots.getInt(base + SLOT_SHIFT)) - 1;
+        int offset = (int) slots.getLong(base + SLOT_BLOCK);
+        int totalQuantity = slots.getInt(base + SLOT_QUANTITY);
+        double totalCost = slots.getDouble(base + SLOT_COST);
+
+        double totalProfit = 0.0;
+        int remainingToSell = quantity;
+        while (remainingToSell > 0) {
+            int position = offset + head * LOT_BYTES;
+            int lotQuantity = buffer.getInt(position + LOT_QUANTITY);
+            double unitPrice = buffer.getDouble(position + LOT_PRICE);
+
+            if (lotQuantity <= remainingToSell) {
+                double lotProfit = lotQuantity * (salePrice - unitPrice);
+                totalProfit += lotProfit;
+                remainingToSell -= lotQuantity;
+                totalQuantity -= lotQuantity;
+                totalCost -= lotQuantity * unitPrice;
+                head = (head + 1) & capacityMask;
+                count--;
+            } else {
+                double lotProfit = remainingToSell * (salePrice - unitPrice);
+                totalProfit += lotProfit;
+                totalQuantity -= remainingToSell;
+                totalCost -= remainingToSell * unitPrice;
+                buffer.putInt(position + LOT_QUANTITY, lotQuantity - remainingToSell);
+                remainingToSell = 0;
+            }
+        }
+
+        if (count == 0) {
+            releaseSlot(slot, symbol);
+            return totalProfit;
+        }
+        slots.putInt(base + SLOT_HEAD, head);
+        slots.putInt(base + SLOT_COUNT, count);
+        slots.putInt(base + SLOT_QUANTITY, totalQuantity);
+        slots.putDouble(base + SLOT_COST, totalCost);
+        touch(slot);
+        return totalProfit;
+    }
+
+    @Override
+    public PurchaseLotView getPurchaseLots(String symbol) {
+        int slot = slotOf(symbol);
+        return slot < 0 ? PurchaseLotView.EMPTY : new PurchaseLotView(new SlotLots(this, slot));
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public List<String> getSymbols() {
+        List<String> symbols = new ArrayList<>(index.size());
+        for (int slot = 0; slot < slotHighWater; slot++) {
+            if (assets[slot] != null) {
+                symbols.add(assets[slot].getSymbol());
+            }
+        }
+        return symbols;
+    }
+
+    @Override
+    public double revalueAll(double initialValue) {
+        double totalValue = initialValue;
+        for (int slot = 0; slot < slotHighWater; slot++) {
+            if (assets[slot] != null) {
+                totalValue += revalueSlot(slot);
+            }
+        }
+        return totalValue;
+    }
+}
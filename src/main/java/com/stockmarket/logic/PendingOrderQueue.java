@@ -0,0 +1,270 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.Order;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+class PendingOrderQueue {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private PendingOrder[] heap;
+    private int size;
+    private PendingOrder[] index;
+
+    static class PendingOrder {
+        private final long orderId;
+        private Order order;
+        private double priority;
+        private long sequence;
+        private int heapIndex;
+
+        PendingOrder(long orderId, Order order, long sequence) {
+            this.orderId = orderId;
+            this.order = order;
+            this.priority = order.calculateAttractiveness();
+            this.sequence = sequence;
+            this.heapIndex = -1;
+        }
+
+        long getOrderId() {
+            return orderId;
+        }
+
+        Order getOrder() {
+            return order;
+        }
+
+        double getPriority() {
+            return priority;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+    }
+
+    PendingOrderQueue() {
+        this.heap = new PendingOrder[INITIAL_CAPACITY];
+        this.size = 0;
+        this.index = new PendingOrder[INITIAL_CAPACITY * 2];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void offer(PendingOrder entry) {
+        ensureCapacity(size + 1);
+        heap[size] = entry;
+        entry.heapIndex = size;
+        size++;
+        indexPut(entry);
+        siftUp(entry.heapIndex);
+    }
+
+    void offerAll(PendingOrder[] entries) {
+        int existing = size;
+        ensureCapacity(size + entries.length);
+        for (int i = 0; i < entries.length; i++) {
+            PendingOrder entry = entries[i];
+            heap[size] = entry;
+            entry.heapIndex = size;
+            size++;
+            indexPut(entry);
+        }
+
+        if (entries.length >= existing) {
+            for (int i = (size >>> 1) - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        } else {
+            for (int i = existing; i < size; i++) {
+                siftUp(i);
+            }
+        }
+    }
+
+    PendingOrder peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    PendingOrder poll() {
+        if (size == 0) {
+            return null;
+        }
+        PendingOrder head = heap[0];
+        removeAt(0);
+        return head;
+    }
+
+    PendingOrder[] toArrayBySequence() {
+        PendingOrder[] entries = new PendingOrder[size];
+        System.arraycopy(heap, 0, entries, 0, size);
+        Arrays.sort(entries, new SequenceComparator());
+        return entries;
+    }
+
+    PendingOrder get(long orderId) {
+        int mask = index.length - 1;
+        int slot = slotFor(orderId, mask);
+        while (index[slot] != null) {
+            if (index[slot].getOrderId() == orderId) {
+                return index[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    PendingOrder remove(long orderId) {
+        PendingOrder entry = get(orderId);
+        if (entry == null) {
+            return null;
+        }
+        removeAt(entry.heapIndex);
+        return entry;
+    }
+
+    void update(PendingOrder entry, Order order, long sequence) {
+        entry.order = order;
+        entry.priority = order.calculateAttractiveness();
+        entry.sequence = sequence;
+        int position = entry.heapIndex;
+        siftUp(position);
+        if (heap[position] == entry) {
+            siftDown(position);
+        }
+    }
+
+    private void removeAt(int position) {
+        PendingOrder removed = heap[position];
+        indexRemove(removed.getOrderId());
+        removed.heapIndex = -1;
+
+        size--;
+        if (position == size) {
+            heap[size] = null;
+            return;
+        }
+
+        PendingOrder last = heap[size];
+        heap[size] = null;
+        heap[position] = last;
+        last.heapIndex = position;
+        siftUp(position);
+        if (heap[position] == last) {
+            siftDown(position);
+        }
+    }
+
+    private void siftUp(int position) {
+        PendingOrder entry = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            PendingOrder parentEntry = heap[parent];
+            if (!isBefore(entry, parentEntry)) {
+                break;
+            }
+            heap[position] = parentEntry;
+            parentEntry.heapIndex = position;
+            position = parent;
+        }
+        heap[position] = entry;
+        entry.heapIndex = position;
+    }
+
+    private void siftDown(int position) {
+        PendingOrder entry = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && isBefore(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!isBefore(heap[child], entry)) {
+                break;
+            }
+            heap[position] = heap[child];
+            heap[position].heapIndex = position;
+            position = child;
+        }
+        heap[position] = entry;
+        entry.heapIndex = position;
+    }
+
+    private boolean isBefore(PendingOrder first, PendingOrder second) {
+        int priorityComparison = Double.compare(first.getPriority(), second.getPriority());
+        if (priorityComparison != 0) {
+            return priorityComparison > 0;
+        }
+        return first.getSequence() < second.getSequence();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > heap.length) {
+            int newCapacity = Math.max(capacity, heap.length * 2);
+            PendingOrder[] grown = new PendingOrder[newCapacity];
+            System.arraycopy(heap, 0, grown, 0, size);
+            heap = grown;
+        }
+        if (capacity * 2 > index.length) {
+            int newLength = index.length;
+            while (capacity * 2 > newLength) {
+                newLength *= 2;
+            }
+            PendingOrder[] old = index;
+            index = new PendingOrder[newLength];
+            for (int i = 0; i < old.length; i++) {
+                if (old[i] != null) {
+                    indexPut(old[i]);
+                }
+            }
+        }
+    }
+
+    private void indexPut(PendingOrder entry) {
+        int mask = index.length - 1;
+        int slot = slotFor(entry.getOrderId(), mask);
+        while (index[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = entry;
+    }
+
+    private void indexRemove(long orderId) {
+        int mask = index.length - 1;
+        int slot = slotFor(orderId, mask);
+        while (index[slot].getOrderId() != orderId) {
+            slot = (slot + 1) & mask;
+        }
+
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (index[next] != null) {
+            int home = slotFor(index[next].getOrderId(), mask);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                index[hole] = index[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        index[hole] = null;
+    }
+
+    private static int slotFor(long orderId, int mask) {
+        return (int) (orderId ^ (orderId >>> 32)) & mask;
+    }
+
+    private static class SequenceComparator implements Comparator<PendingOrder> {
+        @Override
+        public int compare(PendingOrder o1, PendingOrder o2) {
+            return Long.compare(o1.getSequence(), o2.getSequence());
+        }
+    }
+}
@@ -1,184 +1,459 @@
 package com.stockmarket.logic;
 
 import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.AssetRegistry;
 import com.stockmarket.domain.AssetType;
 import com.stockmarket.domain.Order;
 import com.stockmarket.domain.OrderType;
+import com.stockmarket.domain.PriceListener;
+import com.stockmarket.domain.PriceSource;
 import com.stockmarket.domain.PurchaseLot;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class Portfolio {
-    private double cash;
-    private final Map<String, AssetHolding> holdings;
-    private final PriorityQueue<Order> pendingOrders;
-
-    private static class AssetHolding {
-        private final Asset asset;
-        private final List<PurchaseLot> purchaseLots;
+    private static final int DEFAULT_NAV_AUDIT_INTERVAL = 100_000;
 
-        public AssetHolding(Asset asset) {
-            this.asset = asset;
-            this.purchaseLots = new ArrayList<>();
-        }
+    private double cash;
+    private double netAssetValue;
+    private long navUpdatesSinceAudit;
+    private int navAuditInterval;
+    private final PriceListener priceListener;
+    private final AssetRegistry assetRegistry;
+    private final HoldingsBackend holdingsBackend;
+    private final HoldingsStore holdings;
+    private final Set<String> dirtySymbols;
+    private final PendingOrderQueue pendingOrders;
+    private long nextOrderId;
+    private long nextOrderSequence;
+    private PortfolioListener listener;
 
-        public Asset getAsset() {
-            return asset;
-        }
+    public Portfolio(double initialCash) {
+        this(initialCash, HoldingsBackend.HEAP);
+    }
 
-        public List<PurchaseLot> getPurchaseLots() {
-            return purchaseLots;
-        }
+    public Portfolio(double initialCash, HoldingsBackend holdingsBackend) {
+        this(initialCash, holdingsBackend, null);
+    }
 
-        public int getTotalQuantity() {
-            int total = 0;
-            for (int i = 0; i < purchaseLots.size(); i++) {
-                total += purchaseLots.get(i).getQuantity();
-            }
-            return total;
-        }
+    public Portfolio(double initialCash, AssetRegistry assetRegistry) {
+        this(initialCash, HoldingsBackend.HEAP, assetRegistry);
     }
 
-    public Portfolio(double initialCash) {
+    public Portfolio(double initialCash, HoldingsBackend holdingsBackend, AssetRegistry assetRegistry) {
         if (initialCash < 0) {
             throw new IllegalArgumentException("Początkowa gotówka nie może być ujemna");
         }
         if (Double.isNaN(initialCash) || Double.isInfinite(initialCash)) {
             throw new IllegalArgumentException("Gotówka musi być skończoną liczbą");
         }
+        if (holdingsBackend == null) {
+            throw new IllegalArgumentException("Rodzaj magazynu pozycji nie może być null");
+        }
 
         this.cash = initialCash;
-        this.holdings = new HashMap<>();
-        this.pendingOrders = new PriorityQueue<>(new OrderComparator());
+        this.netAssetValue = initialCash;
+        this.navUpdatesSinceAudit = 0;
+        this.navAuditInterval = DEFAULT_NAV_AUDIT_INTERVAL;
+        this.priceListener = this::onHoldingPriceChanged;
+        this.assetRegistry = assetRegistry;
+        this.holdingsBackend = holdingsBackend;
+        this.holdings = holdingsBackend == HoldingsBackend.OFF_HEAP ? new OffHeapHoldingsStore() : new HeapHoldingsStore();
+        this.dirtySymbols = new HashSet<>();
+        this.pendingOrders = new PendingOrderQueue();
+        this.nextOrderId = 1;
+        this.nextOrderSequence = 0;
     }
 
     public void addAsset(Asset asset, int quantity, LocalDate purchaseDate) {
-        if (asset == null || quantity <= 0) {
-            throw new IllegalArgumentException("Asset nie może być null, a ilość musi być większa od zera");
-        }
-        if (purchaseDate == null) {
-            throw new IllegalArgumentException("Data zakupu nie może być null");
+        int epochDay = TradeValidator.checkPurchase(asset, quantity, purchaseDate);
+        double purchaseCost = asset.getPurchaseCost(quantity);
+        TradeValidator.checkFunds(purchaseCost, cash);
+        beforeMutation();
+
+        String symbol = asset.getSymbol();
+        boolean newHolding = !holdings.contains(symbol);
+        Asset heldAsset = newHolding ? toHeldAsset(asset) : holdings.getAsset(symbol);
+        double valueBefore = holdings.getMarketValue(symbol);
+        holdings.addLot(heldAsset, epochDay, asset.getMarketPrice(), quantity);
+        cash -= purchaseCost;
+        if (newHolding) {
+            attachPriceListener(heldAsset);
         }
+        applyValueChange(holdings.revalue(symbol) - valueBefore - purchaseCost);
+        dirtySymbols.add(symbol);
 
-        double purchaseCost = asset.getPurchaseCost(quantity);
-        if (cash < purchaseCost) {
-            throw new InsufficientFundsException("Niewystarczająca gotówka. Wymagane: " + purchaseCost + ", dostępne: " + cash);
+        if (listener != null) {
+            listener.onAssetAdded(asset, quantity, purchaseDate);
         }
+    }
+
+    public void restoreHolding(Asset asset, List<PurchaseLot> lots) {
+        TradeValidator.checkLots(asset, lots);
 
         String symbol = asset.getSymbol();
-        AssetHolding holding = holdings.get(symbol);
-        
-        if (holding == null) {
-            holding = new AssetHolding(asset.createCopy());
-            holdings.put(symbol, holding);
+        boolean newHolding = !holdings.contains(symbol);
+        Asset heldAsset = newHolding ? toHeldAsset(asset) : holdings.getAsset(symbol);
+        double valueBefore = holdings.getMarketValue(symbol);
+        holdings.addLots(heldAsset, lots);
+        if (newHolding) {
+            attachPriceListener(heldAsset);
         }
+        applyValueChange(holdings.revalue(symbol) - valueBefore);
+        dirtySymbols.add(symbol);
+    }
 
-        PurchaseLot lot = new PurchaseLot(purchaseDate, asset.getMarketPrice(), quantity);
-        holding.getPurchaseLots().add(lot);
-        cash -= purchaseCost;
+    public void restoreHolding(Asset asset, int[] epochDays, double[] unitPrices, int[] quantities, int lotCount) {
+        checkLotArrays(asset, epochDays, unitPrices, quantities, lotCount);
+        for (int i = 0; i < lotCount; i++) {
+            if (quantities[i] <= 0) {
+                throw new IllegalArgumentException("Ilość musi być większa od zera");
+            }
+            if (unitPrices[i] <= 0 || Double.isNaN(unitPrices[i]) || Double.isInfinite(unitPrices[i])) {
+                throw new IllegalArgumentException("Cena jednostkowa musi być skończoną liczbą większą od zera");
+            }
+        }
+        addRestoredLots(asset, epochDays, unitPrices, quantities, lotCount);
+    }
+
+    public void restoreVerifiedHolding(Asset asset, int[] epochDays, double[] unitPrices, int[] quantities,
+                                       int lotCount) {
+        checkLotArrays(asset, epochDays, unitPrices, quantities, lotCount);
+        addRestoredLots(asset, epochDays, unitPrices, quantities, lotCount);
+    }
+
+    private static void checkLotArrays(Asset asset, int[] epochDays, double[] unitPrices, int[] quantities,
+                                       int lotCount) {
+        if (asset == null) {
+            throw new IllegalArgumentException("Asset nie może być null");
+        }
+        if (epochDays == null || unitPrices == null || quantities == null) {
+            throw new IllegalArgumentException("Tablice partii nie mogą być null");
+        }
+        if (lotCount <= 0) {
+            throw new IllegalArgumentException("Liczba partii musi być większa od zera");
+        }
+        if (lotCount > epochDays.length || lotCount > unitPrices.length || lotCount > quantities.length) {
+            throw new IllegalArgumentException("Liczba partii przekracza rozmiar tablic: " + lotCount);
+        }
+    }
+
+    private void addRestoredLots(Asset asset, int[] epochDays, double[] unitPrices, int[] quantities, int lotCount) {
+        String symbol = asset.getSymbol();
+        boolean newHolding = !holdings.contains(symbol);
+        Asset heldAsset = newHolding ? toHeldAsset(asset) : holdings.getAsset(symbol);
+        double valueBefore = holdings.getMarketValue(symbol);
+        holdings.addLots(heldAsset, epochDays, unitPrices, quantities, lotCount);
+        if (newHolding) {
+            attachPriceListener(heldAsset);
+        }
+        applyValueChange(holdings.revalue(symbol) - valueBefore);
+        dirtySymbols.add(symbol);
     }
 
     public SaleResult sellAsset(String symbol, int quantity, double salePrice) {
-        if (symbol == null || symbol.trim().isEmpty()) {
-            throw new IllegalArgumentException("Symbol nie może być null ani pusty");
+        TradeValidator.checkSale(symbol, quantity, salePrice);
+        TradeValidator.checkAvailable(holdings, symbol, quantity);
+        beforeMutation();
+
+        double totalRevenue = salePrice * quantity;
+        Asset heldAsset = holdings.getAsset(symbol);
+        double valueBefore = holdings.getMarketValue(symbol);
+        double totalProfit = holdings.sell(symbol, quantity, salePrice);
+
+        double valueAfter = 0.0;
+        if (holdings.contains(symbol)) {
+            valueAfter = holdings.revalue(symbol);
+        } else {
+            detachPriceListener(heldAsset);
         }
-        if (quantity <= 0) {
-            throw new IllegalArgumentException("Ilość musi być większa od zera");
+        cash += totalRevenue;
+        applyValueChange(valueAfter - valueBefore + totalRevenue);
+        dirtySymbols.add(symbol);
+
+        if (listener != null) {
+            listener.onAssetSold(symbol, quantity, salePrice);
         }
-        if (salePrice <= 0) {
-            throw new IllegalArgumentException("Cena sprzedaży musi być większa od zera");
+        return new SaleResult(totalRevenue, totalProfit);
+    }
+
+    public long addOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Zlecenie nie może być null");
         }
+        beforeMutation();
+
+        long orderId = nextOrderId++;
+        pendingOrders.offer(new PendingOrderQueue.PendingOrder(orderId, order, nextOrderSequence++));
 
-        AssetHolding holding = holdings.get(symbol);
-        if (holding == null) {
-            throw new InsufficientAssetsException("Brak aktywa o symbolu: " + symbol);
+        if (listener != null) {
+            listener.onOrderAdded(orderId, order);
         }
+        return orderId;
+    }
 
-        int totalQuantity = holding.getTotalQuantity();
-        if (totalQuantity < quantity) {
-            throw new InsufficientAssetsException("Niewystarczająca ilość aktywów. Wymagane: " + quantity + ", dostępne: " + totalQuantity);
+    public long[] addOrders(Collection<Order> orders) {
+        if (orders == null) {
+            throw new IllegalArgumentException("Kolekcja zleceń nie może być null");
         }
 
-        double totalRevenue = salePrice * quantity;
-        double totalProfit = 0.0;
-        int remainingToSell = quantity;
-
-        List<PurchaseLot> lots = holding.getPurchaseLots();
-        List<PurchaseLot> lotsToRemove = new ArrayList<>();
-
-        for (int i = 0; i < lots.size() && remainingToSell > 0; i++) {
-            PurchaseLot lot = lots.get(i);
-            int lotQuantity = lot.getQuantity();
-            
-            if (lotQuantity <= remainingToSell) {
-                double lotProfit = lotQuantity * (salePrice - lot.getUnitPrice());
-                totalProfit += lotProfit;
-                remainingToSell -= lotQuantity;
-                lotsToRemove.add(lot);
-            } else {
-                double lotProfit = remainingToSell * (salePrice - lot.getUnitPrice());
-                totalProfit += lotProfit;
-                lot.setQuantity(lotQuantity - remainingToSell);
-                remainingToSell = 0;
+        PendingOrderQueue.PendingOrder[] entries = new PendingOrderQueue.PendingOrder[orders.size()];
+        long[] orderIds = new long[entries.length];
+        int i = 0;
+        for (Order order : orders) {
+            if (order == null) {
+                throw new IllegalArgumentException("Zlecenie nie może być null");
             }
+            orderIds[i] = nextOrderId + i;
+            entries[i] = new PendingOrderQueue.PendingOrder(orderIds[i], order, nextOrderSequence + i);
+            i++;
         }
+        beforeMutation();
 
-        for (int i = 0; i < lotsToRemove.size(); i++) {
-            lots.remove(lotsToRemove.get(i));
+        nextOrderId += entries.length;
+        nextOrderSequence += entries.length;
+        pendingOrders.offerAll(entries);
+
+        if (listener != null) {
+            for (int j = 0; j < entries.length; j++) {
+                listener.onOrderAdded(orderIds[j], entries[j].getOrder());
+            }
         }
+        return orderIds;
+    }
 
-        if (lots.isEmpty()) {
-            holdings.remove(symbol);
+    public int drainOrders(int maxOrders, Consumer<Order> consumer) {
+        if (maxOrders < 0) {
+            throw new IllegalArgumentException("Maksymalna liczba zleceń nie może być ujemna");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("Odbiorca zleceń nie może być null");
+        }
+        if (maxOrders > 0 && !pendingOrders.isEmpty()) {
+            beforeMutation();
         }
 
-        cash += totalRevenue;
-        return new SaleResult(totalRevenue, totalProfit);
+        int drained = 0;
+        while (drained < maxOrders && !pendingOrders.isEmpty()) {
+            PendingOrderQueue.PendingOrder head = pendingOrders.poll();
+            if (listener != null) {
+                listener.onOrderRemoved(head.getOrderId());
+            }
+            consumer.accept(head.getOrder());
+            drained++;
+        }
+        return drained;
     }
 
-    public void addOrder(Order order) {
-        if (order == null) {
-            throw new IllegalArgumentException("Zlecenie nie może być null");
+    public Order cancelOrder(long orderId) {
+        if (pendingOrders.get(orderId) == null) {
+            return null;
+        }
+        beforeMutation();
+        PendingOrderQueue.PendingOrder removed = pendingOrders.remove(orderId);
+        if (removed == null) {
+            return null;
         }
 
-        pendingOrders.offer(order);
+        if (listener != null) {
+            listener.onOrderRemoved(orderId);
+        }
+        return removed.getOrder();
+    }
+
+    public boolean amendOrder(long orderId, int newQuantity, double newLimitPrice) {
+        PendingOrderQueue.PendingOrder entry = pendingOrders.get(orderId);
+        if (entry == null) {
+            return false;
+        }
+
+        Order current = entry.getOrder();
+        Order amended = new Order(current.getAssetSymbol(), current.getOrderType(), newQuantity,
+            newLimitPrice, current.getMarketPrice());
+        beforeMutation();
+
+        long sequence = entry.getSequence();
+        if (newLimitPrice != current.getLimitPrice() || newQuantity > current.getQuantity()) {
+            sequence = nextOrderSequence++;
+        }
+        pendingOrders.update(entry, amended, sequence);
+
+        if (listener != null) {
+            listener.onOrderAmended(orderId, newQuantity, newLimitPrice);
+        }
+        return true;
+    }
+
+    public Order getPendingOrder(long orderId) {
+        PendingOrderQueue.PendingOrder entry = pendingOrders.get(orderId);
+        if (entry == null) {
+            return null;
+        }
+        return entry.getOrder();
+    }
+
+    public int getPendingOrderCount() {
+        return pendingOrders.size();
+    }
+
+    public long[] getPendingOrderIds() {
+        PendingOrderQueue.PendingOrder[] entries = pendingOrders.toArrayBySequence();
+        long[] orderIds = new long[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            orderIds[i] = entries[i].getOrderId();
+        }
+        return orderIds;
+    }
+
+    public PortfolioListener getListener() {
+        return listener;
+    }
+
+    public void setListener(PortfolioListener listener) {
+        this.listener = listener;
+    }
+
+    private void beforeMutation() {
+        if (listener != null) {
+            listener.beforeMutation();
+        }
     }
 
     public Order peekNextOrder() {
         if (pendingOrders.isEmpty()) {
             return null;
         }
-        return pendingOrders.peek();
+        return pendingOrders.peek().getOrder();
     }
 
     public Order pollNextOrder() {
         if (pendingOrders.isEmpty()) {
             return null;
         }
-        return pendingOrders.poll();
+        beforeMutation();
+        PendingOrderQueue.PendingOrder head = pendingOrders.poll();
+        if (listener != null) {
+            listener.onOrderRemoved(head.getOrderId());
+        }
+        return head.getOrder();
     }
 
     public double auditPortfolio() {
-        double totalValue = cash;
-        
-        for (AssetHolding holding : holdings.values()) {
-            Asset asset = holding.getAsset();
-            int totalQuantity = holding.getTotalQuantity();
-            totalValue += asset.calculateRealValue(totalQuantity);
-        }
-        
+        double totalValue = holdings.revalueAll(cash);
+        netAssetValue = totalValue;
+        navUpdatesSinceAudit = 0;
         return totalValue;
     }
 
+    public int applyPrices(PriceSource prices) {
+        if (prices == null) {
+            throw new IllegalArgumentException("Źródło cen nie może być null");
+        }
+
+        Asset[] changed;
+        double[] newPrices;
+        int repriced = 0;
+        synchronized (this) {
+            List<String> symbols = holdings.getSymbols();
+            changed = new Asset[symbols.size()];
+            newPrices = new double[symbols.size()];
+            for (int i = 0; i < symbols.size(); i++) {
+                String symbol = symbols.get(i);
+                double price = prices.getPrice(symbol);
+                if (Double.isNaN(price)) {
+                    continue;
+                }
+                Asset asset = holdings.getAsset(symbol);
+                if (asset.getMarketPrice() != price) {
+                    changed[repriced] = asset;
+                    newPrices[repriced] = price;
+                    repriced++;
+                }
+            }
+        }
+        // aktywa z rejestru są współdzielone, a ich słuchacze blokują pozostałe portfele
+        for (int i = 0; i < repriced; i++) {
+            changed[i].setMarketPrice(newPrices[i]);
+        }
+        return repriced;
+    }
+
+    public double getNetAssetValue() {
+        if (navUpdatesSinceAudit >= navAuditInterval) {
+            auditPortfolio();
+        }
+        return netAssetValue;
+    }
+
+    public int getNavAuditInterval() {
+        return navAuditInterval;
+    }
+
+    public void setNavAuditInterval(int navAuditInterval) {
+        if (navAuditInterval <= 0) {
+            throw new IllegalArgumentException("Interwał pełnego przeliczenia wartości musi być większy od zera");
+        }
+        this.navAuditInterval = navAuditInterval;
+    }
+
+    private void applyValueChange(double delta) {
+        netAssetValue += delta;
+        navUpdatesSinceAudit++;
+    }
+
+    private Asset toHeldAsset(Asset asset) {
+        if (assetRegistry == null) {
+            return asset.createCopy();
+        }
+        return assetRegistry.intern(asset);
+    }
+
+    // portfele z rejestru subskrybują się w nim, aby kanoniczne aktywo nie trzymało ich przy życiu
+    private void attachPriceListener(Asset heldAsset) {
+        if (assetRegistry == null) {
+            heldAsset.addPriceListener(priceListener);
+        } else {
+            assetRegistry.subscribe(heldAsset, priceListener);
+        }
+    }
+
+    private void detachPriceListener(Asset heldAsset) {
+        if (assetRegistry == null) {
+            heldAsset.removePriceListener(priceListener);
+        } else {
+            assetRegistry.unsubscribe(heldAsset, priceListener);
+        }
+    }
+
+    private void onHoldingPriceChanged(Asset asset, double oldPrice, double newPrice) {
+        synchronized (this) {
+            String symbol = asset.getSymbol();
+            if (holdings.getAsset(symbol) != asset) {
+                return;
+            }
+            double valueBefore = holdings.getMarketValue(symbol);
+            applyValueChange(holdings.revalue(symbol) - valueBefore);
+        }
+    }
+
     public double getCash() {
         return cash;
     }
 
+    public AssetRegistry getAssetRegistry() {
+        return assetRegistry;
+    }
+
+    public HoldingsBackend getHoldingsBackend() {
+        return holdingsBackend;
+    }
+
     public int getHoldingsCount() {
         return holdings.size();
     }
@@ -187,45 +462,49 @@ public class Portfolio {
         if (symbol == null) {
             return 0;
         }
-        AssetHolding holding = holdings.get(symbol);
-        if (holding == null) {
-            return 0;
+        return holdings.getTotalQuantity(symbol);
+    }
+
+    public double getCostBasis(String symbol) {
+        if (symbol == null) {
+            return 0.0;
         }
-        return holding.getTotalQuantity();
+        return holdings.getTotalCost(symbol);
     }
 
-    public Asset getAsset(String symbol) {
+    public double getAverageCost(String symbol) {
         if (symbol == null) {
-            return null;
+            return 0.0;
         }
-        AssetHolding holding = holdings.get(symbol);
-        if (holding == null) {
-            return null;
+        if (!holdings.contains(symbol)) {
+            return 0.0;
         }
-        return holding.getAsset();
+        return holdings.getTotalCost(symbol) / holdings.getTotalQuantity(symbol);
     }
 
-    public List<PurchaseLot> getPurchaseLots(String symbol) {
+    public Asset getAsset(String symbol) {
         if (symbol == null) {
-            return new ArrayList<>();
+            return null;
         }
-        AssetHolding holding = holdings.get(symbol);
-        if (holding == null) {
-            return new ArrayList<>();
+        return holdings.getAsset(symbol);
+    }
+
+    public PurchaseLotView getPurchaseLots(String symbol) {
+        if (symbol == null) {
+            return PurchaseLotView.EMPTY;
         }
-        return new ArrayList<>(holding.getPurchaseLots());
+        return holdings.getPurchaseLots(symbol);
     }
 
-    public List<String> getAllAssetSymbols() {
-        return new ArrayList<>(holdings.keySet());
+    public List<String> getDirtySymbols() {
+        return new ArrayList<>(dirtySymbols);
     }
 
-    private static class OrderComparator implements Comparator<Order> {
-        @Override
-        public int compare(Order o1, Order o2) {
-            double att1 = o1.calculateAttractiveness();
-            double att2 = o2.calculateAttractiveness();
-            return Double.compare(att2, att1);
-        }
+    public void clearDirtySymbols() {
+        dirtySymbols.clear();
+    }
+
+    public List<String> getAllAssetSymbols() {
+        return holdings.getSymbols();
     }
 }
@@ -0,0 +1,22 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.Order;
+
+import java.time.LocalDate;
+
+public interface PortfolioListener {
+    // wywoływane przed zmianą stanu portfela; wyjątek odrzuca zmianę
+    default void beforeMutation() {
+    }
+
+    void onAssetAdded(Asset asset, int quantity, LocalDate purchaseDate);
+
+    void onAssetSold(String symbol, int quantity, double salePrice);
+
+    void onOrderAdded(long orderId, Order order);
+
+    void onOrderRemoved(long orderId);
+
+    void onOrderAmended(long orderId, int newQuantity, double newLimitPrice);
+}
@@ -0,0 +1,61 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.PurchaseLot;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
+import java.util.RandomAccess;
+
+public final class PurchaseLotView extends AbstractList<PurchaseLot> implements RandomAccess {
+    static final PurchaseLotView EMPTY = new PurchaseLotView(null);
+
+    private final LotSource store;
+    private final int expectedModCount;
+
+    PurchaseLotView(LotSource store) {
+        this.store = store;
+        this.expectedModCount = store == null ? 0 : store.getModCount();
+    }
+
+    private void checkIndex(int index) {
+        if (store != null && store.getModCount() != expectedModCount) {
+            throw new ConcurrentModificationException("Partie aktywa zmieniły się po utworzeniu widoku");
+        }
+        if (index < 0 || store == null || index >= store.size()) {
+            throw new IndexOutOfBoundsException("Indeks partii: " + index + ", liczba partii: " + size());
+        }
+    }
+
+    @Override
+    public int size() {
+        if (store == null) {
+            return 0;
+        }
+        if (store.getModCount() != expectedModCount) {
+            throw new ConcurrentModificationException("Partie aktywa zmieniły się po utworzeniu widoku");
+        }
+        return store.size();
+    }
+
+    @Override
+    public PurchaseLot get(int index) {
+        checkIndex(index);
+        return new PurchaseLot(LocalDate.ofEpochDay(store.epochDay(index)), store.unitPrice(index), store.quantity(index));
+    }
+
+    public long getEpochDay(int index) {
+        checkIndex(index);
+        return store.epochDay(index);
+    }
+
+    public double getUnitPrice(int index) {
+        checkIndex(index);
+        return store.unitPrice(index);
+    }
+
+    public int getQuantity(int index) {
+        checkIndex(index);
+        return store.quantity(index);
+    }
+}
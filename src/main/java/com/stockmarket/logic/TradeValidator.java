@@ -0,0 +1,69 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.PurchaseLot;
+
+import java.time.LocalDate;
+import java.util.List;
+
+final class TradeValidator {
+    private TradeValidator() {
+    }
+
+    static int checkPurchase(Asset asset, int quantity, LocalDate purchaseDate) {
+        if (asset == null || quantity <= 0) {
+            throw new IllegalArgumentException("Asset nie może być null, a ilość musi być większa od zera");
+        }
+        if (purchaseDate == null) {
+            throw new IllegalArgumentException("Data zakupu nie może być null");
+        }
+        return AssetHolding.toEpochDay(purchaseDate);
+    }
+
+    static void checkFunds(double required, double available) {
+        if (available < required) {
+            throw new InsufficientFundsException("Niewystarczająca gotówka. Wymagane: " + required + ", dostępne: " + available);
+        }
+    }
+
+    static void checkSale(String symbol, int quantity, double salePrice) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Symbol nie może być null ani pusty");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Ilość musi być większa od zera");
+        }
+        if (salePrice <= 0) {
+            throw new IllegalArgumentException("Cena sprzedaży musi być większa od zera");
+        }
+    }
+
+    static void checkAvailable(HoldingsStore holdings, String symbol, int quantity) {
+        if (!holdings.contains(symbol)) {
+            throw new InsufficientAssetsException("Brak aktywa o symbolu: " + symbol);
+        }
+        int totalQuantity = holdings.getTotalQuantity(symbol);
+        if (totalQuantity < quantity) {
+            throw new InsufficientAssetsException("Niewystarczająca ilość aktywów. Wymagane: " + quantity + ", dostępne: " + totalQuantity);
+        }
+    }
+
+    static void checkLots(Asset asset, List<PurchaseLot> lots) {
+        if (asset == null) {
+            throw new IllegalArgumentException("Asset nie może być null");
+        }
+        if (lots == null || lots.isEmpty()) {
+            throw new IllegalArgumentException("Lista partii nie może być null ani pusta");
+        }
+        // widok partii pochodzi z istniejącej pozycji, więc jego daty są już sprawdzone
+        if (!(lots instanceof PurchaseLotView)) {
+            for (int i = 0; i < lots.size(); i++) {
+                PurchaseLot lot = lots.get(i);
+                if (lot == null) {
+                    throw new IllegalArgumentException("Partia zakupowa nie może być null");
+                }
+                AssetHolding.toEpochDay(lot.getPurchaseDate());
+            }
+        }
+    }
+}
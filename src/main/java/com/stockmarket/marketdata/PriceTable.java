@@ -0,0 +1,151 @@
+package com.stockmarket.marketdata;
+
+import com.stockmarket.domain.AssetRegistry;
+import com.stockmarket.domain.PriceSource;
+import com.stockmarket.logic.Portfolio;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class PriceTable implements PriceSource {
+    private final Map<String, Integer> index;
+    private final Set<Portfolio> subscribers;
+    private final Set<AssetRegistry> registries;
+    private final Object repriceLock;
+    private double[] prices;
+    private int size;
+
+    public PriceTable() {
+        this.index = new HashMap<>();
+        this.subscribers = new LinkedHashSet<>();
+        this.registries = new LinkedHashSet<>();
+        this.repriceLock = new Object();
+        this.prices = new double[64];
+        this.size = 0;
+    }
+
+    @Override
+    public synchronized double getPrice(String symbol) {
+        Integer slot = symbol == null ? null : index.get(symbol);
+        return slot == null ? Double.NaN : prices[slot];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void subscribe(Portfolio portfolio) {
+        if (portfolio == null) {
+            throw new IllegalArgumentException("Portfolio nie może być null");
+        }
+        subscribers.add(portfolio);
+    }
+
+    public synchronized boolean unsubscribe(Portfolio portfolio) {
+        return subscribers.remove(portfolio);
+    }
+
+    public synchronized void subscribe(AssetRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Rejestr aktywów nie może być null");
+        }
+        registries.add(registry);
+    }
+
+    public synchronized boolean unsubscribe(AssetRegistry registry) {
+        return registries.remove(registry);
+    }
+
+    public synchronized int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public synchronized void setPrice(String symbol, double price) {
+        PriceTick tick = new PriceTick(symbol, price);
+        store(tick.getSymbol(), tick.getPrice());
+    }
+
+    public long applyPrices(List<PriceTick> ticks) {
+        if (ticks == null) {
+            throw new IllegalArgumentException("Lista notowań nie może być null");
+        }
+        for (int i = 0; i < ticks.size(); i++) {
+            if (ticks.get(i) == null) {
+                throw new IllegalArgumentException("Notowanie nie może być null");
+            }
+        }
+
+        // słuchacze cen blokują portfele, więc przeceny nie mogą trzymać monitora tabeli
+        synchronized (repriceLock) {
+            AssetRegistry[] registrySnapshot;
+            Portfolio[] subscriberSnapshot;
+            String[] batchSymbols = new String[ticks.size()];
+            double[] batchPrices = new double[ticks.size()];
+            synchronized (this) {
+                for (int i = 0; i < ticks.size(); i++) {
+                    PriceTick tick = ticks.get(i);
+                    store(tick.getSymbol(), tick.getPrice());
+                }
+                // przy powtórzonym symbolu rejestr dostaje od razu ostatnią cenę wsadu
+                for (int i = 0; i < ticks.size(); i++) {
+                    batchSymbols[i] = ticks.get(i).getSymbol();
+                    batchPrices[i] = prices[index.get(batchSymbols[i])];
+                }
+                registrySnapshot = registries.toArray(new AssetRegistry[0]);
+                subscriberSnapshot = subscribers.toArray(new Portfolio[0]);
+            }
+            return repriceSubscribers(registrySnapshot, subscriberSnapshot, batchSymbols, batchPrices);
+        }
+    }
+
+    public long applyPrices(String[] symbols, double[] newPrices) {
+        if (symbols == null || newPrices == null) {
+            throw new IllegalArgumentException("Tablice symboli i cen nie mogą być null");
+        }
+        if (symbols.length != newPrices.length) {
+            throw new IllegalArgumentException("Liczba symboli i cen musi być równa");
+        }
+        List<PriceTick> ticks = new ArrayList<>(symbols.length);
+        for (int i = 0; i < symbols.length; i++) {
+            ticks.add(new PriceTick(symbols[i], newPrices[i]));
+        }
+        return applyPrices(ticks);
+    }
+
+    public long applyTickFile(Path filePath) throws IOException {
+        return applyPrices(new TickFileReader().read(filePath));
+    }
+
+    private void store(String symbol, double price) {
+        Integer slot = index.get(symbol);
+        if (slot == null) {
+            if (size == prices.length) {
+                double[] grown = new double[prices.length * 2];
+                System.arraycopy(prices, 0, grown, 0, size);
+                prices = grown;
+            }
+            slot = size;
+            index.put(symbol, slot);
+            size++;
+        }
+        prices[slot] = price;
+    }
+
+    private long repriceSubscribers(AssetRegistry[] registrySnapshot, Portfolio[] subscriberSnapshot,
+                                    String[] batchSymbols, double[] batchPrices) {
+        long repriced = 0;
+        for (int i = 0; i < registrySnapshot.length; i++) {
+            repriced += registrySnapshot[i].applyPrices(batchSymbols, batchPrices, batchSymbols.length);
+        }
+        for (int i = 0; i < subscriberSnapshot.length; i++) {
+            repriced += subscriberSnapshot[i].applyPrices(this);
+        }
+        return repriced;
+    }
+}
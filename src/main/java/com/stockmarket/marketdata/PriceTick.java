@@ -0,0 +1,28 @@
+package com.stockmarket.marketdata;
+
+public class PriceTick {
+    private final String symbol;
+    private final double price;
+
+    public PriceTick(String symbol, double price) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Symbol nie może być null ani pusty");
+        }
+        if (price <= 0) {
+            throw new IllegalArgumentException("Cena musi być większa od zera");
+        }
+        if (Double.isNaN(price) || Double.isInfinite(price)) {
+            throw new IllegalArgumentException("Cena musi być skończoną liczbą");
+        }
+        this.symbol = symbol.trim();
+        this.price = price;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+}
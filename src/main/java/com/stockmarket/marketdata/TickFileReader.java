@@ -0,0 +1,74 @@
+package com.stockmarket.marketdata;
+
+import com.stockmarket.persistence.DataIntegrityException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TickFileReader {
+    private static final String TICK_PREFIX = "TICK";
+
+    public List<PriceTick> read(Path filePath) throws IOException {
+        if (filePath == null) {
+            throw new IllegalArgumentException("Ścieżka pliku nie może być null");
+        }
+        try (BufferedReader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    public List<PriceTick> read(Reader source) throws IOException {
+        if (source == null) {
+            throw new IllegalArgumentException("Źródło danych nie może być null");
+        }
+
+        BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        List<PriceTick> ticks = new ArrayList<>();
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            ticks.add(parseTick(trimmed, lineNumber));
+        }
+        return ticks;
+    }
+
+    private PriceTick parseTick(String line, int lineNumber) {
+        int first = line.indexOf('|');
+        int second = first < 0 ? -1 : line.indexOf('|', first + 1);
+        if (first < 0 || second < 0 || line.indexOf('|', second + 1) >= 0) {
+            throw new DataIntegrityException("Nieprawidłowy format linii TICK (linia " + lineNumber + "): " + line);
+        }
+
+        String prefix = line.substring(0, first).trim();
+        String symbol = line.substring(first + 1, second).trim();
+        String priceText = line.substring(second + 1).trim();
+        if (!TICK_PREFIX.equals(prefix)) {
+            throw new DataIntegrityException("Nieznany prefiks (linia " + lineNumber + "): " + prefix);
+        }
+        if (symbol.isEmpty()) {
+            throw new DataIntegrityException("Pusty symbol (linia " + lineNumber + ")");
+        }
+
+        double price;
+        try {
+            price = Double.parseDouble(priceText);
+        } catch (NumberFormatException e) {
+            throw new DataIntegrityException("Nieprawidłowa cena (linia " + lineNumber + "): " + priceText);
+        }
+        if (price <= 0 || Double.isNaN(price) || Double.isInfinite(price)) {
+            throw new DataIntegrityException("Cena musi być dodatnią skończoną liczbą (linia " + lineNumber + "): " + priceText);
+        }
+        return new PriceTick(symbol, price);
+    }
+}
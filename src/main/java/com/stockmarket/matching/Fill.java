@@ -0,0 +1,39 @@
+package com.stockmarket.matching;
+
+import com.stockmarket.domain.Order;
+
+public class Fill {
+    private final String assetSymbol;
+    private final Order buyOrder;
+    private final Order sellOrder;
+    private final int quantity;
+    private final double price;
+
+    public Fill(String assetSymbol, Order buyOrder, Order sellOrder, int quantity, double price) {
+        this.assetSymbol = assetSymbol;
+        this.buyOrder = buyOrder;
+        this.sellOrder = sellOrder;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public Order getBuyOrder() {
+        return buyOrder;
+    }
+
+    public Order getSellOrder() {
+        return sellOrder;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+}
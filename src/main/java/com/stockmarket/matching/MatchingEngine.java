@@ -0,0 +1,154 @@
+package com.stockmarket.matching;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.Order;
+import com.stockmarket.domain.OrderType;
+import com.stockmarket.logic.InsufficientAssetsException;
+import com.stockmarket.logic.InsufficientFundsException;
+import com.stockmarket.logic.Portfolio;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MatchingEngine {
+    private final Map<String, OrderBook> orderBooks;
+
+    public MatchingEngine() {
+        this.orderBooks = new HashMap<>();
+    }
+
+    public List<Fill> submit(Order order, Portfolio account, LocalDate tradeDate) {
+        List<Fill> fills = submit(order, account, tradeDate, null);
+        return fills == null ? Collections.<Fill>emptyList() : fills;
+    }
+
+    List<Fill> submit(Order order, Portfolio account, LocalDate tradeDate, List<Fill> fills) {
+        if (order == null) {
+            throw new IllegalArgumentException("Zlecenie nie może być null");
+        }
+        if (account == null) {
+            throw new IllegalArgumentException("Portfolio nie może być null");
+        }
+        if (tradeDate == null) {
+            throw new IllegalArgumentException("Data transakcji nie może być null");
+        }
+
+        String symbol = order.getAssetSymbol();
+        OrderBook book = orderBooks.get(symbol);
+        if (book == null) {
+            book = new OrderBook(symbol);
+            orderBooks.put(symbol, book);
+        }
+
+        OrderType incomingType = order.getOrderType();
+        OrderType restingType = incomingType == OrderType.BUY ? OrderType.SELL : OrderType.BUY;
+        double limitPrice = order.getLimitPrice();
+        RestingOrder incoming = new RestingOrder(order, account);
+
+        while (incoming.getRemainingQuantity() > 0) {
+            PriceLevel level = book.getBestOpposingLevel(incomingType);
+            if (level == null || !crosses(incomingType, limitPrice, level.getPrice())) {
+                break;
+            }
+
+            RestingOrder resting = level.peekFirst();
+            int quantity = Math.min(incoming.getRemainingQuantity(), resting.getRemainingQuantity());
+            RestingOrder buyer = incomingType == OrderType.BUY ? incoming : resting;
+            RestingOrder seller = incomingType == OrderType.BUY ? resting : incoming;
+
+            RestingOrder failed = settle(symbol, buyer, seller, quantity, level.getPrice(), tradeDate);
+            if (failed == null) {
+                incoming.reduce(quantity);
+                level.fillFirst(quantity);
+                if (resting.getRemainingQuantity() == 0) {
+                    book.onRestingOrderRemoved();
+                }
+                if (fills == null) {
+                    fills = new ArrayList<>();
+                }
+                fills.add(new Fill(symbol, buyer.getOrder(), seller.getOrder(), quantity, level.getPrice()));
+            } else if (failed == resting) {
+                level.removeFirst();
+                book.onRestingOrderRemoved();
+            } else {
+                throw rejectIncoming(incoming);
+            }
+
+            if (level.isEmpty()) {
+                book.removeLevel(restingType, level);
+            }
+        }
+
+        if (incoming.getRemainingQuantity() > 0) {
+            book.rest(incoming);
+        }
+        return fills;
+    }
+
+    public int routePendingOrders(Portfolio account, LocalDate tradeDate) {
+        if (account == null) {
+            throw new IllegalArgumentException("Portfolio nie może być null");
+        }
+
+        int routed = 0;
+        Order order = account.pollNextOrder();
+        while (order != null) {
+            submit(order, account, tradeDate);
+            routed++;
+            order = account.pollNextOrder();
+        }
+        return routed;
+    }
+
+    public OrderBook getOrderBook(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        return orderBooks.get(symbol);
+    }
+
+    private RuntimeException rejectIncoming(RestingOrder incoming) {
+        Order order = incoming.getOrder();
+        int rejected = incoming.getRemainingQuantity();
+        String quantities = ". Zrealizowano: " + (order.getQuantity() - rejected) + ", odrzucono: " + rejected;
+        if (order.getOrderType() == OrderType.BUY) {
+            return new InsufficientFundsException("Niewystarczająca gotówka na rozliczenie zlecenia kupna "
+                + order.getAssetSymbol() + quantities);
+        }
+        return new InsufficientAssetsException("Niewystarczająca ilość aktywa " + order.getAssetSymbol()
+            + " na rozliczenie zlecenia sprzedaży" + quantities);
+    }
+
+    private boolean crosses(OrderType incomingType, double limitPrice, double restingPrice) {
+        if (incomingType == OrderType.BUY) {
+            return restingPrice <= limitPrice;
+        }
+        return restingPrice >= limitPrice;
+    }
+
+    private RestingOrder settle(String symbol, RestingOrder buyer, RestingOrder seller, int quantity, double price, LocalDate tradeDate) {
+        Portfolio sellerAccount = seller.getAccount();
+        Portfolio buyerAccount = buyer.getAccount();
+        synchronized (sellerAccount) {
+            synchronized (buyerAccount) {
+                if (sellerAccount.getAssetQuantity(symbol) < quantity) {
+                    return seller;
+                }
+
+                Asset asset = sellerAccount.getAsset(symbol).createCopy();
+                asset.setMarketPrice(price);
+                if (buyerAccount.getCash() < asset.getPurchaseCost(quantity)) {
+                    return buyer;
+                }
+
+                sellerAccount.sellAsset(symbol, quantity, price);
+                buyerAccount.addAsset(asset, quantity, tradeDate);
+                return null;
+            }
+        }
+    }
+}
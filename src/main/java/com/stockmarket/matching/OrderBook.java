@@ -0,0 +1,82 @@
+package com.stockmarket.matching;
+
+import com.stockmarket.domain.OrderType;
+
+public class OrderBook {
+    private final String assetSymbol;
+    private final PriceLadder bids;
+    private final PriceLadder asks;
+    private int restingOrderCount;
+
+    public OrderBook(String assetSymbol) {
+        if (assetSymbol == null || assetSymbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Symbol aktywa nie może być null ani pusty");
+        }
+        this.assetSymbol = assetSymbol.trim();
+        this.bids = new PriceLadder(true);
+        this.asks = new PriceLadder(false);
+        this.restingOrderCount = 0;
+    }
+
+    public String getAssetSymbol() {
+        return assetSymbol;
+    }
+
+    public double getBestBid() {
+        PriceLevel best = bids.best();
+        return best == null ? 0.0 : best.getPrice();
+    }
+
+    public double getBestAsk() {
+        PriceLevel best = asks.best();
+        return best == null ? 0.0 : best.getPrice();
+    }
+
+    public long getBidQuantity(double price) {
+        PriceLevel level = bids.get(price);
+        return level == null ? 0 : level.getTotalQuantity();
+    }
+
+    public long getAskQuantity(double price) {
+        PriceLevel level = asks.get(price);
+        return level == null ? 0 : level.getTotalQuantity();
+    }
+
+    public int getBidLevelCount() {
+        return bids.size();
+    }
+
+    public int getAskLevelCount() {
+        return asks.size();
+    }
+
+    public int getRestingOrderCount() {
+        return restingOrderCount;
+    }
+
+    public boolean isEmpty() {
+        return restingOrderCount == 0;
+    }
+
+    PriceLevel getBestOpposingLevel(OrderType incomingType) {
+        return incomingType == OrderType.BUY ? asks.best() : bids.best();
+    }
+
+    void removeLevel(OrderType side, PriceLevel level) {
+        if (side == OrderType.BUY) {
+            bids.remove(level);
+        } else {
+            asks.remove(level);
+        }
+    }
+
+    void rest(RestingOrder order) {
+        PriceLadder side = order.getOrder().getOrderType() == OrderType.BUY ? bids : asks;
+        side.getOrCreate(order.getOrder().getLimitPrice()).add(order);
+        restingOrderCount++;
+    }
+
+    void onRestingOrderRemoved() {
+        restingOrderCount--;
+    }
+}
@@ -0,0 +1,208 @@
+package com.stockmarket.matching;
+
+import com.stockmarket.domain.Order;
+import com.stockmarket.logic.Portfolio;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class OrderIntake implements AutoCloseable {
+    private final MatchingEngine engine;
+    private final MpscRingBuffer<Submission> ring;
+    private final WaitStrategy waitStrategy;
+    private final Consumer<Fill> fillConsumer;
+    private final Thread consumerThread;
+    private final AtomicInteger activeProducers = new AtomicInteger();
+    private final List<Fill> fills = new ArrayList<>();
+    private volatile boolean running;
+    private volatile boolean closed;
+    private volatile long processedCount;
+    private volatile long fillCount;
+    private volatile long rejectedCount;
+
+    private static class Submission {
+        private final Order order;
+        private final Portfolio account;
+        private final LocalDate tradeDate;
+
+        Submission(Order order, Portfolio account, LocalDate tradeDate) {
+            this.order = order;
+            this.account = account;
+            this.tradeDate = tradeDate;
+        }
+    }
+
+    public OrderIntake(MatchingEngine engine, int capacity, WaitStrategy waitStrategy) {
+        this(engine, capacity, waitStrategy, null);
+    }
+
+    public OrderIntake(MatchingEngine engine, int capacity, WaitStrategy waitStrategy, Consumer<Fill> fillConsumer) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Silnik dopasowań nie może być null");
+        }
+        if (waitStrategy == null) {
+            throw new IllegalArgumentException("Strategia oczekiwania nie może być null");
+        }
+
+        this.engine = engine;
+        this.ring = new MpscRingBuffer<>(capacity);
+        this.waitStrategy = waitStrategy;
+        this.fillConsumer = fillConsumer;
+        this.consumerThread = new Thread(this::consume, "order-intake");
+        this.consumerThread.setDaemon(true);
+    }
+
+    public synchronized void start() {
+        if (closed) {
+            throw new IllegalStateException("Przyjmowanie zleceń zostało zamknięte");
+        }
+        running = true;
+        consumerThread.start();
+    }
+
+    public boolean trySubmit(Order order, Portfolio account, LocalDate tradeDate) {
+        Submission submission = createSubmission(order, account, tradeDate);
+        activeProducers.incrementAndGet();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Przyjmowanie zleceń zostało zamknięte");
+            }
+            return ring.offer(submission);
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    public void submit(Order order, Portfolio account, LocalDate tradeDate) {
+        Submission submission = createSubmission(order, account, tradeDate);
+        activeProducers.incrementAndGet();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new IllegalStateException("Przyjmowanie zleceń zostało zamknięte");
+                }
+                if (ring.offer(submission)) {
+                    return;
+                }
+                Thread.yield();
+            }
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    private Submission createSubmission(Order order, Portfolio account, LocalDate tradeDate) {
+        if (order == null) {
+            throw new IllegalArgumentException("Zlecenie nie może być null");
+        }
+        if (account == null) {
+            throw new IllegalArgumentException("Portfolio nie może być null");
+        }
+        if (tradeDate == null) {
+            throw new IllegalArgumentException("Data transakcji nie może być null");
+        }
+        return new Submission(order, account, tradeDate);
+    }
+
+    private void drain() {
+        Submission submission = ring.poll();
+        while (submission != null) {
+            process(submission);
+            submission = ring.poll();
+        }
+    }
+
+    private void consume() {
+        int emptyPolls = 0;
+        while (true) {
+            Submission submission = ring.poll();
+            if (submission == null) {
+                if (!running && !ring.hasUnconsumedClaims()) {
+                    return;
+                }
+                waitStrategy.idle(emptyPolls);
+                if (emptyPolls < Integer.MAX_VALUE) {
+                    emptyPolls++;
+                }
+                continue;
+            }
+
+            emptyPolls = 0;
+            process(submission);
+        }
+    }
+
+    private void process(Submission submission) {
+        fills.clear();
+        boolean rejected = false;
+        try {
+            engine.submit(submission.order, submission.account, submission.tradeDate, fills);
+        } catch (RuntimeException e) {
+            rejected = true;
+        }
+        // transakcje rozliczone przed odrzuceniem reszty zlecenia też są raportowane
+        fillCount += fills.size();
+        try {
+            if (fillConsumer != null) {
+                for (int i = 0; i < fills.size(); i++) {
+                    fillConsumer.accept(fills.get(i));
+                }
+            }
+        } catch (RuntimeException e) {
+            rejected = true;
+        }
+        if (rejected) {
+            rejectedCount++;
+        }
+        processedCount++;
+    }
+
+    public int getCapacity() {
+        return ring.capacity();
+    }
+
+    public long getProcessedCount() {
+        return processedCount;
+    }
+
+    public long getFillCount() {
+        return fillCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // producent, który zdążył sprawdzić closed, musi dokończyć wstawianie, zanim konsument skończy
+        while (activeProducers.get() != 0) {
+            Thread.yield();
+        }
+        running = false;
+        if (consumerThread.getState() == Thread.State.NEW) {
+            // konsument nigdy nie wystartował, więc przyjęte zlecenia przetwarza wątek zamykający
+            drain();
+            return;
+        }
+
+        boolean interrupted = false;
+        while (consumerThread.isAlive()) {
+            try {
+                consumerThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.stockmarket.matching;
+
+import java.util.Arrays;
+
+class PriceLadder {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean bestIsHighest;
+    private double[] keys;
+    private PriceLevel[] levels;
+    private int size;
+
+    PriceLadder(boolean bestIsHighest) {
+        this.bestIsHighest = bestIsHighest;
+        this.keys = new double[INITIAL_CAPACITY];
+        this.levels = new PriceLevel[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    PriceLevel best() {
+        return size == 0 ? null : levels[size - 1];
+    }
+
+    PriceLevel get(double price) {
+        int index = indexOf(keyOf(price));
+        return index >= 0 ? levels[index] : null;
+    }
+
+    PriceLevel getOrCreate(double price) {
+        double key = keyOf(price);
+        int index = indexOf(key);
+        if (index >= 0) {
+            return levels[index];
+        }
+
+        int insertAt = -index - 1;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            levels = Arrays.copyOf(levels, size * 2);
+        }
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+        System.arraycopy(levels, insertAt, levels, insertAt + 1, size - insertAt);
+        PriceLevel level = new PriceLevel(price);
+        keys[insertAt] = key;
+        levels[insertAt] = level;
+        size++;
+        return level;
+    }
+
+    void remove(PriceLevel level) {
+        int index = size > 0 && levels[size - 1] == level ? size - 1 : indexOf(keyOf(level.getPrice()));
+        if (index < 0 || levels[index] != level) {
+            return;
+        }
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(levels, index + 1, levels, index, size - index - 1);
+        size--;
+        levels[size] = null;
+    }
+
+    private double keyOf(double price) {
+        return bestIsHighest ? price : -price;
+    }
+
+    private int indexOf(double key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            double midKey = keys[mid];
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
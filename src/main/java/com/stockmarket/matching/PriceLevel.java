@@ -0,0 +1,54 @@
+package com.stockmarket.matching;
+
+import java.util.ArrayDeque;
+
+class PriceLevel {
+    private final double price;
+    private final ArrayDeque<RestingOrder> orders;
+    private long totalQuantity;
+
+    PriceLevel(double price) {
+        this.price = price;
+        this.orders = new ArrayDeque<>();
+        this.totalQuantity = 0;
+    }
+
+    double getPrice() {
+        return price;
+    }
+
+    long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    int getOrderCount() {
+        return orders.size();
+    }
+
+    boolean isEmpty() {
+        return orders.isEmpty();
+    }
+
+    RestingOrder peekFirst() {
+        return orders.peekFirst();
+    }
+
+    void add(RestingOrder order) {
+        orders.addLast(order);
+        totalQuantity += order.getRemainingQuantity();
+    }
+
+    void fillFirst(int quantity) {
+        RestingOrder first = orders.peekFirst();
+        first.reduce(quantity);
+        totalQuantity -= quantity;
+        if (first.getRemainingQuantity() == 0) {
+            orders.pollFirst();
+        }
+    }
+
+    void removeFirst() {
+        RestingOrder first = orders.pollFirst();
+        totalQuantity -= first.getRemainingQuantity();
+    }
+}
@@ -0,0 +1,32 @@
+package com.stockmarket.matching;
+
+import com.stockmarket.domain.Order;
+import com.stockmarket.logic.Portfolio;
+
+class RestingOrder {
+    private final Order order;
+    private final Portfolio account;
+    private int remainingQuantity;
+
+    RestingOrder(Order order, Portfolio account) {
+        this.order = order;
+        this.account = account;
+        this.remainingQuantity = order.getQuantity();
+    }
+
+    Order getOrder() {
+        return order;
+    }
+
+    Portfolio getAccount() {
+        return account;
+    }
+
+    int getRemainingQuantity() {
+        return remainingQuantity;
+    }
+
+    void reduce(int quantity) {
+        remainingQuantity -= quantity;
+    }
+}
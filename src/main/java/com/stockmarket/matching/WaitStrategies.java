@@ -0,0 +1,60 @@
+package com.stockmarket.matching;
+
+import java.util.concurrent.locks.LockSupport;
+
+public final class WaitStrategies {
+    private static final int SPIN_TRIES = 100;
+
+    private static class BusySpin implements WaitStrategy {
+        @Override
+        public void idle(int emptyPolls) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static class Yielding implements WaitStrategy {
+        @Override
+        public void idle(int emptyPolls) {
+            if (emptyPolls < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private static class Parking implements WaitStrategy {
+        private final long parkNanos;
+
+        Parking(long parkNanos) {
+            this.parkNanos = parkNanos;
+        }
+
+        @Override
+        public void idle(int emptyPolls) {
+            if (emptyPolls < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(parkNanos);
+            }
+        }
+    }
+
+    private WaitStrategies() {
+    }
+
+    public static WaitStrategy busySpin() {
+        return new BusySpin();
+    }
+
+    public static WaitStrategy yielding() {
+        return new Yielding();
+    }
+
+    public static WaitStrategy parking(long parkNanos) {
+        if (parkNanos <= 0) {
+            throw new IllegalArgumentException("Czas uśpienia musi być większy od zera");
+        }
+        return new Parking(parkNanos);
+    }
+}
@@ -0,0 +1,5 @@
+package com.stockmarket.matching;
+
+public interface WaitStrategy {
+    void idle(int emptyPolls);
+}
@@ -0,0 +1,99 @@
+package com.stockmarket.persistence;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+final class AtomicFileWriter {
+    static final String TEMP_SUFFIX = ".tmp";
+
+    interface StreamWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    private AtomicFileWriter() {
+    }
+
+    static void write(Path target, StreamWriter writer) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path tempPath = null;
+        FileChannel tempChannel = null;
+        while (tempChannel == null) {
+            tempPath = directory.resolve(target.getFileName().toString() + "."
+                + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + TEMP_SUFFIX);
+            try {
+                tempChannel = FileChannel.open(tempPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException e) {
+                // losowa nazwa jest już zajęta, próbujemy kolejną
+            }
+        }
+
+        boolean committed = false;
+        try {
+            try (FileChannel channel = tempChannel) {
+                copyPermissions(target, tempPath);
+                OutputStream out = new NonClosingOutputStream(Channels.newOutputStream(channel));
+                writer.write(out);
+                out.flush();
+                channel.force(true);
+            }
+            move(tempPath, target);
+            committed = true;
+        } finally {
+            if (!committed) {
+                Files.deleteIfExists(tempPath);
+            }
+        }
+        syncDirectory(directory);
+    }
+
+    static void move(Path source, Path target) throws IOException {
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void copyPermissions(Path source, Path target) throws IOException {
+        PosixFileAttributeView sourceView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        if (sourceView == null) {
+            return;
+        }
+        try {
+            Files.setPosixFilePermissions(target, sourceView.readAttributes().permissions());
+        } catch (NoSuchFileException e) {
+            // pierwszy zapis: plik docelowy nie istnieje, zostają domyślne uprawnienia
+        }
+    }
+
+    static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // nie każdy system plików pozwala na synchronizację katalogu
+        }
+    }
+}
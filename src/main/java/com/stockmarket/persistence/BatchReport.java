@@ -0,0 +1,45 @@
+package com.stockmarket.persistence;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BatchReport {
+    private final List<Path> succeeded;
+    private final Map<Path, Exception> failures;
+
+    BatchReport() {
+        this.succeeded = new ArrayList<>();
+        this.failures = new LinkedHashMap<>();
+    }
+
+    void recordSuccess(Path filePath) {
+        succeeded.add(filePath);
+    }
+
+    void recordFailure(Path filePath, Exception cause) {
+        failures.put(filePath, cause);
+    }
+
+    public List<Path> getSucceeded() {
+        return new ArrayList<>(succeeded);
+    }
+
+    public Map<Path, Exception> getFailures() {
+        return new LinkedHashMap<>(failures);
+    }
+
+    public int getSuccessCount() {
+        return succeeded.size();
+    }
+
+    public int getFailureCount() {
+        return failures.size();
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
@@ -0,0 +1,454 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.AssetRegistry;
+import com.stockmarket.domain.AssetType;
+import com.stockmarket.logic.Portfolio;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+final class BinarySnapshotCodec {
+    static final int MAGIC = 0x89504653;
+    static final int DELTA_MAGIC = 0x89504644;
+    static final short VERSION = 2;
+    static final short LEGACY_VERSION = 1;
+    static final int MAX_STRING_BYTES = 1 << 16;
+    static final int LOT_RECORD_BYTES = 16;
+
+    private static final AssetType[] ASSET_TYPES = AssetType.values();
+    private static final int IO_CHUNK_BYTES = 1 << 16;
+    private static final int MAX_PREALLOCATED_STRINGS = 1 << 12;
+
+    private static class Header {
+        private boolean delta;
+        private boolean checksummed;
+        private double cash;
+        private String[] strings;
+        private byte[][] stringBytes;
+        private int holdingCount;
+        private int checksum;
+    }
+
+    private static class ChecksumOutput {
+        private final DataOutputStream out;
+        private final CRC32C crc;
+        private final ByteBuffer buffer;
+
+        ChecksumOutput(DataOutputStream out) {
+            this.out = out;
+            this.crc = new CRC32C();
+            this.buffer = ByteBuffer.allocate(IO_CHUNK_BYTES);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putShort(short value) throws IOException {
+            ensure(2);
+            buffer.putShort(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        void putByte(int value) throws IOException {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            if (bytes.length > buffer.capacity()) {
+                flush();
+                crc.update(bytes, 0, bytes.length);
+                out.write(bytes);
+                return;
+            }
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        void includeInChecksum(byte[] bytes) throws IOException {
+            flush();
+            crc.update(bytes, 0, bytes.length);
+        }
+
+        void resetChecksum() throws IOException {
+            flush();
+            crc.reset();
+        }
+
+        int checksum() throws IOException {
+            flush();
+            return (int) crc.getValue();
+        }
+
+        void writeUnchecked(int value) throws IOException {
+            flush();
+            out.writeInt(value);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            if (buffer.position() > 0) {
+                crc.update(buffer.array(), 0, buffer.position());
+                out.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+        }
+    }
+
+    private static class ChecksumInput {
+        private final DataInputStream in;
+        private final CRC32C crc;
+        private final byte[] scratch;
+        private final ByteBuffer scratchView;
+        private final byte[] lotBuffer;
+
+        ChecksumInput(DataInputStream in) {
+            this.in = in;
+            this.crc = new CRC32C();
+            this.scratch = new byte[8];
+            this.scratchView = ByteBuffer.wrap(scratch);
+            this.lotBuffer = new byte[IO_CHUNK_BYTES];
+        }
+
+        int readInt() throws IOException {
+            readFully(scratch, 0, 4);
+            return scratchView.getInt(0);
+        }
+
+        short readShort() throws IOException {
+            readFully(scratch, 0, 2);
+            return scratchView.getShort(0);
+        }
+
+        double readDouble() throws IOException {
+            readFully(scratch, 0, 8);
+            return scratchView.getDouble(0);
+        }
+
+        byte readByte() throws IOException {
+            readFully(scratch, 0, 1);
+            return scratch[0];
+        }
+
+        void readFully(byte[] bytes, int offset, int length) throws IOException {
+            in.readFully(bytes, offset, length);
+            crc.update(bytes, offset, length);
+        }
+
+        void includeInChecksum(byte[] bytes) {
+            crc.update(bytes, 0, bytes.length);
+        }
+
+        void resetChecksum() {
+            crc.reset();
+        }
+
+        int checksum() {
+            return (int) crc.getValue();
+        }
+
+        int readUnchecked() throws IOException {
+            return in.readInt();
+        }
+
+        int read() throws IOException {
+            return in.read();
+        }
+    }
+
+    private BinarySnapshotCodec() {
+    }
+
+    static void write(Portfolio portfolio, DataOutputStream out) throws IOException {
+        writeRecords(MAGIC, portfolio.getCash(), collectHoldings(portfolio, portfolio.getAllAssetSymbols(), false), out);
+    }
+
+    static void writeDelta(Portfolio portfolio, List<String> symbols, DataOutputStream out) throws IOException {
+        writeRecords(DELTA_MAGIC, portfolio.getCash(), collectHoldings(portfolio, symbols, true), out);
+    }
+
+    static void writeSegment(SnapshotSegment segment, DataOutputStream out) throws IOException {
+        writeRecords(MAGIC, segment.getCash(), segment.getHoldings(), out);
+    }
+
+    private static List<SnapshotSegment.HoldingRecord> collectHoldings(Portfolio portfolio, List<String> symbols,
+                                                                      boolean includeRemoved) {
+        List<SnapshotSegment.HoldingRecord> records = new ArrayList<>(symbols.size());
+        for (int i = 0; i < symbols.size(); i++) {
+            String symbol = symbols.get(i);
+            Asset asset = portfolio.getAsset(symbol);
+            if (asset != null) {
+                records.add(new SnapshotSegment.HoldingRecord(symbol, asset.getName(), asset.getAssetType(),
+                    portfolio.getPurchaseLots(symbol)));
+            } else if (includeRemoved) {
+                records.add(new SnapshotSegment.HoldingRecord(symbol, symbol, ASSET_TYPES[0], new LotBuffer(0)));
+            }
+        }
+        return records;
+    }
+
+    private static void writeRecords(int magic, double cash, List<SnapshotSegment.HoldingRecord> records,
+                                     DataOutputStream out) throws IOException {
+        List<byte[]> strings = new ArrayList<>();
+        Map<String, Integer> stringIndex = new HashMap<>();
+        int[] symbolIds = new int[records.size()];
+        int[] nameIds = new int[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            symbolIds[i] = intern(records.get(i).getSymbol(), strings, stringIndex);
+            nameIds[i] = intern(records.get(i).getName(), strings, stringIndex);
+        }
+
+        ChecksumOutput output = new ChecksumOutput(out);
+        output.putInt(magic);
+        output.putShort(VERSION);
+        output.putDouble(cash);
+
+        output.putInt(strings.size());
+        for (int i = 0; i < strings.size(); i++) {
+            output.putInt(strings.get(i).length);
+            output.putBytes(strings.get(i));
+        }
+        output.putInt(records.size());
+        int headerChecksum = output.checksum();
+
+        for (int i = 0; i < records.size(); i++) {
+            SnapshotSegment.HoldingRecord record = records.get(i);
+            int lotCount = record.getLotCount();
+            output.resetChecksum();
+            output.putInt(symbolIds[i]);
+            output.putInt(nameIds[i]);
+            output.includeInChecksum(strings.get(symbolIds[i]));
+            output.includeInChecksum(strings.get(nameIds[i]));
+            output.putByte(record.getAssetType().ordinal());
+            output.putInt(lotCount);
+            for (int j = 0; j < lotCount; j++) {
+                output.putInt(record.getEpochDay(j));
+                output.putInt(record.getQuantity(j));
+                output.putDouble(record.getUnitPrice(j));
+            }
+            output.writeUnchecked(output.checksum());
+        }
+        output.writeUnchecked(headerChecksum);
+    }
+
+    static Portfolio read(DataInputStream in) throws IOException {
+        return read(in, false);
+    }
+
+    static Portfolio read(DataInputStream in, boolean trustChecksums) throws IOException {
+        return read(in, trustChecksums, null);
+    }
+
+    static Portfolio read(DataInputStream in, boolean trustChecksums, AssetRegistry assetRegistry) throws IOException {
+        try {
+            ChecksumInput input = new ChecksumInput(in);
+            Header header = readHeader(input, false);
+            boolean trusted = trustChecksums && header.checksummed;
+            Portfolio portfolio = SnapshotAssembler.newPortfolio(header.cash, assetRegistry);
+
+            LotBuffer lots = new LotBuffer(16);
+            for (int i = 0; i < header.holdingCount; i++) {
+                lots.clear();
+                SnapshotSegment.HoldingRecord record = readHolding(input, header, trusted, lots);
+                Asset asset = SnapshotAssembler.createAssetWithPrice(record.getAssetType(), record.getSymbol(),
+                    record.getName(), lots.getUnitPrice(0));
+                if (trusted) {
+                    lots.restoreVerifiedInto(portfolio, asset);
+                } else {
+                    SnapshotAssembler.validateAndAddAsset(portfolio, asset, lots);
+                }
+            }
+
+            readFooter(input, header);
+            return portfolio;
+        } catch (EOFException e) {
+            throw new DataIntegrityException("Nieoczekiwany koniec pliku binarnego");
+        }
+    }
+
+    static SnapshotSegment readSegment(DataInputStream in) throws IOException {
+        try {
+            ChecksumInput input = new ChecksumInput(in);
+            Header header = readHeader(input, true);
+            SnapshotSegment segment = new SnapshotSegment(header.cash);
+            for (int i = 0; i < header.holdingCount; i++) {
+                segment.put(readHolding(input, header, false, new LotBuffer(16)));
+            }
+            readFooter(input, header);
+            return segment;
+        } catch (EOFException e) {
+            throw new DataIntegrityException("Nieoczekiwany koniec pliku binarnego");
+        }
+    }
+
+    static boolean isSupportedVersion(short version) {
+        return version == VERSION || version == LEGACY_VERSION;
+    }
+
+    private static Header readHeader(ChecksumInput input, boolean allowDelta) throws IOException {
+        int magic = input.readInt();
+        if (magic != MAGIC && !(allowDelta && magic == DELTA_MAGIC)) {
+            throw new DataIntegrityException("Nieprawidłowy nagłówek formatu binarnego");
+        }
+        short version = input.readShort();
+        if (!isSupportedVersion(version)) {
+            throw new DataIntegrityException("Nieobsługiwana wersja formatu binarnego: " + version);
+        }
+
+        Header header = new Header();
+        header.delta = magic == DELTA_MAGIC;
+        header.checksummed = version >= VERSION;
+        header.cash = checkCash(input.readDouble());
+
+        // liczba pochodzi z pliku, a suma kontrolna nagłówka jest sprawdzana dopiero na końcu
+        int stringCount = checkCount(input.readInt(), "tablicy symboli");
+        int capacity = Math.max(1, Math.min(stringCount, MAX_PREALLOCATED_STRINGS));
+        String[] strings = new String[capacity];
+        byte[][] stringBytes = new byte[capacity][];
+        for (int i = 0; i < stringCount; i++) {
+            int length = input.readInt();
+            if (length <= 0 || length > MAX_STRING_BYTES) {
+                throw new DataIntegrityException("Nieprawidłowa długość symbolu: " + length);
+            }
+            if (i == strings.length) {
+                strings = Arrays.copyOf(strings, i * 2);
+                stringBytes = Arrays.copyOf(stringBytes, i * 2);
+            }
+            byte[] bytes = new byte[length];
+            input.readFully(bytes, 0, length);
+            stringBytes[i] = bytes;
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        header.strings = strings.length == stringCount ? strings : Arrays.copyOf(strings, stringCount);
+        header.stringBytes = stringBytes.length == stringCount ? stringBytes : Arrays.copyOf(stringBytes, stringCount);
+
+        header.holdingCount = checkCount(input.readInt(), "aktywów");
+        header.checksum = input.checksum();
+        return header;
+    }
+
+    private static SnapshotSegment.HoldingRecord readHolding(ChecksumInput input, Header header, boolean trusted,
+                                                             LotBuffer lots) throws IOException {
+        input.resetChecksum();
+        int symbolId = input.readInt();
+        int nameId = input.readInt();
+        String symbol = lookup(header.strings, symbolId);
+        String name = lookup(header.strings, nameId);
+        input.includeInChecksum(header.stringBytes[symbolId]);
+        input.includeInChecksum(header.stringBytes[nameId]);
+        AssetType assetType = checkAssetType(input.readByte());
+        int lotCount = checkCount(input.readInt(), "partii");
+        if (lotCount == 0 && !header.delta) {
+            throw new DataIntegrityException("Asset bez partii zakupowych");
+        }
+
+        byte[] chunk = input.lotBuffer;
+        ByteBuffer view = ByteBuffer.wrap(chunk);
+        int remaining = lotCount;
+        while (remaining > 0) {
+            int batch = Math.min(remaining, chunk.length / LOT_RECORD_BYTES);
+            input.readFully(chunk, 0, batch * LOT_RECORD_BYTES);
+            view.clear();
+            for (int j = 0; j < batch; j++) {
+                int epochDay = view.getInt();
+                int quantity = view.getInt();
+                double price = view.getDouble();
+                if (!trusted) {
+                    checkQuantity(quantity);
+                    checkPrice(price);
+                }
+                lots.add(epochDay, price, quantity);
+            }
+            remaining -= batch;
+        }
+
+        if (header.checksummed && input.checksum() != input.readUnchecked()) {
+            throw new DataIntegrityException("Niezgodna suma kontrolna aktywa: " + symbol);
+        }
+        return new SnapshotSegment.HoldingRecord(symbol, name, assetType, lots);
+    }
+
+    private static void readFooter(ChecksumInput input, Header header) throws IOException {
+        if (header.checksummed && input.readUnchecked() != header.checksum) {
+            throw new DataIntegrityException("Niezgodna suma kontrolna nagłówka");
+        }
+        if (input.read() != -1) {
+            throw new DataIntegrityException("Nadmiarowe dane po ostatnim aktywie");
+        }
+    }
+
+    static double checkCash(double cash) {
+        if (cash < 0 || Double.isNaN(cash) || Double.isInfinite(cash)) {
+            throw new DataIntegrityException("Nieprawidłowa wartość gotówki: " + cash);
+        }
+        return cash;
+    }
+
+    static int checkCount(int count, String what) {
+        if (count < 0) {
+            throw new DataIntegrityException("Ujemna liczba " + what + ": " + count);
+        }
+        return count;
+    }
+
+    static String lookup(String[] strings, int index) {
+        if (index < 0 || index >= strings.length) {
+            throw new DataIntegrityException("Nieprawidłowy indeks symbolu: " + index);
+        }
+        return strings[index];
+    }
+
+    static AssetType checkAssetType(byte ordinal) {
+        if (ordinal < 0 || ordinal >= ASSET_TYPES.length) {
+            throw new DataIntegrityException("Nieznany typ aktywa: " + ordinal);
+        }
+        return ASSET_TYPES[ordinal];
+    }
+
+    static int checkQuantity(int quantity) {
+        if (quantity <= 0) {
+            throw new DataIntegrityException("Ilość musi być większa od zera: " + quantity);
+        }
+        return quantity;
+    }
+
+    static double checkPrice(double price) {
+        if (price <= 0 || Double.isNaN(price) || Double.isInfinite(price)) {
+            throw new DataIntegrityException("Cena musi być większa od zera: " + price);
+        }
+        return price;
+    }
+
+    private static int intern(String value, List<byte[]> strings, Map<String, Integer> stringIndex) {
+        Integer existing = stringIndex.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        int index = strings.size();
+        strings.add(value.getBytes(StandardCharsets.UTF_8));
+        stringIndex.put(value, index);
+        return index;
+    }
+}
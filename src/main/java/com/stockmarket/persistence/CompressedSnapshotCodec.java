@@ -0,0 +1,180 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.AssetRegistry;
+import com.stockmarket.domain.AssetType;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.logic.PurchaseLotView;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.ZipException;
+
+final class CompressedSnapshotCodec {
+    static final int GZIP_MAGIC = 0x1F8B;
+    static final int MAGIC = 0x89504643;
+    static final short VERSION = 1;
+
+    private static final double PRICE_SCALE = 10000.0;
+    private static final double MAX_SCALED_PRICE = 1L << 53;
+    private static final int RAW_PRICE_TAG = 1;
+
+    private CompressedSnapshotCodec() {
+    }
+
+    static void write(Portfolio portfolio, DataOutputStream out) throws IOException {
+        List<String> symbols = portfolio.getAllAssetSymbols();
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeDouble(portfolio.getCash());
+        writeVarLong(out, symbols.size());
+
+        for (int i = 0; i < symbols.size(); i++) {
+            Asset asset = portfolio.getAsset(symbols.get(i));
+            PurchaseLotView lots = portfolio.getPurchaseLots(symbols.get(i));
+            out.writeUTF(asset.getSymbol());
+            out.writeUTF(asset.getName());
+            out.writeByte(asset.getAssetType().ordinal());
+            writeVarLong(out, lots.size());
+
+            long previousDay = 0;
+            long previousScaledPrice = 0;
+            for (int j = 0; j < lots.size(); j++) {
+                long epochDay = lots.getEpochDay(j);
+                writeVarLong(out, zigZag(epochDay - previousDay));
+                previousDay = epochDay;
+                writeVarLong(out, lots.getQuantity(j));
+
+                double price = lots.getUnitPrice(j);
+                long scaledPrice = scale(price);
+                if (scaledPrice >= 0) {
+                    writeVarLong(out, zigZag(scaledPrice - previousScaledPrice) << 1);
+                    previousScaledPrice = scaledPrice;
+                } else {
+                    writeVarLong(out, RAW_PRICE_TAG);
+                    out.writeDouble(price);
+                }
+            }
+        }
+    }
+
+    static Portfolio read(DataInputStream in) throws IOException {
+        return read(in, null);
+    }
+
+    static Portfolio read(DataInputStream in, AssetRegistry assetRegistry) throws IOException {
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new DataIntegrityException("Nieprawidłowy nagłówek formatu skompresowanego");
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new DataIntegrityException("Nieobsługiwana wersja formatu skompresowanego: " + version);
+            }
+
+            Portfolio portfolio = SnapshotAssembler.newPortfolio(BinarySnapshotCodec.checkCash(in.readDouble()),
+                assetRegistry);
+            int holdingCount = readCount(in, "aktywów");
+            LotBuffer lots = new LotBuffer(16);
+            for (int i = 0; i < holdingCount; i++) {
+                String symbol = in.readUTF();
+                String name = in.readUTF();
+                AssetType assetType = BinarySnapshotCodec.checkAssetType(in.readByte());
+                int lotCount = readCount(in, "partii");
+
+                lots.clear();
+                long epochDay = 0;
+                long scaledPrice = 0;
+                for (int j = 0; j < lotCount; j++) {
+                    epochDay += unZigZag(readVarLong(in));
+                    if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+                        throw new DataIntegrityException("Nieprawidłowa data: " + epochDay);
+                    }
+
+                    long rawQuantity = readVarLong(in);
+                    if (rawQuantity < 0 || rawQuantity > Integer.MAX_VALUE) {
+                        throw new DataIntegrityException("Nieprawidłowa ilość: " + rawQuantity);
+                    }
+                    int quantity = BinarySnapshotCodec.checkQuantity((int) rawQuantity);
+
+                    long priceCode = readVarLong(in);
+                    double price;
+                    if ((priceCode & 1) == RAW_PRICE_TAG) {
+                        price = in.readDouble();
+                    } else {
+                        scaledPrice += unZigZag(priceCode >>> 1);
+                        price = scaledPrice / PRICE_SCALE;
+                    }
+                    lots.add((int) epochDay, BinarySnapshotCodec.checkPrice(price), quantity);
+                }
+
+                if (lots.isEmpty()) {
+                    throw new DataIntegrityException("Asset bez partii zakupowych");
+                }
+                Asset asset = SnapshotAssembler.createAssetWithPrice(assetType, symbol, name, lots.getUnitPrice(0));
+                SnapshotAssembler.validateAndAddAsset(portfolio, asset, lots);
+            }
+
+            if (in.read() != -1) {
+                throw new DataIntegrityException("Nadmiarowe dane po ostatnim aktywie");
+            }
+            return portfolio;
+        } catch (EOFException e) {
+            throw new DataIntegrityException("Nieoczekiwany koniec pliku skompresowanego");
+        } catch (ZipException e) {
+            throw new DataIntegrityException("Uszkodzony plik skompresowany: " + e.getMessage());
+        }
+    }
+
+    private static long scale(double price) {
+        double scaled = price * PRICE_SCALE;
+        if (scaled >= MAX_SCALED_PRICE) {
+            return -1;
+        }
+        long rounded = Math.round(scaled);
+        if (rounded / PRICE_SCALE != price) {
+            return -1;
+        }
+        return rounded;
+    }
+
+    private static int readCount(DataInputStream in, String what) throws IOException {
+        long count = readVarLong(in);
+        if (count < 0 || count > Integer.MAX_VALUE) {
+            throw new DataIntegrityException("Nieprawidłowa liczba " + what + ": " + count);
+        }
+        return (int) count;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new DataIntegrityException("Nieprawidłowe kodowanie liczby");
+    }
+}
@@ -1,7 +1,19 @@
 package com.stockmarket.persistence;
 
 public class DataIntegrityException extends RuntimeException {
+    private final long offset;
+
     public DataIntegrityException(String message) {
         super(message);
+        this.offset = -1;
+    }
+
+    public DataIntegrityException(String message, long offset) {
+        super(message + " (offset " + offset + ")");
+        this.offset = offset;
+    }
+
+    public long getOffset() {
+        return offset;
     }
 }
@@ -0,0 +1,297 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.logic.Portfolio;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class DeltaSnapshotStore implements Closeable {
+    private static final String BASE_PREFIX = "base-";
+    private static final String DELTA_PREFIX = "delta-";
+    private static final String SEGMENT_SUFFIX = ".bin";
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    private final Path directory;
+    private final int compactionThreshold;
+    private final Object lock;
+    private final Object compactionLock;
+    private final ExecutorService compactor;
+    private long baseSequence;
+    private long nextSequence;
+    private int deltaCount;
+    private Future<?> pendingCompaction;
+
+    public DeltaSnapshotStore(Path directory, int compactionThreshold) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Katalog migawek nie może być null");
+        }
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Próg kompakcji musi być większy od zera");
+        }
+
+        this.directory = directory;
+        this.compactionThreshold = compactionThreshold;
+        this.lock = new Object();
+        this.compactionLock = new Object();
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Files.createDirectories(directory);
+        deleteTempFiles();
+        List<Long> bases = listSequences(BASE_PREFIX);
+        this.baseSequence = bases.isEmpty() ? -1 : bases.get(bases.size() - 1);
+        List<Long> deltas = listSequences(DELTA_PREFIX);
+        long last = baseSequence;
+        for (int i = 0; i < deltas.size(); i++) {
+            if (deltas.get(i) > baseSequence) {
+                deltaCount++;
+            }
+            last = Math.max(last, deltas.get(i));
+        }
+        this.nextSequence = last + 1;
+    }
+
+    public void save(Portfolio portfolio) throws IOException {
+        if (portfolio == null) {
+            throw new IllegalArgumentException("Portfolio nie może być null");
+        }
+        checkCompaction();
+
+        boolean hasBase;
+        synchronized (lock) {
+            hasBase = baseSequence >= 0;
+        }
+        if (!hasBase) {
+            saveFull(portfolio);
+            return;
+        }
+
+        boolean compactionDue;
+        synchronized (lock) {
+            long sequence = nextSequence++;
+            List<String> dirtySymbols = portfolio.getDirtySymbols();
+            AtomicFileWriter.write(segmentPath(DELTA_PREFIX, sequence), target -> {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target, IO_BUFFER_SIZE))) {
+                    BinarySnapshotCodec.writeDelta(portfolio, dirtySymbols, out);
+                }
+            });
+            portfolio.clearDirtySymbols();
+            deltaCount++;
+            compactionDue = deltaCount >= compactionThreshold
+                && (pendingCompaction == null || pendingCompaction.isDone());
+        }
+
+        if (compactionDue) {
+            compactAsync();
+        }
+    }
+
+    public void saveFull(Portfolio portfolio) throws IOException {
+        if (portfolio == null) {
+            throw new IllegalArgumentException("Portfolio nie może być null");
+        }
+
+        synchronized (compactionLock) {
+            synchronized (lock) {
+                long sequence = nextSequence++;
+                AtomicFileWriter.write(segmentPath(BASE_PREFIX, sequence), target -> {
+                    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target, IO_BUFFER_SIZE))) {
+                        BinarySnapshotCodec.write(portfolio, out);
+                    }
+                });
+                portfolio.clearDirtySymbols();
+                baseSequence = sequence;
+                deleteSegmentsBefore(sequence);
+                deltaCount = 0;
+            }
+        }
+    }
+
+    public Portfolio load() throws IOException {
+        synchronized (lock) {
+            long base = baseSequence;
+            if (base < 0) {
+                throw new IOException("Brak migawki bazowej w katalogu: " + directory);
+            }
+
+            SnapshotSegment segment = readSegment(segmentPath(BASE_PREFIX, base));
+            List<Long> deltas = listSequences(DELTA_PREFIX);
+            for (int i = 0; i < deltas.size(); i++) {
+                if (deltas.get(i) > base) {
+                    segment.apply(readSegment(segmentPath(DELTA_PREFIX, deltas.get(i))));
+                }
+            }
+
+            Portfolio portfolio = segment.toPortfolio();
+            portfolio.clearDirtySymbols();
+            return portfolio;
+        }
+    }
+
+    public Future<?> compactAsync() {
+        synchronized (lock) {
+            pendingCompaction = compactor.submit(() -> {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Nie można scalić migawek", e);
+                }
+            });
+            return pendingCompaction;
+        }
+    }
+
+    public void compact() throws IOException {
+        synchronized (compactionLock) {
+            long base;
+            List<Long> deltas = new ArrayList<>();
+            synchronized (lock) {
+                base = baseSequence;
+                List<Long> sequences = listSequences(DELTA_PREFIX);
+                for (int i = 0; i < sequences.size(); i++) {
+                    if (sequences.get(i) > base) {
+                        deltas.add(sequences.get(i));
+                    }
+                }
+            }
+            if (base < 0 || deltas.isEmpty()) {
+                return;
+            }
+
+            SnapshotSegment segment = readSegment(segmentPath(BASE_PREFIX, base));
+            for (int i = 0; i < deltas.size(); i++) {
+                segment.apply(readSegment(segmentPath(DELTA_PREFIX, deltas.get(i))));
+            }
+
+            long target = deltas.get(deltas.size() - 1);
+            Path tempPath = directory.resolve(BASE_PREFIX + target + SEGMENT_SUFFIX + AtomicFileWriter.TEMP_SUFFIX);
+            AtomicFileWriter.write(tempPath, out -> {
+                try (DataOutputStream segmentOut = new DataOutputStream(new BufferedOutputStream(out, IO_BUFFER_SIZE))) {
+                    BinarySnapshotCodec.writeSegment(segment, segmentOut);
+                }
+            });
+
+            synchronized (lock) {
+                AtomicFileWriter.move(tempPath, segmentPath(BASE_PREFIX, target));
+                baseSequence = target;
+                deleteSegmentsBefore(target);
+                deltaCount -= deltas.size();
+            }
+        }
+    }
+
+    public int getDeltaCount() {
+        synchronized (lock) {
+            return deltaCount;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        checkCompaction();
+    }
+
+    // błąd kompakcji w tle zgłasza najbliższe save() lub close()
+    private void checkCompaction() throws IOException {
+        Future<?> compaction;
+        synchronized (lock) {
+            compaction = pendingCompaction;
+            if (compaction == null || !compaction.isDone()) {
+                return;
+            }
+            pendingCompaction = null;
+        }
+
+        try {
+            compaction.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException("Nie można scalić migawek", cause);
+        } catch (CancellationException e) {
+            // anulowana kompakcja niczego nie zmieniła
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // pozostałości zapisu przerwanego awarią (również pośredni plik kompakcji)
+    private void deleteTempFiles() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + AtomicFileWriter.TEMP_SUFFIX)) {
+            for (Path path : stream) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private SnapshotSegment readSegment(Path filePath) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(filePath), IO_BUFFER_SIZE))) {
+            return BinarySnapshotCodec.readSegment(in);
+        }
+    }
+
+    private void deleteSegmentsBefore(long sequence) throws IOException {
+        List<Long> bases = listSequences(BASE_PREFIX);
+        for (int i = 0; i < bases.size(); i++) {
+            if (bases.get(i) < sequence) {
+                Files.deleteIfExists(segmentPath(BASE_PREFIX, bases.get(i)));
+            }
+        }
+        List<Long> deltas = listSequences(DELTA_PREFIX);
+        for (int i = 0; i < deltas.size(); i++) {
+            if (deltas.get(i) <= sequence) {
+                Files.deleteIfExists(segmentPath(DELTA_PREFIX, deltas.get(i)));
+            }
+        }
+    }
+
+    private List<Long> listSequences(String prefix) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                String number = fileName.substring(prefix.length(), fileName.length() - SEGMENT_SUFFIX.length());
+                try {
+                    sequences.add(Long.parseLong(number));
+                } catch (NumberFormatException e) {
+                    // pliki o innych nazwach nie należą do magazynu migawek
+                }
+            }
+        }
+        Collections.sort(sequences);
+        return sequences;
+    }
+
+    private Path segmentPath(String prefix, long sequence) {
+        return directory.resolve(prefix + sequence + SEGMENT_SUFFIX);
+    }
+}
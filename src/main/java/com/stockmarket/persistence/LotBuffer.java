@@ -0,0 +1,76 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.logic.Portfolio;
+
+import java.util.Arrays;
+
+final class LotBuffer {
+    private static final int MAX_PREALLOCATED_LOTS = 1 << 16;
+
+    private int[] epochDays;
+    private double[] unitPrices;
+    private int[] quantities;
+    private int size;
+
+    LotBuffer(int expectedLots) {
+        int capacity = Math.max(1, Math.min(expectedLots, MAX_PREALLOCATED_LOTS));
+        this.epochDays = new int[capacity];
+        this.unitPrices = new double[capacity];
+        this.quantities = new int[capacity];
+        this.size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void add(int epochDay, double unitPrice, int quantity) {
+        if (size == quantities.length) {
+            int capacity = size * 2;
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            unitPrices = Arrays.copyOf(unitPrices, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+        }
+        epochDays[size] = epochDay;
+        unitPrices[size] = unitPrice;
+        quantities[size] = quantity;
+        size++;
+    }
+
+    int getEpochDay(int index) {
+        return epochDays[index];
+    }
+
+    double getUnitPrice(int index) {
+        return unitPrices[index];
+    }
+
+    int getQuantity(int index) {
+        return quantities[index];
+    }
+
+    long getTotalQuantity() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += quantities[i];
+        }
+        return total;
+    }
+
+    void restoreInto(Portfolio portfolio, Asset asset) {
+        portfolio.restoreHolding(asset, epochDays, unitPrices, quantities, size);
+    }
+
+    void restoreVerifiedInto(Portfolio portfolio, Asset asset) {
+        portfolio.restoreVerifiedHolding(asset, epochDays, unitPrices, quantities, size);
+    }
+}
@@ -0,0 +1,207 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.AssetRegistry;
+import com.stockmarket.domain.AssetType;
+import com.stockmarket.logic.Portfolio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+final class MappedSnapshotReader {
+    static final long DEFAULT_WINDOW_SIZE = 256L << 20;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long windowSize;
+    private final CRC32C crc;
+    private final AssetRegistry assetRegistry;
+    private final LotBuffer lots;
+    private boolean checksummed;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long recordOffset;
+
+    private MappedSnapshotReader(FileChannel channel, long windowSize, AssetRegistry assetRegistry) throws IOException {
+        this.channel = channel;
+        this.assetRegistry = assetRegistry;
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        this.crc = new CRC32C();
+        this.lots = new LotBuffer(16);
+        this.windowStart = 0;
+        this.recordOffset = 0;
+        this.window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(windowSize, fileSize));
+    }
+
+    static boolean isBinarySnapshot(FileChannel channel) throws IOException {
+        if (channel.size() < 4) {
+            return false;
+        }
+        MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, 4);
+        return head.getInt(0) == BinarySnapshotCodec.MAGIC;
+    }
+
+    static Portfolio read(Path filePath, long windowSize, AssetRegistry assetRegistry) throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            return new MappedSnapshotReader(channel, windowSize, assetRegistry).decode();
+        }
+    }
+
+    private Portfolio decode() throws IOException {
+        try {
+            require(4 + 2 + 8);
+            checksum(4 + 2 + 8);
+            if (window.getInt() != BinarySnapshotCodec.MAGIC) {
+                throw new DataIntegrityException("Nieprawidłowy nagłówek formatu binarnego");
+            }
+            short version = window.getShort();
+            if (!BinarySnapshotCodec.isSupportedVersion(version)) {
+                throw new DataIntegrityException("Nieobsługiwana wersja formatu binarnego: " + version);
+            }
+            checksummed = version >= BinarySnapshotCodec.VERSION;
+            Portfolio portfolio = SnapshotAssembler.newPortfolio(BinarySnapshotCodec.checkCash(window.getDouble()),
+                assetRegistry);
+
+            byte[][] stringBytes = readStringTable();
+            String[] strings = new String[stringBytes.length];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = new String(stringBytes[i], StandardCharsets.UTF_8);
+            }
+
+            mark();
+            require(4);
+            checksum(4);
+            int holdingCount = BinarySnapshotCodec.checkCount(window.getInt(), "aktywów");
+            int headerChecksum = (int) crc.getValue();
+            for (int i = 0; i < holdingCount; i++) {
+                readHolding(portfolio, strings, stringBytes);
+            }
+
+            mark();
+            if (checksummed) {
+                require(4);
+                if (window.getInt() != headerChecksum) {
+                    throw new DataIntegrityException("Niezgodna suma kontrolna nagłówka");
+                }
+            }
+            if (position() != fileSize) {
+                throw new DataIntegrityException("Nadmiarowe dane po ostatnim aktywie");
+            }
+            return portfolio;
+        } catch (DataIntegrityException e) {
+            if (e.getOffset() >= 0) {
+                throw e;
+            }
+            throw new DataIntegrityException(e.getMessage(), recordOffset);
+        }
+    }
+
+    private byte[][] readStringTable() throws IOException {
+        mark();
+        require(4);
+        checksum(4);
+        int stringCount = BinarySnapshotCodec.checkCount(window.getInt(), "tablicy symboli");
+        if (stringCount > (fileSize - position()) / 5) {
+            throw new DataIntegrityException("Liczba symboli przekracza rozmiar pliku: " + stringCount, recordOffset);
+        }
+        byte[][] strings = new byte[stringCount][];
+        for (int i = 0; i < stringCount; i++) {
+            mark();
+            require(4);
+            checksum(4);
+            int length = window.getInt();
+            if (length <= 0 || length > BinarySnapshotCodec.MAX_STRING_BYTES) {
+                throw new DataIntegrityException("Nieprawidłowa długość symbolu: " + length);
+            }
+            require(length);
+            checksum(length);
+            byte[] bytes = new byte[length];
+            window.get(bytes);
+            strings[i] = bytes;
+        }
+        return strings;
+    }
+
+    private void readHolding(Portfolio portfolio, String[] strings, byte[][] stringBytes) throws IOException {
+        mark();
+        require(4 + 4 + 1 + 4);
+        crc.reset();
+        checksum(4 + 4);
+        int symbolId = window.getInt();
+        int nameId = window.getInt();
+        String symbol = BinarySnapshotCodec.lookup(strings, symbolId);
+        String name = BinarySnapshotCodec.lookup(strings, nameId);
+        crc.update(stringBytes[symbolId], 0, stringBytes[symbolId].length);
+        crc.update(stringBytes[nameId], 0, stringBytes[nameId].length);
+        checksum(1 + 4);
+        AssetType assetType = BinarySnapshotCodec.checkAssetType(window.get());
+        int lotCount = BinarySnapshotCodec.checkCount(window.getInt(), "partii");
+        if (lotCount == 0) {
+            throw new DataIntegrityException("Asset bez partii zakupowych");
+        }
+        long holdingOffset = recordOffset;
+
+        lots.clear();
+        int checkedLots = 0;
+        for (int j = 0; j < lotCount; j++) {
+            mark();
+            require(BinarySnapshotCodec.LOT_RECORD_BYTES);
+            if (checkedLots == j) {
+                int batch = Math.min(lotCount - j, window.remaining() / BinarySnapshotCodec.LOT_RECORD_BYTES);
+                checksum(batch * BinarySnapshotCodec.LOT_RECORD_BYTES);
+                checkedLots += batch;
+            }
+            int epochDay = window.getInt();
+            int quantity = BinarySnapshotCodec.checkQuantity(window.getInt());
+            double price = BinarySnapshotCodec.checkPrice(window.getDouble());
+            lots.add(epochDay, price, quantity);
+        }
+
+        if (checksummed) {
+            mark();
+            require(4);
+            if (window.getInt() != (int) crc.getValue()) {
+                recordOffset = holdingOffset;
+                throw new DataIntegrityException("Niezgodna suma kontrolna aktywa: " + symbol);
+            }
+        }
+
+        recordOffset = holdingOffset;
+        Asset asset = SnapshotAssembler.createAssetWithPrice(assetType, symbol, name, lots.getUnitPrice(0));
+        SnapshotAssembler.validateAndAddAsset(portfolio, asset, lots);
+    }
+
+    private void checksum(int bytes) {
+        ByteBuffer view = window.duplicate();
+        view.limit(view.position() + bytes);
+        crc.update(view);
+    }
+
+    private void mark() {
+        recordOffset = position();
+    }
+
+    private long position() {
+        return windowStart + window.position();
+    }
+
+    private void require(int bytes) throws IOException {
+        if (window.remaining() >= bytes) {
+            return;
+        }
+        long position = position();
+        if (fileSize - position < bytes) {
+            throw new DataIntegrityException("Nieoczekiwany koniec pliku binarnego", position);
+        }
+        long size = Math.min(Math.max(windowSize, bytes), fileSize - position);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        windowStart = position;
+    }
+}
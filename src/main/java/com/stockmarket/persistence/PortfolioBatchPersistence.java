@@ -0,0 +1,185 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.logic.Portfolio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+public class PortfolioBatchPersistence implements Closeable {
+    private final PortfolioPersistence persistence;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+
+    private static class FileResult {
+        private final Path filePath;
+        private final Portfolio portfolio;
+        private final Exception failure;
+
+        FileResult(Path filePath, Portfolio portfolio, Exception failure) {
+            this.filePath = filePath;
+            this.portfolio = portfolio;
+            this.failure = failure;
+        }
+    }
+
+    public PortfolioBatchPersistence(int parallelism, int maxInFlight) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Liczba wątków musi być większa od zera");
+        }
+        if (maxInFlight < parallelism) {
+            throw new IllegalArgumentException("Limit zadań w toku nie może być mniejszy od liczby wątków");
+        }
+
+        this.persistence = new PortfolioPersistence();
+        this.maxInFlight = maxInFlight;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-io-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public BatchReport loadAll(Path directory, BiConsumer<Path, Portfolio> consumer) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Katalog nie może być null");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("Odbiorca portfeli nie może być null");
+        }
+
+        List<Path> files = listPortfolioFiles(directory);
+        List<Callable<FileResult>> tasks = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            Path filePath = files.get(i);
+            tasks.add(() -> {
+                try {
+                    return new FileResult(filePath, persistence.loadPortfolio(filePath), null);
+                } catch (IOException | RuntimeException e) {
+                    return new FileResult(filePath, null, e);
+                }
+            });
+        }
+        return run(tasks, consumer);
+    }
+
+    public BatchReport saveAll(Map<Path, Portfolio> portfolios, SnapshotFormat format) {
+        if (portfolios == null) {
+            throw new IllegalArgumentException("Mapa portfeli nie może być null");
+        }
+        if (format == null) {
+            throw new IllegalArgumentException("Format zapisu nie może być null");
+        }
+
+        List<Callable<FileResult>> tasks = new ArrayList<>(portfolios.size());
+        for (Map.Entry<Path, Portfolio> entry : portfolios.entrySet()) {
+            Path filePath = entry.getKey();
+            Portfolio portfolio = entry.getValue();
+            tasks.add(() -> {
+                try {
+                    persistence.savePortfolio(portfolio, filePath, format);
+                    return new FileResult(filePath, null, null);
+                } catch (IOException | RuntimeException e) {
+                    return new FileResult(filePath, null, e);
+                }
+            });
+        }
+        return run(tasks, null);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BatchReport run(List<Callable<FileResult>> tasks, BiConsumer<Path, Portfolio> consumer) {
+        CompletionService<FileResult> completion = new ExecutorCompletionService<>(executor);
+        BatchReport report = new BatchReport();
+        int submitted = 0;
+        int completed = 0;
+
+        try {
+            while (completed < tasks.size()) {
+                while (submitted < tasks.size() && submitted - completed < maxInFlight) {
+                    completion.submit(tasks.get(submitted));
+                    submitted++;
+                }
+
+                FileResult result = take(completion);
+                completed++;
+                if (result.failure != null) {
+                    report.recordFailure(result.filePath, result.failure);
+                } else {
+                    if (consumer != null) {
+                        consumer.accept(result.filePath, result.portfolio);
+                    }
+                    report.recordSuccess(result.filePath);
+                }
+            }
+        } finally {
+            for (int i = completed; i < submitted; i++) {
+                take(completion);
+            }
+        }
+        return report;
+    }
+
+    private FileResult take(CompletionService<FileResult> completion) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    Future<FileResult> future = completion.take();
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException("Nieoczekiwany błąd zadania wejścia-wyjścia", cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private List<Path> listPortfolioFiles(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                if (Files.isRegularFile(path) && !path.getFileName().toString().endsWith(AtomicFileWriter.TEMP_SUFFIX)) {
+                    files.add(path);
+                }
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+}
@@ -0,0 +1,498 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.AssetType;
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.Currency;
+import com.stockmarket.domain.Order;
+import com.stockmarket.domain.OrderType;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.logic.PortfolioListener;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+public class PortfolioJournal implements PortfolioListener, Closeable {
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String ORDERS_PREFIX = "orders-";
+    private static final String JOURNAL_PREFIX = "journal-";
+    private static final String LOG_SUFFIX = ".log";
+
+    private static final byte ADD_ASSET = 1;
+    private static final byte SELL_ASSET = 2;
+    private static final byte ADD_ORDER = 3;
+    private static final byte REMOVE_ORDER = 4;
+    private static final byte AMEND_ORDER = 5;
+
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_PENDING_BYTES = 1 << 22;
+
+    private static final AssetType[] ASSET_TYPES = AssetType.values();
+    private static final OrderType[] ORDER_TYPES = OrderType.values();
+
+    private final Path directory;
+    private final Portfolio portfolio;
+    private final int groupCommitSize;
+    private final PortfolioPersistence persistence;
+    private final CRC32 checksum;
+    private ByteBuffer pending;
+    private int pendingRecords;
+    private FileChannel channel;
+    private long committedBytes;
+    private IOException commitFailure;
+    private long generation;
+
+    private PortfolioJournal(Path directory, Portfolio portfolio, int groupCommitSize, long generation) {
+        this.directory = directory;
+        this.portfolio = portfolio;
+        this.groupCommitSize = groupCommitSize;
+        this.persistence = new PortfolioPersistence();
+        this.checksum = new CRC32();
+        this.pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        this.pendingRecords = 0;
+        this.generation = generation;
+    }
+
+    public static PortfolioJournal create(Path directory, Portfolio portfolio, int groupCommitSize) throws IOException {
+        validateArguments(directory, groupCommitSize);
+        if (portfolio == null) {
+            throw new IllegalArgumentException("Portfolio nie może być null");
+        }
+        Files.createDirectories(directory);
+        if (latestSnapshotGeneration(directory) >= 0) {
+            throw new IllegalArgumentException("Katalog zawiera już dziennik portfela: " + directory);
+        }
+
+        PortfolioJournal journal = new PortfolioJournal(directory, portfolio, groupCommitSize, -1);
+        journal.checkpoint();
+        portfolio.setListener(journal);
+        return journal;
+    }
+
+    public static PortfolioJournal open(Path directory, int groupCommitSize) throws IOException {
+        validateArguments(directory, groupCommitSize);
+        long generation = latestSnapshotGeneration(directory);
+        Portfolio portfolio = recover(directory);
+
+        PortfolioJournal journal = new PortfolioJournal(directory, portfolio, groupCommitSize, generation);
+        journal.checkpoint();
+        portfolio.setListener(journal);
+        return journal;
+    }
+
+    public static Portfolio recover(Path directory) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Katalog dziennika nie może być null");
+        }
+        long generation = latestSnapshotGeneration(directory);
+        if (generation < 0) {
+            throw new DataIntegrityException("Brak migawki w katalogu dziennika: " + directory);
+        }
+
+        Portfolio portfolio = new PortfolioPersistence().loadPortfolio(snapshotPath(directory, generation));
+        Map<Long, Long> orderIds = new HashMap<>();
+        replay(ordersPath(directory, generation), portfolio, orderIds);
+
+        List<Long> journalGenerations = listGenerations(directory, JOURNAL_PREFIX, LOG_SUFFIX);
+        for (int i = 0; i < journalGenerations.size(); i++) {
+            long journalGeneration = journalGenerations.get(i);
+            if (journalGeneration >= generation) {
+                replay(journalPath(directory, journalGeneration), portfolio, orderIds);
+            }
+        }
+        return portfolio;
+    }
+
+    public Portfolio getPortfolio() {
+        return portfolio;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public int getPendingRecordCount() {
+        return pendingRecords;
+    }
+
+    public IOException getCommitFailure() {
+        return commitFailure;
+    }
+
+    public void commit() throws IOException {
+        if (pending.position() == 0) {
+            commitFailure = null;
+            return;
+        }
+        try {
+            ByteBuffer records = ByteBuffer.wrap(pending.array(), 0, pending.position());
+            channel.position(committedBytes);
+            while (records.hasRemaining()) {
+                channel.write(records);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            commitFailure = e;
+            throw e;
+        }
+        committedBytes += pending.position();
+        pending.clear();
+        pendingRecords = 0;
+        commitFailure = null;
+    }
+
+    public void checkpoint() throws IOException {
+        if (channel != null) {
+            commit();
+        }
+
+        long next = generation + 1;
+        writeOrders(next);
+        FileChannel nextChannel = FileChannel.open(journalPath(directory, next),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            writeSnapshot(next);
+        } catch (IOException | RuntimeException e) {
+            nextChannel.close();
+            throw e;
+        }
+
+        FileChannel previous = channel;
+        channel = nextChannel;
+        committedBytes = 0;
+        generation = next;
+        if (previous != null) {
+            previous.close();
+        }
+        deleteGenerationsBefore(next);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (portfolio.getListener() == this) {
+            portfolio.setListener(null);
+        }
+        if (channel != null) {
+            try {
+                commit();
+            } finally {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    @Override
+    public void beforeMutation() {
+        if (commitFailure == null) {
+            return;
+        }
+        try {
+            commit();
+        } catch (IOException e) {
+            throw new IllegalStateException("Dziennik portfela nie zatwierdził poprzednich zmian: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onAssetAdded(Asset asset, int quantity, LocalDate purchaseDate) {
+        int start = beginRecord(ADD_ASSET);
+        pending.put((byte) asset.getAssetType().ordinal());
+        putString(asset.getSymbol());
+        putString(asset.getName());
+        pending.putDouble(asset.getMarketPrice());
+        pending.putDouble(asset instanceof Currency ? ((Currency) asset).getSpread() : 0.0);
+        pending.putInt(quantity);
+        pending.putLong(purchaseDate.toEpochDay());
+        endRecord(start);
+        commitIfGroupFull();
+    }
+
+    @Override
+    public void onAssetSold(String symbol, int quantity, double salePrice) {
+        int start = beginRecord(SELL_ASSET);
+        putString(symbol);
+        pending.putInt(quantity);
+        pending.putDouble(salePrice);
+        endRecord(start);
+        commitIfGroupFull();
+    }
+
+    @Override
+    public void onOrderAdded(long orderId, Order order) {
+        int start = beginRecord(ADD_ORDER);
+        putOrder(orderId, order);
+        endRecord(start);
+        commitIfGroupFull();
+    }
+
+    @Override
+    public void onOrderRemoved(long orderId) {
+        int start = beginRecord(REMOVE_ORDER);
+        pending.putLong(orderId);
+        endRecord(start);
+        commitIfGroupFull();
+    }
+
+    @Override
+    public void onOrderAmended(long orderId, int newQuantity, double newLimitPrice) {
+        int start = beginRecord(AMEND_ORDER);
+        pending.putLong(orderId);
+        pending.putInt(newQuantity);
+        pending.putDouble(newLimitPrice);
+        endRecord(start);
+        commitIfGroupFull();
+    }
+
+    private int beginRecord(byte type) {
+        ensureCapacity(RECORD_HEADER_BYTES + 1 + 1024);
+        int start = pending.position();
+        pending.position(start + RECORD_HEADER_BYTES);
+        pending.put(type);
+        return start;
+    }
+
+    private void endRecord(int start) {
+        int end = pending.position();
+        int payloadLength = end - start - RECORD_HEADER_BYTES;
+        checksum.reset();
+        checksum.update(pending.array(), start + RECORD_HEADER_BYTES, payloadLength);
+        pending.putInt(start, payloadLength);
+        pending.putInt(start + 4, (int) checksum.getValue());
+        pendingRecords++;
+    }
+
+    private void commitIfGroupFull() {
+        if (pendingRecords % groupCommitSize == 0 || pending.position() >= MAX_PENDING_BYTES) {
+            try {
+                commit();
+            } catch (IOException e) {
+                // zmiana jest już w pamięci; rekordy zostają w buforze, a kolejną zmianę odrzuci beforeMutation()
+            }
+        }
+    }
+
+    private void putOrder(long orderId, Order order) {
+        pending.putLong(orderId);
+        putString(order.getAssetSymbol());
+        pending.put((byte) order.getOrderType().ordinal());
+        pending.putInt(order.getQuantity());
+        pending.putDouble(order.getLimitPrice());
+        pending.putDouble(order.getMarketPrice());
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(2 + bytes.length + 64);
+        pending.putShort((short) bytes.length);
+        pending.put(bytes);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+    }
+
+    private void writeOrders(long target) throws IOException {
+        long[] orderIds = portfolio.getPendingOrderIds();
+        for (int i = 0; i < orderIds.length; i++) {
+            int start = beginRecord(ADD_ORDER);
+            putOrder(orderIds[i], portfolio.getPendingOrder(orderIds[i]));
+            endRecord(start);
+        }
+
+        try {
+            AtomicFileWriter.write(ordersPath(directory, target),
+                out -> out.write(pending.array(), 0, pending.position()));
+        } finally {
+            pending.clear();
+            pendingRecords = 0;
+        }
+    }
+
+    private void writeSnapshot(long target) throws IOException {
+        persistence.savePortfolio(portfolio, snapshotPath(directory, target), SnapshotFormat.BINARY);
+    }
+
+    private void deleteGenerationsBefore(long target) throws IOException {
+        deleteBefore(target, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        deleteBefore(target, ORDERS_PREFIX, LOG_SUFFIX);
+        deleteBefore(target, JOURNAL_PREFIX, LOG_SUFFIX);
+    }
+
+    private void deleteBefore(long target, String prefix, String suffix) throws IOException {
+        List<Long> generations = listGenerations(directory, prefix, suffix);
+        for (int i = 0; i < generations.size(); i++) {
+            if (generations.get(i) < target) {
+                Files.deleteIfExists(directory.resolve(prefix + generations.get(i) + suffix));
+            }
+        }
+    }
+
+    private static void replay(Path filePath, Portfolio portfolio, Map<Long, Long> orderIds) throws IOException {
+        if (!Files.exists(filePath)) {
+            return;
+        }
+
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(filePath), INITIAL_BUFFER_SIZE))) {
+            while (true) {
+                int payloadLength;
+                int expectedChecksum;
+                byte[] payload;
+                try {
+                    payloadLength = in.readInt();
+                    expectedChecksum = in.readInt();
+                    if (payloadLength <= 0 || payloadLength > MAX_RECORD_BYTES) {
+                        return;
+                    }
+                    payload = new byte[payloadLength];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    return;
+                }
+
+                crc.reset();
+                crc.update(payload, 0, payloadLength);
+                if ((int) crc.getValue() != expectedChecksum) {
+                    return;
+                }
+                apply(ByteBuffer.wrap(payload), portfolio, orderIds);
+            }
+        }
+    }
+
+    private static void apply(ByteBuffer record, Portfolio portfolio, Map<Long, Long> orderIds) {
+        byte type = record.get();
+        try {
+            switch (type) {
+                case ADD_ASSET:
+                    AssetType assetType = ASSET_TYPES[record.get()];
+                    String symbol = getString(record);
+                    String name = getString(record);
+                    double marketPrice = record.getDouble();
+                    double spread = record.getDouble();
+                    int quantity = record.getInt();
+                    LocalDate purchaseDate = LocalDate.ofEpochDay(record.getLong());
+                    portfolio.addAsset(createAsset(assetType, symbol, name, marketPrice, spread), quantity, purchaseDate);
+                    break;
+                case SELL_ASSET:
+                    portfolio.sellAsset(getString(record), record.getInt(), record.getDouble());
+                    break;
+                case ADD_ORDER:
+                    long journalId = record.getLong();
+                    Order order = new Order(getString(record), ORDER_TYPES[record.get()], record.getInt(),
+                        record.getDouble(), record.getDouble());
+                    orderIds.put(journalId, portfolio.addOrder(order));
+                    break;
+                case REMOVE_ORDER:
+                    Long removedId = orderIds.remove(record.getLong());
+                    if (removedId == null || portfolio.cancelOrder(removedId) == null) {
+                        throw new DataIntegrityException("Nieznane zlecenie w dzienniku");
+                    }
+                    break;
+                case AMEND_ORDER:
+                    Long amendedId = orderIds.get(record.getLong());
+                    if (amendedId == null || !portfolio.amendOrder(amendedId, record.getInt(), record.getDouble())) {
+                        throw new DataIntegrityException("Nieznane zlecenie w dzienniku");
+                    }
+                    break;
+                default:
+                    throw new DataIntegrityException("Nieznany typ rekordu dziennika: " + type);
+            }
+        } catch (RuntimeException e) {
+            throw new DataIntegrityException("Nie można odtworzyć rekordu dziennika: " + e.getMessage());
+        }
+    }
+
+    private static Asset createAsset(AssetType assetType, String symbol, String name, double marketPrice, double spread) {
+        switch (assetType) {
+            case SHARE:
+                return new Share(symbol, name, marketPrice);
+            case COMMODITY:
+                return new Commodity(symbol, name, marketPrice);
+            case CURRENCY:
+                return new Currency(symbol, name, marketPrice, spread);
+            default:
+                throw new DataIntegrityException("Nieobsługiwany typ aktywa: " + assetType);
+        }
+    }
+
+    private static String getString(ByteBuffer record) {
+        int length = record.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void validateArguments(Path directory, int groupCommitSize) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Katalog dziennika nie może być null");
+        }
+        if (groupCommitSize <= 0) {
+            throw new IllegalArgumentException("Rozmiar grupy zatwierdzania musi być większy od zera");
+        }
+    }
+
+    private static long latestSnapshotGeneration(Path directory) throws IOException {
+        List<Long> generations = listGenerations(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        return generations.isEmpty() ? -1 : generations.get(generations.size() - 1);
+    }
+
+    private static List<Long> listGenerations(Path directory, String prefix, String suffix) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return generations;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                String number = fileName.substring(prefix.length(), fileName.length() - suffix.length());
+                try {
+                    generations.add(Long.parseLong(number));
+                } catch (NumberFormatException e) {
+                    // pliki o innych nazwach nie należą do dziennika
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    private static Path snapshotPath(Path directory, long generation) {
+        return directory.resolve(SNAPSHOT_PREFIX + generation + SNAPSHOT_SUFFIX);
+    }
+
+    private static Path ordersPath(Path directory, long generation) {
+        return directory.resolve(ORDERS_PREFIX + generation + LOG_SUFFIX);
+    }
+
+    private static Path journalPath(Path directory, long generation) {
+        return directory.resolve(JOURNAL_PREFIX + generation + LOG_SUFFIX);
+    }
+}
@@ -1,23 +1,29 @@
 package com.stockmarket.persistence;
 
 import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.AssetRegistry;
 import com.stockmarket.domain.AssetType;
-import com.stockmarket.domain.Commodity;
-import com.stockmarket.domain.Currency;
-import com.stockmarket.domain.PurchaseLot;
-import com.stockmarket.domain.Share;
 import com.stockmarket.logic.Portfolio;
+import com.stockmarket.logic.PurchaseLotView;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public class PortfolioPersistence {
     private static final String SEPARATOR = " | ";
@@ -26,44 +32,100 @@ public class PortfolioPersistence {
     private static final String LOT_PREFIX = "LOT";
     private static final String CASH_KEY = "CASH";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    private final AssetRegistry assetRegistry;
+
+    public PortfolioPersistence() {
+        this.assetRegistry = null;
+    }
+
+    public PortfolioPersistence(AssetRegistry assetRegistry) {
+        if (assetRegistry == null) {
+            throw new IllegalArgumentException("Rejestr aktywów nie może być null");
+        }
+        this.assetRegistry = assetRegistry;
+    }
+
+    public AssetRegistry getAssetRegistry() {
+        return assetRegistry;
+    }
 
     public void savePortfolio(Portfolio portfolio, Path filePath) throws IOException {
+        savePortfolio(portfolio, filePath, SnapshotFormat.TEXT);
+    }
+
+    public void savePortfolio(Portfolio portfolio, Path filePath, SnapshotFormat format) throws IOException {
         if (portfolio == null) {
             throw new IllegalArgumentException("Portfolio nie może być null");
         }
         if (filePath == null) {
             throw new IllegalArgumentException("Ścieżka pliku nie może być null");
         }
+        if (format == null) {
+            throw new IllegalArgumentException("Format zapisu nie może być null");
+        }
 
-        try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
-            writer.write(HEADER_PREFIX + SEPARATOR + CASH_KEY + SEPARATOR + portfolio.getCash());
-            writer.newLine();
+        if (format == SnapshotFormat.BINARY) {
+            AtomicFileWriter.write(filePath, target -> {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target, IO_BUFFER_SIZE))) {
+                    BinarySnapshotCodec.write(portfolio, out);
+                }
+            });
+            return;
+        }
 
-            List<String> symbols = portfolio.getAllAssetSymbols();
-            for (int i = 0; i < symbols.size(); i++) {
-                String symbol = symbols.get(i);
-                Asset asset = portfolio.getAsset(symbol);
-                if (asset != null) {
-                    AssetType assetType = asset.getAssetType();
+        if (format == SnapshotFormat.COMPRESSED) {
+            AtomicFileWriter.write(filePath, target -> {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        new GZIPOutputStream(target, IO_BUFFER_SIZE), IO_BUFFER_SIZE))) {
+                    CompressedSnapshotCodec.write(portfolio, out);
+                }
+            });
+            return;
+        }
 
-                    writer.write(ASSET_PREFIX + SEPARATOR + assetType.name() + SEPARATOR + symbol);
-                    writer.newLine();
+        AtomicFileWriter.write(filePath, target -> {
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), IO_BUFFER_SIZE)) {
+                writeText(portfolio, writer);
+            }
+        });
+    }
 
-                    List<PurchaseLot> lots = portfolio.getPurchaseLots(symbol);
-                    for (int j = 0; j < lots.size(); j++) {
-                        PurchaseLot lot = lots.get(j);
-                        writer.write(LOT_PREFIX + SEPARATOR + 
-                            lot.getPurchaseDate().format(DATE_FORMATTER) + SEPARATOR + 
-                            lot.getQuantity() + SEPARATOR + 
-                            lot.getUnitPrice());
-                        writer.newLine();
-                    }
+    private void writeText(Portfolio portfolio, BufferedWriter writer) throws IOException {
+        writer.write(HEADER_PREFIX + SEPARATOR + CASH_KEY + SEPARATOR + portfolio.getCash());
+        writer.newLine();
+
+        List<String> symbols = portfolio.getAllAssetSymbols();
+        for (int i = 0; i < symbols.size(); i++) {
+            String symbol = symbols.get(i);
+            Asset asset = portfolio.getAsset(symbol);
+            if (asset != null) {
+                AssetType assetType = asset.getAssetType();
+
+                writer.write(ASSET_PREFIX + SEPARATOR + assetType.name() + SEPARATOR + symbol);
+                writer.newLine();
+
+                PurchaseLotView lots = portfolio.getPurchaseLots(symbol);
+                for (int j = 0; j < lots.size(); j++) {
+                    writer.write(LOT_PREFIX + SEPARATOR + 
+                        LocalDate.ofEpochDay(lots.getEpochDay(j)).format(DATE_FORMATTER) + SEPARATOR + 
+                        lots.getQuantity(j) + SEPARATOR + 
+                        lots.getUnitPrice(j));
+                    writer.newLine();
                 }
             }
         }
     }
 
     public Portfolio loadPortfolio(Path filePath) throws IOException {
+        return loadPortfolio(filePath, ValidationMode.FULL);
+    }
+
+    public Portfolio loadPortfolio(Path filePath, ValidationMode validationMode) throws IOException {
+        if (validationMode == null) {
+            throw new IllegalArgumentException("Tryb walidacji nie może być null");
+        }
         if (filePath == null) {
             throw new IllegalArgumentException("Ścieżka pliku nie może być null");
         }
@@ -71,184 +133,72 @@ public class PortfolioPersistence {
             throw new IOException("Plik nie istnieje: " + filePath);
         }
 
-        try (BufferedReader reader = Files.newBufferedReader(filePath)) {
-            String line = reader.readLine();
-            if (line == null) {
-                throw new DataIntegrityException("Plik jest pusty");
+        try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(filePath), IO_BUFFER_SIZE)) {
+            SnapshotFormat format = detectFormat(in);
+            if (format == SnapshotFormat.BINARY) {
+                return BinarySnapshotCodec.read(new DataInputStream(in), validationMode == ValidationMode.CHECKSUM,
+                    assetRegistry);
             }
-
-            double cash = parseHeader(line);
-            Portfolio portfolio = new Portfolio(cash);
-
-            String currentAssetLine = null;
-            AssetType currentAssetType = null;
-            String currentSymbol = null;
-            List<PurchaseLot> currentLots = new ArrayList<>();
-            int expectedQuantity = 0;
-
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) {
-                    continue;
-                }
-
-                String[] parts = line.split("\\s*\\|\\s*");
-                if (parts.length < 2) {
-                    throw new DataIntegrityException("Nieprawidłowy format linii: " + line);
-                }
-
-                String prefix = parts[0].trim();
-
-                if (ASSET_PREFIX.equals(prefix)) {
-                    if (currentAssetType != null && !currentLots.isEmpty()) {
-                        double firstLotPrice = currentLots.get(0).getUnitPrice();
-                        Asset asset = createAssetWithPrice(currentAssetType, currentSymbol, firstLotPrice);
-                        validateAndAddAsset(portfolio, asset, currentLots, expectedQuantity);
-                    }
-
-                    if (parts.length != 3) {
-                        throw new DataIntegrityException("Nieprawidłowy format linii ASSET: " + line);
-                    }
-
-                    currentAssetLine = line;
-                    currentAssetType = parseAssetType(parts);
-                    currentSymbol = parts[2].trim();
-                    currentLots = new ArrayList<>();
-                    expectedQuantity = 0;
-                } else if (LOT_PREFIX.equals(prefix)) {
-                    if (currentAssetType == null) {
-                        throw new DataIntegrityException("LOT bez poprzedzającego ASSET: " + line);
-                    }
-
-                    if (parts.length != 4) {
-                        throw new DataIntegrityException("Nieprawidłowy format linii LOT: " + line);
-                    }
-
-                    PurchaseLot lot = parseLot(parts);
-                    currentLots.add(lot);
-                    expectedQuantity += lot.getQuantity();
-                } else {
-                    throw new DataIntegrityException("Nieznany prefiks: " + prefix);
-                }
-            }
-
-            if (currentAssetType != null && !currentLots.isEmpty()) {
-                double firstLotPrice = currentLots.get(0).getUnitPrice();
-                Asset asset = createAssetWithPrice(currentAssetType, currentSymbol, firstLotPrice);
-                validateAndAddAsset(portfolio, asset, currentLots, expectedQuantity);
+            if (format == SnapshotFormat.COMPRESSED) {
+                return CompressedSnapshotCodec.read(new DataInputStream(
+                    new BufferedInputStream(new GZIPInputStream(in, IO_BUFFER_SIZE), IO_BUFFER_SIZE)), assetRegistry);
             }
-
-            return portfolio;
-        } catch (DateTimeParseException e) {
-            throw new DataIntegrityException("Błąd parsowania daty: " + e.getMessage());
-        } catch (NumberFormatException e) {
-            throw new DataIntegrityException("Błąd parsowania liczby: " + e.getMessage());
+            return TextSnapshotParser.parse(new InputStreamReader(in, StandardCharsets.UTF_8), assetRegistry);
         }
     }
 
-    private double parseHeader(String line) {
-        String[] parts = line.split("\\s*\\|\\s*");
-        if (parts.length != 3) {
-            throw new DataIntegrityException("Nieprawidłowy format HEADER: " + line);
-        }
-        if (!HEADER_PREFIX.equals(parts[0].trim())) {
-            throw new DataIntegrityException("Oczekiwano HEADER, otrzymano: " + parts[0]);
-        }
-        if (!CASH_KEY.equals(parts[1].trim())) {
-            throw new DataIntegrityException("Oczekiwano CASH, otrzymano: " + parts[1]);
-        }
-
-        try {
-            double cash = Double.parseDouble(parts[2].trim());
-            if (cash < 0) {
-                throw new DataIntegrityException("Gotówka nie może być ujemna: " + cash);
-            }
-            return cash;
-        } catch (NumberFormatException e) {
-            throw new DataIntegrityException("Nieprawidłowa wartość gotówki: " + parts[2]);
-        }
+    public Portfolio loadPortfolioMapped(Path filePath) throws IOException {
+        return loadPortfolioMapped(filePath, MappedSnapshotReader.DEFAULT_WINDOW_SIZE);
     }
 
-    private AssetType parseAssetType(String[] parts) {
-        String assetTypeStr = parts[1].trim();
-        try {
-            return AssetType.valueOf(assetTypeStr);
-        } catch (IllegalArgumentException e) {
-            throw new DataIntegrityException("Nieznany typ aktywa: " + assetTypeStr);
+    Portfolio loadPortfolioMapped(Path filePath, long windowSize) throws IOException {
+        if (filePath == null) {
+            throw new IllegalArgumentException("Ścieżka pliku nie może być null");
         }
-    }
-
-    private PurchaseLot parseLot(String[] parts) {
-        String dateStr = parts[1].trim();
-        String quantityStr = parts[2].trim();
-        String priceStr = parts[3].trim();
-
-        LocalDate date;
-        try {
-            date = LocalDate.parse(dateStr, DATE_FORMATTER);
-        } catch (DateTimeParseException e) {
-            throw new DataIntegrityException("Nieprawidłowy format daty: " + dateStr);
+        if (!Files.exists(filePath)) {
+            throw new IOException("Plik nie istnieje: " + filePath);
         }
 
-        int quantity;
-        try {
-            quantity = Integer.parseInt(quantityStr);
-            if (quantity <= 0) {
-                throw new DataIntegrityException("Ilość musi być większa od zera: " + quantity);
-            }
-        } catch (NumberFormatException e) {
-            throw new DataIntegrityException("Nieprawidłowa ilość: " + quantityStr);
+        boolean binary;
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            binary = MappedSnapshotReader.isBinarySnapshot(channel);
         }
-
-        double price;
-        try {
-            price = Double.parseDouble(priceStr);
-            if (price <= 0) {
-                throw new DataIntegrityException("Cena musi być większa od zera: " + price);
-            }
-        } catch (NumberFormatException e) {
-            throw new DataIntegrityException("Nieprawidłowa cena: " + priceStr);
+        if (!binary) {
+            return loadPortfolio(filePath);
         }
-
-        return new PurchaseLot(date, price, quantity);
+        return MappedSnapshotReader.read(filePath, windowSize, assetRegistry);
     }
 
-    private void validateAndAddAsset(Portfolio portfolio, Asset asset, List<PurchaseLot> lots, int expectedQuantity) {
-        if (lots.isEmpty()) {
-            throw new DataIntegrityException("Asset bez partii zakupowych");
+    public SnapshotFormat detectFormat(Path filePath) throws IOException {
+        if (filePath == null) {
+            throw new IllegalArgumentException("Ścieżka pliku nie może być null");
         }
 
-        int actualQuantity = 0;
-        for (int i = 0; i < lots.size(); i++) {
-            actualQuantity += lots.get(i).getQuantity();
+        try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(filePath))) {
+            return detectFormat(in);
         }
+    }
 
-        if (actualQuantity != expectedQuantity) {
-            throw new DataIntegrityException("Niezgodność ilości: oczekiwano " + expectedQuantity + ", otrzymano " + actualQuantity);
+    private SnapshotFormat detectFormat(BufferedInputStream in) throws IOException {
+        in.mark(4);
+        int magic = 0;
+        int length = 0;
+        while (length < 4) {
+            int b = in.read();
+            if (b == -1) {
+                break;
+            }
+            magic = (magic << 8) | b;
+            length++;
         }
+        in.reset();
 
-        for (int i = 0; i < lots.size(); i++) {
-            PurchaseLot lot = lots.get(i);
-            Asset assetCopy = asset.createCopy();
-            assetCopy.setMarketPrice(lot.getUnitPrice());
-            portfolio.addAsset(assetCopy, lot.getQuantity(), lot.getPurchaseDate());
+        if (length >= 2 && (magic >>> ((length - 2) * 8)) == CompressedSnapshotCodec.GZIP_MAGIC) {
+            return SnapshotFormat.COMPRESSED;
         }
-    }
-
-    private Asset createAssetWithPrice(AssetType assetType, String symbol, double marketPrice) {
-        switch (assetType) {
-            case SHARE:
-                return new Share(symbol, symbol, marketPrice);
-            case COMMODITY:
-                return new Commodity(symbol, symbol, marketPrice);
-            case CURRENCY:
-                double spread = marketPrice * 0.01;
-                if (spread >= marketPrice) {
-                    spread = marketPrice * 0.001;
-                }
-                return new Currency(symbol, symbol, marketPrice, spread);
-            default:
-                throw new DataIntegrityException("Nieobsługiwany typ aktywa: " + assetType);
+        if (length == 4 && magic == BinarySnapshotCodec.MAGIC) {
+            return SnapshotFormat.BINARY;
         }
+        return SnapshotFormat.TEXT;
     }
 }
@@ -0,0 +1,51 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.AssetRegistry;
+import com.stockmarket.domain.AssetType;
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.Currency;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+
+final class SnapshotAssembler {
+    private SnapshotAssembler() {
+    }
+
+    static Portfolio newPortfolio(double cash, AssetRegistry assetRegistry) {
+        if (assetRegistry == null) {
+            return new Portfolio(cash);
+        }
+        return new Portfolio(cash, assetRegistry);
+    }
+
+    static void validateAndAddAsset(Portfolio portfolio, Asset asset, LotBuffer lots) {
+        if (lots.isEmpty()) {
+            throw new DataIntegrityException("Asset bez partii zakupowych");
+        }
+
+        long totalQuantity = lots.getTotalQuantity();
+        if (totalQuantity > Integer.MAX_VALUE) {
+            throw new DataIntegrityException("Łączna ilość aktywa " + asset.getSymbol() + " przekracza zakres: " + totalQuantity);
+        }
+
+        lots.restoreInto(portfolio, asset);
+    }
+
+    static Asset createAssetWithPrice(AssetType assetType, String symbol, String name, double marketPrice) {
+        switch (assetType) {
+            case SHARE:
+                return new Share(symbol, name, marketPrice);
+            case COMMODITY:
+                return new Commodity(symbol, name, marketPrice);
+            case CURRENCY:
+                double spread = marketPrice * 0.01;
+                if (spread >= marketPrice) {
+                    spread = marketPrice * 0.001;
+                }
+                return new Currency(symbol, name, marketPrice, spread);
+            default:
+                throw new DataIntegrityException("Nieobsługiwany typ aktywa: " + assetType);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.stockmarket.persistence;
+
+public enum SnapshotFormat {
+    TEXT,
+    BINARY,
+    COMPRESSED
+}
@@ -0,0 +1,125 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.AssetType;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.logic.PurchaseLotView;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class SnapshotSegment {
+    private double cash;
+    private final Map<String, HoldingRecord> holdings;
+
+    static final class HoldingRecord {
+        private final String symbol;
+        private final String name;
+        private final AssetType assetType;
+        private final PurchaseLotView view;
+        private final LotBuffer lots;
+
+        HoldingRecord(String symbol, String name, AssetType assetType, PurchaseLotView view) {
+            this.symbol = symbol;
+            this.name = name;
+            this.assetType = assetType;
+            this.view = view;
+            this.lots = null;
+        }
+
+        HoldingRecord(String symbol, String name, AssetType assetType, LotBuffer lots) {
+            this.symbol = symbol;
+            this.name = name;
+            this.assetType = assetType;
+            this.view = null;
+            this.lots = lots;
+        }
+
+        String getSymbol() {
+            return symbol;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        AssetType getAssetType() {
+            return assetType;
+        }
+
+        int getLotCount() {
+            return lots != null ? lots.size() : view.size();
+        }
+
+        int getEpochDay(int index) {
+            return lots != null ? lots.getEpochDay(index) : (int) view.getEpochDay(index);
+        }
+
+        int getQuantity(int index) {
+            return lots != null ? lots.getQuantity(index) : view.getQuantity(index);
+        }
+
+        double getUnitPrice(int index) {
+            return lots != null ? lots.getUnitPrice(index) : view.getUnitPrice(index);
+        }
+
+        LotBuffer getLots() {
+            if (lots != null) {
+                return lots;
+            }
+            LotBuffer copy = new LotBuffer(view.size());
+            for (int i = 0; i < view.size(); i++) {
+                copy.add((int) view.getEpochDay(i), view.getUnitPrice(i), view.getQuantity(i));
+            }
+            return copy;
+        }
+
+        boolean isRemoved() {
+            return getLotCount() == 0;
+        }
+    }
+
+    SnapshotSegment(double cash) {
+        this.cash = cash;
+        this.holdings = new LinkedHashMap<>();
+    }
+
+    double getCash() {
+        return cash;
+    }
+
+    List<HoldingRecord> getHoldings() {
+        return new ArrayList<>(holdings.values());
+    }
+
+    void put(HoldingRecord record) {
+        holdings.put(record.getSymbol(), record);
+    }
+
+    void apply(SnapshotSegment delta) {
+        cash = delta.cash;
+        for (HoldingRecord record : delta.holdings.values()) {
+            if (record.isRemoved()) {
+                holdings.remove(record.getSymbol());
+            } else {
+                holdings.put(record.getSymbol(), record);
+            }
+        }
+    }
+
+    Portfolio toPortfolio() {
+        Portfolio portfolio = new Portfolio(cash);
+        for (HoldingRecord record : holdings.values()) {
+            LotBuffer lots = record.getLots();
+            if (lots.isEmpty()) {
+                throw new DataIntegrityException("Asset bez partii zakupowych");
+            }
+            Asset asset = SnapshotAssembler.createAssetWithPrice(record.getAssetType(), record.getSymbol(),
+                record.getName(), lots.getUnitPrice(0));
+            SnapshotAssembler.validateAndAddAsset(portfolio, asset, lots);
+        }
+        return portfolio;
+    }
+}
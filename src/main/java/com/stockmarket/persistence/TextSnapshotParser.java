@@ -0,0 +1,455 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.AssetRegistry;
+import com.stockmarket.domain.AssetType;
+import com.stockmarket.logic.Portfolio;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+final class TextSnapshotParser {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final char[] HEADER_PREFIX = "HEADER".toCharArray();
+    private static final char[] ASSET_PREFIX = "ASSET".toCharArray();
+    private static final char[] LOT_PREFIX = "LOT".toCharArray();
+    private static final char[] CASH_KEY = "CASH".toCharArray();
+    private static final AssetType[] ASSET_TYPES = AssetType.values();
+
+    private final Reader reader;
+    private final AssetRegistry assetRegistry;
+    private final char[] buffer;
+    private int bufferPosition;
+    private int bufferLimit;
+    private boolean skipLineFeed;
+
+    private char[] line;
+    private int lineLength;
+    private int lineStart;
+    private int lineEnd;
+
+    private int[] tokenStart;
+    private int[] tokenEnd;
+    private int tokenCount;
+
+    private TextSnapshotParser(Reader reader, AssetRegistry assetRegistry) {
+        this.reader = reader;
+        this.assetRegistry = assetRegistry;
+        this.buffer = new char[BUFFER_SIZE];
+        this.line = new char[256];
+        this.tokenStart = new int[8];
+        this.tokenEnd = new int[8];
+    }
+
+    static Portfolio parse(Reader reader) throws IOException {
+        return parse(reader, null);
+    }
+
+    static Portfolio parse(Reader reader, AssetRegistry assetRegistry) throws IOException {
+        return new TextSnapshotParser(reader, assetRegistry).parsePortfolio();
+    }
+
+    private Portfolio parsePortfolio() throws IOException {
+        if (!readLine()) {
+            throw new DataIntegrityException("Plik jest pusty");
+        }
+
+        lineStart = 0;
+        lineEnd = lineLength;
+        Portfolio portfolio = SnapshotAssembler.newPortfolio(parseHeader(), assetRegistry);
+
+        AssetType currentAssetType = null;
+        String currentSymbol = null;
+        LotBuffer currentLots = new LotBuffer(16);
+
+        while (readLine()) {
+            trimLine();
+            if (lineStart == lineEnd) {
+                continue;
+            }
+
+            tokenize();
+            if (tokenCount < 2) {
+                throw new DataIntegrityException("Nieprawidłowy format linii: " + lineText());
+            }
+
+            if (tokenEquals(0, ASSET_PREFIX)) {
+                if (currentAssetType != null) {
+                    addHolding(portfolio, currentAssetType, currentSymbol, currentLots);
+                }
+
+                if (tokenCount != 3) {
+                    throw new DataIntegrityException("Nieprawidłowy format linii ASSET: " + lineText());
+                }
+
+                currentAssetType = parseAssetType(1);
+                currentSymbol = tokenText(2);
+                currentLots.clear();
+            } else if (tokenEquals(0, LOT_PREFIX)) {
+                if (currentAssetType == null) {
+                    throw new DataIntegrityException("LOT bez poprzedzającego ASSET: " + lineText());
+                }
+
+                if (tokenCount != 4) {
+                    throw new DataIntegrityException("Nieprawidłowy format linii LOT: " + lineText());
+                }
+
+                parseLot(currentLots);
+            } else {
+                throw new DataIntegrityException("Nieznany prefiks: " + tokenText(0));
+            }
+        }
+
+        if (currentAssetType != null) {
+            addHolding(portfolio, currentAssetType, currentSymbol, currentLots);
+        }
+
+        return portfolio;
+    }
+
+    private void addHolding(Portfolio portfolio, AssetType assetType, String symbol, LotBuffer lots) {
+        if (lots.isEmpty()) {
+            throw new DataIntegrityException("Asset bez partii zakupowych: " + symbol);
+        }
+        double firstLotPrice = lots.getUnitPrice(0);
+        Asset asset = SnapshotAssembler.createAssetWithPrice(assetType, symbol, symbol, firstLotPrice);
+        SnapshotAssembler.validateAndAddAsset(portfolio, asset, lots);
+    }
+
+    private double parseHeader() {
+        tokenize();
+        if (tokenCount != 3) {
+            throw new DataIntegrityException("Nieprawidłowy format HEADER: " + lineText());
+        }
+        if (!tokenEquals(0, HEADER_PREFIX)) {
+            throw new DataIntegrityException("Oczekiwano HEADER, otrzymano: " + tokenText(0));
+        }
+        if (!tokenEquals(1, CASH_KEY)) {
+            throw new DataIntegrityException("Oczekiwano CASH, otrzymano: " + tokenText(1));
+        }
+
+        double cash;
+        try {
+            cash = parseDouble(tokenStart[2], tokenEnd[2]);
+        } catch (NumberFormatException e) {
+            throw new DataIntegrityException("Nieprawidłowa wartość gotówki: " + tokenText(2));
+        }
+        if (cash < 0) {
+            throw new DataIntegrityException("Gotówka nie może być ujemna: " + cash);
+        }
+        return cash;
+    }
+
+    private AssetType parseAssetType(int token) {
+        for (int i = 0; i < ASSET_TYPES.length; i++) {
+            if (tokenEquals(token, ASSET_TYPES[i].name())) {
+                return ASSET_TYPES[i];
+            }
+        }
+        throw new DataIntegrityException("Nieznany typ aktywa: " + tokenText(token));
+    }
+
+    private void parseLot(LotBuffer lots) {
+        int epochDay = parseEpochDay(tokenStart[1], tokenEnd[1]);
+
+        int quantity;
+        try {
+            quantity = parseInt(tokenStart[2], tokenEnd[2]);
+        } catch (NumberFormatException e) {
+            throw new DataIntegrityException("Nieprawidłowa ilość: " + tokenText(2));
+        }
+        if (quantity <= 0) {
+            throw new DataIntegrityException("Ilość musi być większa od zera: " + quantity);
+        }
+
+        double price;
+        try {
+            price = parseDouble(tokenStart[3], tokenEnd[3]);
+        } catch (NumberFormatException e) {
+            throw new DataIntegrityException("Nieprawidłowa cena: " + tokenText(3));
+        }
+        if (price <= 0 || Double.isNaN(price) || Double.isInfinite(price)) {
+            throw new DataIntegrityException("Cena musi być większa od zera: " + price);
+        }
+
+        lots.add(epochDay, price, quantity);
+    }
+
+    private int parseEpochDay(int start, int end) {
+        if (end - start == 10 && line[start + 4] == '-' && line[start + 7] == '-') {
+            int year = digits(start, start + 4);
+            int month = digits(start + 5, start + 7);
+            int day = digits(start + 8, start + 10);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+                    throw new DataIntegrityException("Nieprawidłowy format daty: " + text(start, end));
+                }
+                return epochDay(year, month, day);
+            }
+        }
+
+        long epochDay;
+        try {
+            epochDay = LocalDate.parse(text(start, end), DateTimeFormatter.ISO_LOCAL_DATE).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new DataIntegrityException("Nieprawidłowy format daty: " + text(start, end));
+        }
+        if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+            throw new DataIntegrityException("Nieprawidłowy format daty: " + text(start, end));
+        }
+        return (int) epochDay;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private int digits(int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private int parseInt(int start, int end) {
+        int position = start;
+        boolean negative = false;
+        if (position < end && (line[position] == '-' || line[position] == '+')) {
+            negative = line[position] == '-';
+            position++;
+        }
+
+        int digitCount = end - position;
+        if (digitCount == 0 || digitCount > 9) {
+            return Integer.parseInt(text(start, end));
+        }
+        int value = digits(position, end);
+        if (value < 0) {
+            throw new NumberFormatException(text(start, end));
+        }
+        return negative ? -value : value;
+    }
+
+    private double parseDouble(int start, int end) {
+        int position = start;
+        boolean negative = false;
+        if (position < end && (line[position] == '-' || line[position] == '+')) {
+            negative = line[position] == '-';
+            position++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int digitCount = 0;
+        int exponent = 0;
+        boolean fast = true;
+
+        while (position < end && line[position] >= '0' && line[position] <= '9') {
+            if (mantissa != 0 || line[position] != '0') {
+                significantDigits++;
+            }
+            mantissa = mantissa * 10 + (line[position] - '0');
+            digitCount++;
+            position++;
+        }
+        if (position < end && line[position] == '.') {
+            position++;
+            while (position < end && line[position] >= '0' && line[position] <= '9') {
+                if (mantissa != 0 || line[position] != '0') {
+                    significantDigits++;
+                }
+                mantissa = mantissa * 10 + (line[position] - '0');
+                exponent--;
+                digitCount++;
+                position++;
+            }
+        }
+        if (digitCount == 0 || significantDigits > MAX_FAST_DIGITS) {
+            fast = false;
+        }
+        if (fast && position < end && (line[position] == 'e' || line[position] == 'E')) {
+            position++;
+            boolean negativeExponent = false;
+            if (position < end && (line[position] == '-' || line[position] == '+')) {
+                negativeExponent = line[position] == '-';
+                position++;
+            }
+            int exponentDigits = end - position;
+            int explicitExponent = exponentDigits > 0 && exponentDigits <= 3 ? digits(position, end) : -1;
+            if (explicitExponent < 0) {
+                fast = false;
+            } else {
+                exponent += negativeExponent ? -explicitExponent : explicitExponent;
+                position = end;
+            }
+        }
+        if (!fast || position != end || exponent < -22 || exponent > 22) {
+            return Double.parseDouble(text(start, end));
+        }
+
+        double value = (double) mantissa;
+        if (exponent < 0) {
+            value = value / POWERS_OF_TEN[-exponent];
+        } else {
+            value = value * POWERS_OF_TEN[exponent];
+        }
+        return negative ? -value : value;
+    }
+
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        while (true) {
+            if (bufferPosition == bufferLimit) {
+                bufferLimit = reader.read(buffer, 0, buffer.length);
+                bufferPosition = 0;
+                if (bufferLimit <= 0) {
+                    bufferLimit = 0;
+                    return lineLength > 0;
+                }
+            }
+
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[bufferPosition] == '\n') {
+                    bufferPosition++;
+                    continue;
+                }
+            }
+
+            int start = bufferPosition;
+            while (bufferPosition < bufferLimit) {
+                char c = buffer[bufferPosition];
+                if (c == '\n' || c == '\r') {
+                    append(start, bufferPosition);
+                    bufferPosition++;
+                    skipLineFeed = c == '\r';
+                    return true;
+                }
+                bufferPosition++;
+            }
+            append(start, bufferPosition);
+        }
+    }
+
+    private void append(int start, int end) {
+        int count = end - start;
+        if (lineLength + count > line.length) {
+            char[] grown = new char[Math.max(line.length * 2, lineLength + count)];
+            System.arraycopy(line, 0, grown, 0, lineLength);
+            line = grown;
+        }
+        System.arraycopy(buffer, start, line, lineLength, count);
+        lineLength += count;
+    }
+
+    private void trimLine() {
+        lineStart = 0;
+        lineEnd = lineLength;
+        while (lineStart < lineEnd && line[lineStart] <= ' ') {
+            lineStart++;
+        }
+        while (lineEnd > lineStart && line[lineEnd - 1] <= ' ') {
+            lineEnd--;
+        }
+    }
+
+    private void tokenize() {
+        tokenCount = 0;
+        int start = lineStart;
+        for (int i = lineStart; i < lineEnd; i++) {
+            if (line[i] == '|') {
+                addToken(start, i);
+                start = i + 1;
+            }
+        }
+        addToken(start, lineEnd);
+
+        while (tokenCount > 0 && tokenStart[tokenCount - 1] == tokenEnd[tokenCount - 1]) {
+            tokenCount--;
+        }
+    }
+
+    private void addToken(int start, int end) {
+        while (start < end && line[start] <= ' ') {
+            start++;
+        }
+        while (end > start && line[end - 1] <= ' ') {
+            end--;
+        }
+        if (tokenCount == tokenStart.length) {
+            int[] grownStart = new int[tokenCount * 2];
+            int[] grownEnd = new int[tokenCount * 2];
+            System.arraycopy(tokenStart, 0, grownStart, 0, tokenCount);
+            System.arraycopy(tokenEnd, 0, grownEnd, 0, tokenCount);
+            tokenStart = grownStart;
+            tokenEnd = grownEnd;
+        }
+        tokenStart[tokenCount] = start;
+        tokenEnd[tokenCount] = end;
+        tokenCount++;
+    }
+
+    private boolean tokenEquals(int token, char[] expected) {
+        int start = tokenStart[token];
+        if (tokenEnd[token] - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (line[start + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean tokenEquals(int token, String expected) {
+        int start = tokenStart[token];
+        if (tokenEnd[token] - start != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (line[start + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String tokenText(int token) {
+        return text(tokenStart[token], tokenEnd[token]);
+    }
+
+    private String lineText() {
+        return text(lineStart, lineEnd);
+    }
+
+    private String text(int start, int end) {
+        return new String(line, start, end - start);
+    }
+}
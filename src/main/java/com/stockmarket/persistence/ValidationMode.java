@@ -0,0 +1,6 @@
+package com.stockmarket.persistence;
+
+public enum ValidationMode {
+    FULL,
+    CHECKSUM
+}
@@ -0,0 +1,90 @@
+package com.stockmarket.reporting;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+final class FixedPointFormatter {
+    private static final double FAST_PATH_LIMIT = 1.0E13;
+    private static final double TIE_MARGIN_ULPS = 128.0;
+
+    private final char decimalSeparator;
+    private final char[] digits;
+
+    FixedPointFormatter(Locale locale) {
+        this.decimalSeparator = DecimalFormatSymbols.getInstance(locale).getDecimalSeparator();
+        this.digits = new char[24];
+    }
+
+    void appendTwoDecimals(Appendable out, double value) throws IOException {
+        if (Double.isNaN(value)) {
+            out.append("NaN");
+            return;
+        }
+        if (Double.isInfinite(value)) {
+            out.append(value > 0 ? "Infinity" : "-Infinity");
+            return;
+        }
+
+        double magnitude = Math.abs(value);
+        if (magnitude >= FAST_PATH_LIMIT) {
+            appendExact(out, value, magnitude);
+            return;
+        }
+
+        double scaled = magnitude * 100.0;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5) <= TIE_MARGIN_ULPS * Math.ulp(magnitude)) {
+            appendExact(out, value, magnitude);
+            return;
+        }
+        long cents = (long) floor;
+        if (fraction > 0.5) {
+            cents++;
+        }
+
+        int position = digits.length;
+        position--;
+        digits[position] = (char) ('0' + cents % 10);
+        cents /= 10;
+        position--;
+        digits[position] = (char) ('0' + cents % 10);
+        cents /= 10;
+        position--;
+        digits[position] = decimalSeparator;
+        do {
+            position--;
+            digits[position] = (char) ('0' + cents % 10);
+            cents /= 10;
+        } while (cents > 0);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            position--;
+            digits[position] = '-';
+        }
+        write(out, position);
+    }
+
+    private void appendExact(Appendable out, double value, double magnitude) throws IOException {
+        if (Double.doubleToRawLongBits(value) < 0) {
+            out.append('-');
+        }
+        String rounded = new BigDecimal(Double.toString(magnitude)).setScale(2, RoundingMode.HALF_UP).toPlainString();
+        out.append(rounded.replace('.', decimalSeparator));
+    }
+
+    private void write(Appendable out, int position) throws IOException {
+        if (out instanceof Writer) {
+            ((Writer) out).write(digits, position, digits.length - position);
+        } else if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(digits, position, digits.length - position);
+        } else {
+            for (int i = position; i < digits.length; i++) {
+                out.append(digits[i]);
+            }
+        }
+    }
+}
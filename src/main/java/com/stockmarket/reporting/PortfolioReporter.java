@@ -4,9 +4,19 @@ import com.stockmarket.domain.Asset;
 import com.stockmarket.domain.AssetType;
 import com.stockmarket.logic.Portfolio;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class PortfolioReporter {
     private final Portfolio portfolio;
@@ -20,9 +30,30 @@ public class PortfolioReporter {
 
     public String generateReport() {
         StringBuilder report = new StringBuilder();
-        report.append("=== RAPORT PORTFELA ===\n");
-        report.append("Gotówka: ").append(String.format("%.2f", portfolio.getCash())).append("\n");
-        report.append("Wartość całkowita: ").append(String.format("%.2f", portfolio.auditPortfolio())).append("\n\n");
+        try {
+            writeReport(report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Nie można wygenerować raportu", e);
+        }
+        return report.toString();
+    }
+
+    public void writeReport(OutputStream out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("Strumień wyjściowy nie może być null");
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeReport(writer);
+        writer.flush();
+    }
+
+    public void writeReport(Appendable out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("Cel raportu nie może być null");
+        }
+
+        FixedPointFormatter numbers = new FixedPointFormatter(Locale.getDefault(Locale.Category.FORMAT));
+        writeHeader(out, numbers);
 
         List<AssetReportEntry> entries = new ArrayList<>();
         List<String> symbols = portfolio.getAllAssetSymbols();
@@ -39,22 +70,233 @@ public class PortfolioReporter {
 
         entries.sort(new AssetReportComparator());
 
-        report.append("Aktywa (posortowane: Typ -> Wartość malejąco):\n");
-        report.append("----------------------------------------\n");
+        out.append("Aktywa (posortowane: Typ -> Wartość malejąco):\n");
+        out.append("----------------------------------------\n");
 
         for (int i = 0; i < entries.size(); i++) {
             AssetReportEntry entry = entries.get(i);
-            Asset asset = entry.getAsset();
-            double marketValue = entry.getMarketValue();
+            writeRow(out, numbers, entry.getAsset(), entry.getMarketValue());
+        }
+    }
 
-            report.append(String.format("%s (%s): %s - Wartość: %.2f\n",
-                asset.getSymbol(),
-                asset.getAssetType().name(),
-                asset.getName(),
-                marketValue));
+    public List<PositionSummary> getTopPositions(AssetType assetType, int limit) {
+        if (assetType == null) {
+            throw new IllegalArgumentException("Typ aktywa nie może być null");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit pozycji nie może być ujemny");
         }
+        return collectTop(assetType, limit)[assetType.ordinal()].toRankedList();
+    }
 
-        return report.toString();
+    public Map<AssetType, List<PositionSummary>> getTopPositionsByType(int limitPerType) {
+        if (limitPerType < 0) {
+            throw new IllegalArgumentException("Limit pozycji nie może być ujemny");
+        }
+
+        BoundedPositionHeap[] heaps = collectTop(null, limitPerType);
+        AssetType[] types = AssetType.values();
+        Map<AssetType, List<PositionSummary>> result = new LinkedHashMap<>();
+        for (int i = 0; i < types.length; i++) {
+            result.put(types[i], heaps[i].toRankedList());
+        }
+        return result;
+    }
+
+    public List<PositionSummary> getPositionsPage(AssetType assetType, int pageIndex, int pageSize) {
+        if (assetType == null) {
+            throw new IllegalArgumentException("Typ aktywa nie może być null");
+        }
+        if (pageIndex < 0) {
+            throw new IllegalArgumentException("Numer strony nie może być ujemny");
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Rozmiar strony musi być większy od zera");
+        }
+
+        long pageStart = (long) pageIndex * pageSize;
+        if (pageStart >= portfolio.getHoldingsCount()) {
+            return new ArrayList<>();
+        }
+        int needed = (int) Math.min(pageStart + pageSize, portfolio.getHoldingsCount());
+        List<PositionSummary> ranked = collectTop(assetType, needed)[assetType.ordinal()].toRankedList();
+        List<PositionSummary> page = new ArrayList<>(pageSize);
+        for (int i = (int) pageStart; i < ranked.size(); i++) {
+            page.add(ranked.get(i));
+        }
+        return page;
+    }
+
+    public void writeTopReport(Appendable out, int limitPerType) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("Cel raportu nie może być null");
+        }
+        if (limitPerType < 0) {
+            throw new IllegalArgumentException("Limit pozycji nie może być ujemny");
+        }
+
+        FixedPointFormatter numbers = new FixedPointFormatter(Locale.getDefault(Locale.Category.FORMAT));
+        writeHeader(out, numbers);
+
+        BoundedPositionHeap[] heaps = collectTop(null, limitPerType);
+        AssetType[] types = AssetType.values();
+        for (int t = 0; t < types.length; t++) {
+            List<PositionSummary> top = heaps[t].toRankedList();
+            if (top.isEmpty()) {
+                continue;
+            }
+            out.append(types[t].name()).append(" (top ").append(String.valueOf(limitPerType)).append("):\n");
+            out.append("----------------------------------------\n");
+            for (int i = 0; i < top.size(); i++) {
+                PositionSummary position = top.get(i);
+                writeRow(out, numbers, position.getAsset(), position.getMarketValue());
+            }
+        }
+    }
+
+    private BoundedPositionHeap[] collectTop(AssetType onlyType, int limit) {
+        AssetType[] types = AssetType.values();
+        BoundedPositionHeap[] heaps = new BoundedPositionHeap[types.length];
+        for (int i = 0; i < types.length; i++) {
+            heaps[i] = new BoundedPositionHeap(onlyType == null || onlyType == types[i] ? limit : 0);
+        }
+
+        List<String> symbols = portfolio.getAllAssetSymbols();
+        for (int i = 0; i < symbols.size(); i++) {
+            String symbol = symbols.get(i);
+            Asset asset = portfolio.getAsset(symbol);
+            if (asset == null) {
+                continue;
+            }
+            BoundedPositionHeap heap = heaps[asset.getAssetType().ordinal()];
+            if (heap.getCapacity() == 0) {
+                continue;
+            }
+            int quantity = portfolio.getAssetQuantity(symbol);
+            heap.offer(asset, quantity, asset.calculateRealValue(quantity));
+        }
+        return heaps;
+    }
+
+    private void writeHeader(Appendable out, FixedPointFormatter numbers) throws IOException {
+        out.append("=== RAPORT PORTFELA ===\n");
+        out.append("Gotówka: ");
+        numbers.appendTwoDecimals(out, portfolio.getCash());
+        out.append("\n");
+        out.append("Wartość całkowita: ");
+        numbers.appendTwoDecimals(out, portfolio.auditPortfolio());
+        out.append("\n\n");
+    }
+
+    private static void writeRow(Appendable out, FixedPointFormatter numbers, Asset asset, double marketValue)
+            throws IOException {
+        out.append(asset.getSymbol());
+        out.append(" (");
+        out.append(asset.getAssetType().name());
+        out.append("): ");
+        out.append(asset.getName());
+        out.append(" - Wartość: ");
+        numbers.appendTwoDecimals(out, marketValue);
+        out.append('\n');
+    }
+
+    private static int compareRank(double value1, String symbol1, double value2, String symbol2) {
+        int valueComparison = Double.compare(value2, value1);
+        if (valueComparison != 0) {
+            return valueComparison;
+        }
+        return symbol1.compareTo(symbol2);
+    }
+
+    private static class BoundedPositionHeap {
+        private final int capacity;
+        private PositionSummary[] heap;
+        private int size;
+
+        BoundedPositionHeap(int capacity) {
+            this.capacity = capacity;
+            this.heap = new PositionSummary[Math.min(capacity, 16)];
+            this.size = 0;
+        }
+
+        int getCapacity() {
+            return capacity;
+        }
+
+        void offer(Asset asset, int quantity, double marketValue) {
+            if (size < capacity) {
+                if (size == heap.length) {
+                    PositionSummary[] grown = new PositionSummary[(int) Math.min(capacity, heap.length * 2L)];
+                    System.arraycopy(heap, 0, grown, 0, size);
+                    heap = grown;
+                }
+                heap[size] = new PositionSummary(asset, quantity, marketValue);
+                siftUp(size);
+                size++;
+                return;
+            }
+
+            PositionSummary weakest = heap[0];
+            if (compareRank(marketValue, asset.getSymbol(), weakest.getMarketValue(), weakest.getSymbol()) < 0) {
+                heap[0] = new PositionSummary(asset, quantity, marketValue);
+                siftDown(0);
+            }
+        }
+
+        List<PositionSummary> toRankedList() {
+            PositionSummary[] ranked = new PositionSummary[size];
+            while (size > 0) {
+                ranked[size - 1] = heap[0];
+                size--;
+                heap[0] = heap[size];
+                heap[size] = null;
+                siftDown(0);
+            }
+
+            List<PositionSummary> result = new ArrayList<>(ranked.length);
+            for (int i = 0; i < ranked.length; i++) {
+                result.add(ranked[i]);
+            }
+            return result;
+        }
+
+        private boolean weaker(PositionSummary a, PositionSummary b) {
+            return compareRank(a.getMarketValue(), a.getSymbol(), b.getMarketValue(), b.getSymbol()) > 0;
+        }
+
+        private void siftUp(int position) {
+            PositionSummary entry = heap[position];
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (!weaker(entry, heap[parent])) {
+                    break;
+                }
+                heap[position] = heap[parent];
+                position = parent;
+            }
+            heap[position] = entry;
+        }
+
+        private void siftDown(int position) {
+            if (size == 0) {
+                return;
+            }
+            PositionSummary entry = heap[position];
+            int half = size >>> 1;
+            while (position < half) {
+                int child = 2 * position + 1;
+                int right = child + 1;
+                if (right < size && weaker(heap[right], heap[child])) {
+                    child = right;
+                }
+                if (!weaker(heap[child], entry)) {
+                    break;
+                }
+                heap[position] = heap[child];
+                position = child;
+            }
+            heap[position] = entry;
+        }
     }
 
     private static class AssetReportEntry {
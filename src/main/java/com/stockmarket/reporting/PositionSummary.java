@@ -0,0 +1,40 @@
+package com.stockmarket.reporting;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.AssetType;
+
+public class PositionSummary {
+    private final Asset asset;
+    private final int quantity;
+    private final double marketValue;
+
+    PositionSummary(Asset asset, int quantity, double marketValue) {
+        this.asset = asset;
+        this.quantity = quantity;
+        this.marketValue = marketValue;
+    }
+
+    public String getSymbol() {
+        return asset.getSymbol();
+    }
+
+    public String getName() {
+        return asset.getName();
+    }
+
+    public AssetType getAssetType() {
+        return asset.getAssetType();
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public double getMarketValue() {
+        return marketValue;
+    }
+
+    Asset getAsset() {
+        return asset;
+    }
+}
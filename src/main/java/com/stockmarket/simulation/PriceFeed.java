@@ -0,0 +1,71 @@
+package com.stockmarket.simulation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class PriceFeed {
+    private final String[] symbols;
+    private final Map<String, Integer> indexBySymbol;
+    private final AtomicLongArray prices;
+
+    public PriceFeed(String[] symbols, double[] initialPrices) {
+        if (symbols == null || initialPrices == null) {
+            throw new IllegalArgumentException("Symbole i ceny nie mogą być null");
+        }
+        if (symbols.length == 0 || symbols.length != initialPrices.length) {
+            throw new IllegalArgumentException("Liczba symboli musi być dodatnia i równa liczbie cen");
+        }
+
+        this.symbols = new String[symbols.length];
+        this.indexBySymbol = new HashMap<>();
+        this.prices = new AtomicLongArray(symbols.length);
+        for (int i = 0; i < symbols.length; i++) {
+            if (symbols[i] == null || symbols[i].trim().isEmpty()) {
+                throw new IllegalArgumentException("Symbol nie może być null ani pusty");
+            }
+            if (indexBySymbol.put(symbols[i], i) != null) {
+                throw new IllegalArgumentException("Zduplikowany symbol: " + symbols[i]);
+            }
+            validatePrice(initialPrices[i]);
+            this.symbols[i] = symbols[i];
+            prices.set(i, Double.doubleToRawLongBits(initialPrices[i]));
+        }
+    }
+
+    private static void validatePrice(double price) {
+        if (price <= 0 || Double.isNaN(price) || Double.isInfinite(price)) {
+            throw new IllegalArgumentException("Cena musi być skończoną liczbą większą od zera");
+        }
+    }
+
+    public int size() {
+        return symbols.length;
+    }
+
+    public String getSymbol(int index) {
+        return symbols[index];
+    }
+
+    public int indexOf(String symbol) {
+        Integer index = indexBySymbol.get(symbol);
+        return index == null ? -1 : index;
+    }
+
+    public double getPrice(int index) {
+        return Double.longBitsToDouble(prices.get(index));
+    }
+
+    public void setPrice(int index, double price) {
+        validatePrice(price);
+        prices.set(index, Double.doubleToRawLongBits(price));
+    }
+
+    public void setPrice(String symbol, double price) {
+        int index = indexOf(symbol);
+        if (index < 0) {
+            throw new IllegalArgumentException("Nieznany symbol: " + symbol);
+        }
+        setPrice(index, price);
+    }
+}
@@ -0,0 +1,65 @@
+package com.stockmarket.simulation;
+
+public class SimulationReport {
+    private final int accountCount;
+    private final long submittedOrders;
+    private final long processedOrders;
+    private final long fills;
+    private final int failedAccounts;
+    private final long elapsedNanos;
+    private final boolean virtualThreads;
+
+    public SimulationReport(int accountCount, long submittedOrders, long processedOrders, long fills,
+                            int failedAccounts, long elapsedNanos, boolean virtualThreads) {
+        this.accountCount = accountCount;
+        this.submittedOrders = submittedOrders;
+        this.processedOrders = processedOrders;
+        this.fills = fills;
+        this.failedAccounts = failedAccounts;
+        this.elapsedNanos = elapsedNanos;
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    public long getSubmittedOrders() {
+        return submittedOrders;
+    }
+
+    public long getProcessedOrders() {
+        return processedOrders;
+    }
+
+    public long getFills() {
+        return fills;
+    }
+
+    public int getFailedAccounts() {
+        return failedAccounts;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public double getOrdersPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0.0;
+        }
+        return processedOrders * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Konta: " + accountCount + ", zlecenia: " + processedOrders + "/" + submittedOrders
+            + ", transakcje: " + fills + ", błędy kont: " + failedAccounts
+            + ", czas: " + (elapsedNanos / 1_000_000) + " ms, " + (long) getOrdersPerSecond() + " zleceń/s"
+            + (virtualThreads ? " (wątki wirtualne)" : " (pula wątków platformy)");
+    }
+}
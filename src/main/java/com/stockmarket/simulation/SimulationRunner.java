@@ -0,0 +1,155 @@
+package com.stockmarket.simulation;
+
+import com.stockmarket.domain.Order;
+import com.stockmarket.domain.OrderType;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.matching.Fill;
+import com.stockmarket.matching.MatchingEngine;
+import com.stockmarket.matching.OrderIntake;
+import com.stockmarket.matching.WaitStrategies;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SimulationRunner {
+    private static final int RING_CAPACITY = 1 << 16;
+    private static final int FALLBACK_POOL_SIZE = 256;
+    private static final long CONSUMER_PARK_NANOS = 20_000;
+    private static final double LIMIT_SPREAD = 0.002;
+    private static final int MAX_ORDER_QUANTITY = 5;
+    private static final Method VIRTUAL_EXECUTOR_FACTORY = findVirtualExecutorFactory();
+
+    private final int ordersPerAccount;
+    private final long thinkTimeMillis;
+    private final LocalDate tradeDate;
+
+    public SimulationRunner(int ordersPerAccount, long thinkTimeMillis, LocalDate tradeDate) {
+        if (ordersPerAccount <= 0) {
+            throw new IllegalArgumentException("Liczba zleceń na konto musi być większa od zera");
+        }
+        if (thinkTimeMillis < 0) {
+            throw new IllegalArgumentException("Czas namysłu nie może być ujemny");
+        }
+        if (tradeDate == null) {
+            throw new IllegalArgumentException("Data transakcji nie może być null");
+        }
+        this.ordersPerAccount = ordersPerAccount;
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.tradeDate = tradeDate;
+    }
+
+    private static Method findVirtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_EXECUTOR_FACTORY != null;
+    }
+
+    static ExecutorService newAccountExecutor() {
+        if (VIRTUAL_EXECUTOR_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Nie można utworzyć wykonawcy wątków wirtualnych", e);
+            }
+        }
+        return Executors.newFixedThreadPool(FALLBACK_POOL_SIZE);
+    }
+
+    public SimulationReport run(PriceFeed feed, List<Portfolio> accounts) throws InterruptedException {
+        if (feed == null) {
+            throw new IllegalArgumentException("Kanał cen nie może być null");
+        }
+        if (accounts == null || accounts.isEmpty()) {
+            throw new IllegalArgumentException("Lista kont nie może być null ani pusta");
+        }
+
+        LongAdder submitted = new LongAdder();
+        LongAdder fills = new LongAdder();
+        AtomicInteger failedAccounts = new AtomicInteger();
+        OrderIntake intake = new OrderIntake(new MatchingEngine(), RING_CAPACITY,
+            WaitStrategies.parking(CONSUMER_PARK_NANOS), fill -> onFill(feed, fills, fill));
+        ExecutorService executor = newAccountExecutor();
+
+        long start = System.nanoTime();
+        intake.start();
+        try {
+            for (int i = 0; i < accounts.size(); i++) {
+                Portfolio account = accounts.get(i);
+                long seed = i;
+                executor.execute(() -> {
+                    try {
+                        runAccount(account, feed, intake, new Random(seed), submitted);
+                    } catch (InterruptedException e) {
+                        failedAccounts.incrementAndGet();
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        failedAccounts.incrementAndGet();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } finally {
+                intake.close();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new SimulationReport(accounts.size(), submitted.sum(), intake.getProcessedCount(), fills.sum(),
+            failedAccounts.get(), elapsed, isVirtualThreadSupported());
+    }
+
+    private static void onFill(PriceFeed feed, LongAdder fills, Fill fill) {
+        fills.increment();
+        int index = feed.indexOf(fill.getAssetSymbol());
+        if (index >= 0) {
+            feed.setPrice(index, fill.getPrice());
+        }
+    }
+
+    private void runAccount(Portfolio account, PriceFeed feed, OrderIntake intake, Random random, LongAdder submitted)
+            throws InterruptedException {
+        for (int i = 0; i < ordersPerAccount; i++) {
+            int symbolIndex = random.nextInt(feed.size());
+            String symbol = feed.getSymbol(symbolIndex);
+            double price = feed.getPrice(symbolIndex);
+            Order order;
+
+            synchronized (account) {
+                int held = account.getAssetQuantity(symbol);
+                boolean sell = held > 0 && random.nextBoolean();
+                int quantity = 1 + random.nextInt(MAX_ORDER_QUANTITY);
+                if (sell) {
+                    quantity = Math.min(quantity, held);
+                }
+                double limitPrice = roundToCents(sell ? price * (1.0 - LIMIT_SPREAD) : price * (1.0 + LIMIT_SPREAD));
+                order = new Order(symbol, sell ? OrderType.SELL : OrderType.BUY, quantity, limitPrice, price);
+            }
+
+            intake.submit(order, account, tradeDate);
+            submitted.increment();
+            if (thinkTimeMillis > 0) {
+                Thread.sleep(thinkTimeMillis);
+            }
+        }
+    }
+
+    private static double roundToCents(double price) {
+        return Math.max(0.01, Math.round(price * 100.0) / 100.0);
+    }
+}
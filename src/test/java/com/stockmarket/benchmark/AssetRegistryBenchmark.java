@@ -0,0 +1,73 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.AssetRegistry;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+
+import java.time.LocalDate;
+
+public class AssetRegistryBenchmark {
+    private static final int ACCOUNT_COUNT = 10_000;
+    private static final int HOLDINGS_PER_ACCOUNT = 50;
+    private static final int SYMBOL_COUNT = 2_000;
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 2);
+
+    public static void main(String[] args) {
+        Share[] shares = new Share[SYMBOL_COUNT];
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            shares[i] = new Share("S" + i, "Spółka " + i, 10.0 + i % 100);
+        }
+        System.out.println(ACCOUNT_COUNT + " portfeli po " + HOLDINGS_PER_ACCOUNT + " pozycji z "
+            + SYMBOL_COUNT + " symboli:");
+        run("kopie", shares, null);
+        run("rejestr", shares, new AssetRegistry());
+    }
+
+    private static void run(String label, Share[] shares, AssetRegistry registry) {
+        long baseline = usedMemory();
+        long start = System.nanoTime();
+        Portfolio[] portfolios = new Portfolio[ACCOUNT_COUNT];
+        for (int a = 0; a < ACCOUNT_COUNT; a++) {
+            portfolios[a] = registry == null ? new Portfolio(1.0E9) : new Portfolio(1.0E9, registry);
+            for (int h = 0; h < HOLDINGS_PER_ACCOUNT; h++) {
+                portfolios[a].addAsset(shares[(a * 7 + h * 13) % SYMBOL_COUNT], 1 + h % 5, DATE);
+            }
+        }
+        long buildNanos = System.nanoTime() - start;
+        long heapBytes = usedMemory() - baseline;
+
+        start = System.nanoTime();
+        int writes = 0;
+        for (int a = 0; a < ACCOUNT_COUNT; a++) {
+            for (int h = 0; h < HOLDINGS_PER_ACCOUNT; h++) {
+                String symbol = shares[(a * 7 + h * 13) % SYMBOL_COUNT].getSymbol();
+                if (registry == null) {
+                    portfolios[a].getAsset(symbol).setMarketPrice(11.0 + h);
+                    writes++;
+                }
+            }
+        }
+        if (registry != null) {
+            for (int i = 0; i < SYMBOL_COUNT; i++) {
+                registry.get(shares[i].getSymbol()).setMarketPrice(11.0 + i % 50);
+                writes++;
+            }
+        }
+        long repriceNanos = System.nanoTime() - start;
+
+        System.out.println("  " + label + ": sterta " + (heapBytes / (1024 * 1024)) + " MB, budowa "
+            + (buildNanos / 1_000_000) + " ms, przecena " + writes + " zapisów w "
+            + (repriceNanos / 1_000_000) + " ms");
+        if (portfolios[0].getNetAssetValue() <= 0.0) {
+            System.out.println();
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
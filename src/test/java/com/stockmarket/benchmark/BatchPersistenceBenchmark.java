@@ -0,0 +1,91 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.persistence.BatchReport;
+import com.stockmarket.persistence.PortfolioBatchPersistence;
+import com.stockmarket.persistence.PortfolioPersistence;
+import com.stockmarket.persistence.SnapshotFormat;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class BatchPersistenceBenchmark {
+    private static final int PORTFOLIO_COUNT = 2_000;
+    private static final int LOTS_PER_PORTFOLIO = 500;
+
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path workDir = Files.createTempDirectory("batch-bench");
+        try {
+            Map<Path, Portfolio> portfolios = createPortfolios(workDir);
+            PortfolioPersistence persistence = new PortfolioPersistence();
+
+            long start = System.nanoTime();
+            for (Map.Entry<Path, Portfolio> entry : portfolios.entrySet()) {
+                persistence.savePortfolio(entry.getValue(), entry.getKey(), SnapshotFormat.TEXT);
+            }
+            long sequentialSave = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (Path filePath : portfolios.keySet()) {
+                persistence.loadPortfolio(filePath);
+            }
+            long sequentialLoad = System.nanoTime() - start;
+
+            long parallelSave;
+            long parallelLoad;
+            try (PortfolioBatchPersistence batch = new PortfolioBatchPersistence(threads, threads * 4)) {
+                start = System.nanoTime();
+                BatchReport saveReport = batch.saveAll(portfolios, SnapshotFormat.TEXT);
+                parallelSave = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                BatchReport loadReport = batch.loadAll(workDir, (path, portfolio) -> { });
+                parallelLoad = System.nanoTime() - start;
+
+                if (saveReport.hasFailures() || loadReport.hasFailures()) {
+                    throw new IllegalStateException("Błędy w trakcie benchmarku");
+                }
+            }
+
+            System.out.println(PORTFOLIO_COUNT + " portfeli po " + LOTS_PER_PORTFOLIO + " partii, " + threads + " wątków:");
+            System.out.println("  zapis sekwencyjny:  " + (sequentialSave / 1_000_000) + " ms");
+            System.out.println("  zapis równoległy:   " + (parallelSave / 1_000_000) + " ms");
+            System.out.println("  odczyt sekwencyjny: " + (sequentialLoad / 1_000_000) + " ms");
+            System.out.println("  odczyt równoległy:  " + (parallelLoad / 1_000_000) + " ms");
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    private static Map<Path, Portfolio> createPortfolios(Path directory) {
+        Map<Path, Portfolio> portfolios = new LinkedHashMap<>();
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < PORTFOLIO_COUNT; i++) {
+            Portfolio portfolio = new Portfolio(1.0E9);
+            for (int j = 0; j < LOTS_PER_PORTFOLIO; j++) {
+                Share share = new Share("SYM" + (j % 25), "Share " + (j % 25), 100.0 + j);
+                portfolio.addAsset(share, 1 + j % 7, date.plusDays(j));
+            }
+            portfolios.put(directory.resolve("account-" + i + ".txt"), portfolio);
+        }
+        return portfolios;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                for (Path child : children) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        Files.deleteIfExists(path);
+    }
+}
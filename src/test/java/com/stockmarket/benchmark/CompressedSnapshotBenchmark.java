@@ -0,0 +1,63 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.persistence.PortfolioPersistence;
+import com.stockmarket.persistence.SnapshotFormat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+public class CompressedSnapshotBenchmark {
+    private static final int HOLDING_COUNT = 100;
+    private static final int LOTS_PER_HOLDING = 10_000;
+    private static final int MEASURED_ROUNDS = 3;
+
+    public static void main(String[] args) throws IOException {
+        Portfolio portfolio = createPortfolio();
+        PortfolioPersistence persistence = new PortfolioPersistence();
+        SnapshotFormat[] formats = SnapshotFormat.values();
+
+        System.out.println(HOLDING_COUNT + " aktywów po " + LOTS_PER_HOLDING + " partii (średnio):");
+        for (int f = 0; f < formats.length; f++) {
+            Path filePath = Files.createTempFile("portfolio-bench", "." + formats[f].name().toLowerCase());
+            try {
+                persistence.savePortfolio(portfolio, filePath, formats[f]);
+                persistence.loadPortfolio(filePath);
+
+                long saveNanos = 0;
+                long loadNanos = 0;
+                for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                    long start = System.nanoTime();
+                    persistence.savePortfolio(portfolio, filePath, formats[f]);
+                    saveNanos += System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    persistence.loadPortfolio(filePath);
+                    loadNanos += System.nanoTime() - start;
+                }
+
+                System.out.println("  " + formats[f] + ": " + (Files.size(filePath) / 1024) + " KB, zapis "
+                    + (saveNanos / MEASURED_ROUNDS / 1_000_000) + " ms, odczyt "
+                    + (loadNanos / MEASURED_ROUNDS / 1_000_000) + " ms");
+            } finally {
+                Files.deleteIfExists(filePath);
+            }
+        }
+    }
+
+    private static Portfolio createPortfolio() {
+        Portfolio portfolio = new Portfolio(1.0E15);
+        LocalDate date = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < HOLDING_COUNT; i++) {
+            Share share = new Share("SYM" + i, "Share " + i, 100.0);
+            for (int j = 0; j < LOTS_PER_HOLDING; j++) {
+                share.setMarketPrice(100.0 + ((i * 31 + j * 7) % 400) * 0.05);
+                portfolio.addAsset(share, 1 + j % 50, date.plusDays(j / 3));
+            }
+        }
+        return portfolio;
+    }
+}
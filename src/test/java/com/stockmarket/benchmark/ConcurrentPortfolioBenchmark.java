@@ -0,0 +1,90 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.Currency;
+import com.stockmarket.logic.ConcurrentPortfolio;
+import com.stockmarket.logic.Portfolio;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+
+public class ConcurrentPortfolioBenchmark {
+    private static final int SYMBOL_COUNT = 256;
+    private static final int TRADES_PER_THREAD = 200_000;
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 2);
+
+    private interface Trader {
+        void trade(Currency currency);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Currency[] currencies = new Currency[SYMBOL_COUNT];
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            currencies[i] = new Currency("C" + i, "Waluta " + i, 10.0, 0.0);
+        }
+
+        int maxThreads = Math.max(16, Runtime.getRuntime().availableProcessors() * 2);
+        System.out.println("Transakcje kupno/sprzedaż na " + SYMBOL_COUNT + " symbolach, rdzenie: "
+            + Runtime.getRuntime().availableProcessors());
+
+        runGlobalLock(currencies, 2);
+        runStriped(currencies, 2);
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            long globalNanos = runGlobalLock(currencies, threads);
+            long stripedNanos = runStriped(currencies, threads);
+            long trades = (long) threads * TRADES_PER_THREAD * 2;
+            System.out.println("  wątki " + threads + ": blokada globalna " + throughput(trades, globalNanos)
+                + " tys./s, blokady per symbol " + throughput(trades, stripedNanos) + " tys./s");
+        }
+    }
+
+    private static long runGlobalLock(Currency[] currencies, int threads) throws InterruptedException {
+        Portfolio portfolio = new Portfolio(1.0E12);
+        return run(currencies, threads, currency -> {
+            synchronized (portfolio) {
+                portfolio.addAsset(currency, 1, DATE);
+            }
+            synchronized (portfolio) {
+                portfolio.sellAsset(currency.getSymbol(), 1, 10.0);
+            }
+        });
+    }
+
+    private static long runStriped(Currency[] currencies, int threads) throws InterruptedException {
+        ConcurrentPortfolio portfolio = new ConcurrentPortfolio(1.0E12, 256);
+        return run(currencies, threads, currency -> {
+            portfolio.addAsset(currency, 1, DATE);
+            portfolio.sellAsset(currency.getSymbol(), 1, 10.0);
+        });
+    }
+
+    private static long run(Currency[] currencies, int threads, Trader trader) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int offset = t * 17;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < TRADES_PER_THREAD; i++) {
+                    trader.trade(currencies[(offset + i) % currencies.length]);
+                }
+            });
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (int t = 0; t < threads; t++) {
+            workers[t].join();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static long throughput(long trades, long nanos) {
+        return trades * 1_000_000L / nanos;
+    }
+}
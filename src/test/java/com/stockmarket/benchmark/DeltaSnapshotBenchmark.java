@@ -0,0 +1,84 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.persistence.DeltaSnapshotStore;
+import com.stockmarket.persistence.PortfolioPersistence;
+import com.stockmarket.persistence.SnapshotFormat;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+public class DeltaSnapshotBenchmark {
+    private static final int HOLDING_COUNT = 10_000;
+    private static final int LOTS_PER_HOLDING = 20;
+    private static final int CHECKPOINT_COUNT = 100;
+
+    public static void main(String[] args) throws IOException {
+        Path workDir = Files.createTempDirectory("delta-bench");
+        try {
+            Portfolio full = createPortfolio();
+            PortfolioPersistence persistence = new PortfolioPersistence();
+            Path fullPath = workDir.resolve("full.bin");
+            long fullBytes = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < CHECKPOINT_COUNT; i++) {
+                trade(full, i);
+                persistence.savePortfolio(full, fullPath, SnapshotFormat.BINARY);
+                fullBytes += Files.size(fullPath);
+            }
+            long fullNanos = System.nanoTime() - start;
+
+            Portfolio incremental = createPortfolio();
+            Path storeDir = workDir.resolve("store");
+            long deltaBytes = 0;
+            try (DeltaSnapshotStore store = new DeltaSnapshotStore(storeDir, CHECKPOINT_COUNT * 2)) {
+                store.save(incremental);
+                start = System.nanoTime();
+                for (int i = 0; i < CHECKPOINT_COUNT; i++) {
+                    trade(incremental, i);
+                    store.save(incremental);
+                    deltaBytes += Files.size(storeDir.resolve("delta-" + (i + 1) + ".bin"));
+                }
+            }
+            long deltaNanos = System.nanoTime() - start;
+
+            System.out.println(CHECKPOINT_COUNT + " punktów kontrolnych, " + HOLDING_COUNT + " aktywów, 1 zmienione na punkt:");
+            System.out.println("  pełna migawka: " + (fullNanos / 1_000_000) + " ms, " + (fullBytes / 1024) + " KB");
+            System.out.println("  migawka delta: " + (deltaNanos / 1_000_000) + " ms, " + (deltaBytes / 1024) + " KB");
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    private static void trade(Portfolio portfolio, int round) {
+        String symbol = "SYM" + (round * 7919 % HOLDING_COUNT);
+        portfolio.sellAsset(symbol, 1, 150.0);
+    }
+
+    private static Portfolio createPortfolio() {
+        Portfolio portfolio = new Portfolio(1.0E12);
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < HOLDING_COUNT; i++) {
+            Share share = new Share("SYM" + i, "Share " + i, 100.0);
+            for (int j = 0; j < LOTS_PER_HOLDING; j++) {
+                portfolio.addAsset(share, 10, date.plusDays(j));
+            }
+        }
+        return portfolio;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                for (Path child : children) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,85 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.persistence.PortfolioJournal;
+import com.stockmarket.persistence.PortfolioPersistence;
+import com.stockmarket.persistence.SnapshotFormat;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+public class JournalBenchmark {
+    private static final int HOLDING_LOTS = 20_000;
+    private static final int TRADE_COUNT = 2_000;
+    private static final int[] GROUP_SIZES = {1, 16, 256};
+
+    public static void main(String[] args) throws IOException {
+        Path workDir = Files.createTempDirectory("journal-bench");
+        try {
+            long snapshotNanos = runSnapshotPerTrade(workDir.resolve("snapshot.bin"));
+            System.out.println(TRADE_COUNT + " transakcji przy " + HOLDING_LOTS + " partiach w portfelu:");
+            System.out.println("  zapis migawki po każdej transakcji: " + (snapshotNanos / 1_000_000) + " ms");
+
+            for (int i = 0; i < GROUP_SIZES.length; i++) {
+                long journalNanos = runJournal(workDir.resolve("journal-" + GROUP_SIZES[i]), GROUP_SIZES[i]);
+                System.out.println("  dziennik, grupa " + GROUP_SIZES[i] + ": " + (journalNanos / 1_000_000) + " ms");
+            }
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    private static long runSnapshotPerTrade(Path filePath) throws IOException {
+        Portfolio portfolio = createPortfolio();
+        PortfolioPersistence persistence = new PortfolioPersistence();
+        Share share = new Share("TRADE", "Trade", 10.0);
+        LocalDate date = LocalDate.of(2024, 1, 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TRADE_COUNT; i++) {
+            portfolio.addAsset(share, 1, date);
+            persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long runJournal(Path directory, int groupCommitSize) throws IOException {
+        Portfolio portfolio = createPortfolio();
+        Share share = new Share("TRADE", "Trade", 10.0);
+        LocalDate date = LocalDate.of(2024, 1, 1);
+
+        try (PortfolioJournal journal = PortfolioJournal.create(directory, portfolio, groupCommitSize)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < TRADE_COUNT; i++) {
+                portfolio.addAsset(share, 1, date);
+            }
+            journal.commit();
+            return System.nanoTime() - start;
+        }
+    }
+
+    private static Portfolio createPortfolio() {
+        Portfolio portfolio = new Portfolio(1.0E12);
+        Share share = new Share("BULK", "Bulk", 100.0);
+        LocalDate date = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < HOLDING_LOTS; i++) {
+            portfolio.addAsset(share, 1, date.plusDays(i % 9000));
+        }
+        return portfolio;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                for (Path child : children) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        Files.deleteIfExists(path);
+    }
+}
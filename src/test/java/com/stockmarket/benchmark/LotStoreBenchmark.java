@@ -0,0 +1,95 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.PurchaseLot;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+public class LotStoreBenchmark {
+    private static final int LOT_COUNT = 2_000_000;
+    private static final int SALE_SIZE = 1_000;
+    private static final LocalDate START = LocalDate.of(2000, 1, 1);
+
+    public static void main(String[] args) {
+        long baseline = usedMemory();
+        Deque<PurchaseLot> legacy = createLegacy();
+        long legacyBytes = usedMemory() - baseline;
+        long legacyNanos = sellAllLegacy(legacy);
+        legacy = null;
+
+        baseline = usedMemory();
+        Portfolio portfolio = createPortfolio();
+        long storeBytes = usedMemory() - baseline;
+        long storeNanos = sellAll(portfolio);
+
+        System.out.println(LOT_COUNT + " partii jednego aktywa:");
+        System.out.println("  ArrayDeque<PurchaseLot>: " + (legacyBytes / LOT_COUNT) + " B/partię, sprzedaż FIFO "
+            + (legacyNanos / 1_000_000) + " ms");
+        System.out.println("  LotStore (tablice):      " + (storeBytes / LOT_COUNT) + " B/partię, sprzedaż FIFO "
+            + (storeNanos / 1_000_000) + " ms");
+    }
+
+    private static Deque<PurchaseLot> createLegacy() {
+        Deque<PurchaseLot> lots = new ArrayDeque<>();
+        for (int i = 0; i < LOT_COUNT; i++) {
+            lots.addLast(new PurchaseLot(START.plusDays(i % 20_000), 10.0 + i % 100, 1 + i % 3));
+        }
+        return lots;
+    }
+
+    private static long sellAllLegacy(Deque<PurchaseLot> lots) {
+        long start = System.nanoTime();
+        double profit = 0.0;
+        while (!lots.isEmpty()) {
+            int remaining = SALE_SIZE;
+            while (remaining > 0 && !lots.isEmpty()) {
+                PurchaseLot lot = lots.peekFirst();
+                int quantity = Math.min(remaining, lot.getQuantity());
+                profit += quantity * (12.0 - lot.getUnitPrice());
+                remaining -= quantity;
+                if (quantity == lot.getQuantity()) {
+                    lots.pollFirst();
+                } else {
+                    lot.setQuantity(lot.getQuantity() - quantity);
+                }
+            }
+        }
+        if (profit == 0.0) {
+            System.out.println();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Portfolio createPortfolio() {
+        Portfolio portfolio = new Portfolio(Double.MAX_VALUE / 4);
+        Share share = new Share("LOTS", "Lots", 10.0);
+        for (int i = 0; i < LOT_COUNT; i++) {
+            share.setMarketPrice(10.0 + i % 100);
+            portfolio.addAsset(share, 1 + i % 3, START.plusDays(i % 20_000));
+        }
+        portfolio.clearDirtySymbols();
+        return portfolio;
+    }
+
+    private static long sellAll(Portfolio portfolio) {
+        long start = System.nanoTime();
+        int remaining = portfolio.getAssetQuantity("LOTS");
+        while (remaining > 0) {
+            int quantity = Math.min(SALE_SIZE, remaining);
+            portfolio.sellAsset("LOTS", quantity, 12.0);
+            remaining -= quantity;
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
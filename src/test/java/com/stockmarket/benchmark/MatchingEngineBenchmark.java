@@ -0,0 +1,59 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.Order;
+import com.stockmarket.domain.OrderType;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.matching.MatchingEngine;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+public class MatchingEngineBenchmark {
+    private static final int ORDER_COUNT = 2_000_000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 3;
+
+    public static void main(String[] args) {
+        Order[] orders = generateOrders(ORDER_COUNT, 42L);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(orders);
+        }
+
+        long totalNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            totalNanos += run(orders);
+        }
+
+        double seconds = totalNanos / 1_000_000_000.0 / MEASURED_ROUNDS;
+        System.out.println("Zlecenia: " + ORDER_COUNT + ", czas: " + (long) (seconds * 1000) + " ms");
+        System.out.println("Przepustowość: " + (long) (ORDER_COUNT / seconds) + " zleceń/s");
+    }
+
+    private static long run(Order[] orders) {
+        MatchingEngine engine = new MatchingEngine();
+        Portfolio buyer = new Portfolio(Double.MAX_VALUE / 4);
+        Portfolio seller = new Portfolio(Double.MAX_VALUE / 4);
+        seller.addAsset(new Share("BENCH", "Benchmark", 100.0), Integer.MAX_VALUE / 2, LocalDate.of(2000, 1, 1));
+        LocalDate tradeDate = LocalDate.of(2024, 1, 2);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < orders.length; i++) {
+            Order order = orders[i];
+            engine.submit(order, order.getOrderType() == OrderType.BUY ? buyer : seller, tradeDate);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Order[] generateOrders(int count, long seed) {
+        Random random = new Random(seed);
+        Order[] orders = new Order[count];
+        for (int i = 0; i < count; i++) {
+            OrderType type = random.nextBoolean() ? OrderType.BUY : OrderType.SELL;
+            double price = 95.0 + random.nextInt(100) * 0.1;
+            orders[i] = new Order("BENCH", type, 1 + random.nextInt(100), price, 100.0);
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,45 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+
+import java.time.LocalDate;
+
+public class NetAssetValueBenchmark {
+    private static final int SYMBOL_COUNT = 100_000;
+    private static final int POLLS = 2_000;
+    private static final int PRICE_UPDATES_PER_POLL = 50;
+
+    public static void main(String[] args) {
+        Portfolio portfolio = new Portfolio(1.0E12);
+        LocalDate date = LocalDate.of(2024, 1, 2);
+        Asset[] held = new Asset[SYMBOL_COUNT];
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            portfolio.addAsset(new Share("S" + i, "Spółka " + i, 10.0 + i % 100), 1 + i % 20, date);
+            held[i] = portfolio.getAsset("S" + i);
+        }
+
+        System.out.println(SYMBOL_COUNT + " aktywów, " + POLLS + " odczytów po " + PRICE_UPDATES_PER_POLL
+            + " zmian cen:");
+        run("auditPortfolio()   ", portfolio, held, true);
+        run("getNetAssetValue() ", portfolio, held, false);
+        System.out.println("  różnica po przebiegu: " + Math.abs(portfolio.getNetAssetValue() - portfolio.auditPortfolio()));
+    }
+
+    private static void run(String label, Portfolio portfolio, Asset[] held, boolean fullAudit) {
+        long seed = 17;
+        double checksum = 0.0;
+        long start = System.nanoTime();
+        for (int poll = 0; poll < POLLS; poll++) {
+            for (int i = 0; i < PRICE_UPDATES_PER_POLL; i++) {
+                seed = seed * 6364136223846793005L + 1442695040888963407L;
+                int index = (int) ((seed >>> 33) % held.length);
+                held[index].setMarketPrice(10.0 + ((seed >>> 20) & 1023) / 10.0);
+            }
+            checksum += fullAudit ? portfolio.auditPortfolio() : portfolio.getNetAssetValue();
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.println("  " + label + (nanos / POLLS / 1_000) + " µs/odczyt (suma kontrolna " + (checksum > 0) + ")");
+    }
+}
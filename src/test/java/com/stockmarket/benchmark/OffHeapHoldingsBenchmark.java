@@ -0,0 +1,82 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.HoldingsBackend;
+import com.stockmarket.logic.Portfolio;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+
+public class OffHeapHoldingsBenchmark {
+    private static final int SYMBOL_COUNT = 50_000;
+    private static final int LOTS_PER_SYMBOL = 40;
+    private static final int GC_ROUNDS = 5;
+    private static final LocalDate START = LocalDate.of(2000, 1, 1);
+
+    public static void main(String[] args) {
+        System.out.println(SYMBOL_COUNT + " aktywów po " + LOTS_PER_SYMBOL + " partii:");
+        run(HoldingsBackend.HEAP);
+        run(HoldingsBackend.OFF_HEAP);
+    }
+
+    private static void run(HoldingsBackend backend) {
+        long baseline = usedMemory();
+        long start = System.nanoTime();
+        Portfolio portfolio = createPortfolio(backend);
+        long buildNanos = System.nanoTime() - start;
+        long heapBytes = usedMemory() - baseline;
+
+        long gcBefore = gcMillis();
+        start = System.nanoTime();
+        for (int i = 0; i < GC_ROUNDS; i++) {
+            System.gc();
+        }
+        long fullGcNanos = (System.nanoTime() - start) / GC_ROUNDS;
+        long gcMillis = gcMillis() - gcBefore;
+
+        start = System.nanoTime();
+        double audit = portfolio.auditPortfolio();
+        long auditNanos = System.nanoTime() - start;
+
+        System.out.println("  " + backend + ": sterta " + (heapBytes / (1024 * 1024)) + " MB, budowa "
+            + (buildNanos / 1_000_000) + " ms, pełne GC " + (fullGcNanos / 1_000_000) + " ms (łącznie "
+            + gcMillis + " ms), audyt " + (auditNanos / 1_000) + " µs");
+        if (audit <= 0.0) {
+            System.out.println();
+        }
+    }
+
+    private static Portfolio createPortfolio(HoldingsBackend backend) {
+        Portfolio portfolio = new Portfolio(Double.MAX_VALUE / 4, backend);
+        Share[] shares = new Share[SYMBOL_COUNT];
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            shares[i] = new Share("S" + i, "Spółka " + i, 10.0 + i % 100);
+        }
+        for (int lot = 0; lot < LOTS_PER_SYMBOL; lot++) {
+            for (int i = 0; i < SYMBOL_COUNT; i++) {
+                portfolio.addAsset(shares[i], 1 + lot % 5, START.plusDays(lot));
+            }
+        }
+        portfolio.clearDirtySymbols();
+        return portfolio;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        for (int i = 0; i < collectors.size(); i++) {
+            total += Math.max(0, collectors.get(i).getCollectionTime());
+        }
+        return total;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,61 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.Order;
+import com.stockmarket.domain.OrderType;
+import com.stockmarket.logic.Portfolio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class OrderBatchBenchmark {
+    private static final int ORDER_COUNT = 2_000_000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        List<Order> orders = generateOrders(ORDER_COUNT, 7L);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runSingleOffers(orders);
+            runBulkLoad(orders);
+        }
+
+        long singleNanos = 0;
+        long bulkNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            singleNanos += runSingleOffers(orders);
+            bulkNanos += runBulkLoad(orders);
+        }
+
+        System.out.println("Ładowanie " + ORDER_COUNT + " zleceń (średnio):");
+        System.out.println("  addOrder w pętli: " + (singleNanos / MEASURED_ROUNDS / 1_000_000) + " ms");
+        System.out.println("  addOrders:        " + (bulkNanos / MEASURED_ROUNDS / 1_000_000) + " ms");
+    }
+
+    private static long runSingleOffers(List<Order> orders) {
+        Portfolio portfolio = new Portfolio(0.0);
+        long start = System.nanoTime();
+        for (int i = 0; i < orders.size(); i++) {
+            portfolio.addOrder(orders.get(i));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long runBulkLoad(List<Order> orders) {
+        Portfolio portfolio = new Portfolio(0.0);
+        long start = System.nanoTime();
+        portfolio.addOrders(orders);
+        return System.nanoTime() - start;
+    }
+
+    private static List<Order> generateOrders(int count, long seed) {
+        Random random = new Random(seed);
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            OrderType type = random.nextBoolean() ? OrderType.BUY : OrderType.SELL;
+            orders.add(new Order("BENCH", type, 1 + random.nextInt(100), 50.0 + random.nextDouble() * 100.0, 100.0));
+        }
+        return orders;
+    }
+}
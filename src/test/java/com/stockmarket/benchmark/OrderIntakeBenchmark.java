@@ -0,0 +1,104 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.Order;
+import com.stockmarket.domain.OrderType;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.matching.MatchingEngine;
+import com.stockmarket.matching.OrderIntake;
+import com.stockmarket.matching.WaitStrategies;
+import com.stockmarket.matching.WaitStrategy;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+public class OrderIntakeBenchmark {
+    private static final int PRODUCER_COUNT = 4;
+    private static final int ORDERS_PER_PRODUCER = 250_000;
+    private static final int RING_CAPACITY = 1 << 14;
+    private static final LocalDate TRADE_DATE = LocalDate.of(2024, 1, 2);
+
+    private interface Submitter {
+        void submit(Order order, Portfolio account) throws InterruptedException;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Order[][] orders = new Order[PRODUCER_COUNT][];
+        for (int p = 0; p < PRODUCER_COUNT; p++) {
+            orders[p] = generateOrders(ORDERS_PER_PRODUCER, 42L + p);
+        }
+
+        String[] names = {"blokada globalna", "pierścień + busy-spin", "pierścień + yield", "pierścień + park"};
+        WaitStrategy[] strategies = {null, WaitStrategies.busySpin(), WaitStrategies.yielding(), WaitStrategies.parking(10_000)};
+
+        System.out.println(PRODUCER_COUNT + " producentów po " + ORDERS_PER_PRODUCER + " zleceń, rdzenie: "
+            + Runtime.getRuntime().availableProcessors());
+        for (int s = 0; s < strategies.length; s++) {
+            run(orders, strategies[s]);
+            long nanos = run(orders, strategies[s]);
+            long total = (long) PRODUCER_COUNT * ORDERS_PER_PRODUCER;
+            System.out.println("  " + names[s] + ": " + (nanos / 1_000_000) + " ms, "
+                + (total * 1_000_000_000L / nanos) + " zleceń/s");
+        }
+    }
+
+    private static long run(Order[][] orders, WaitStrategy strategy) throws InterruptedException {
+        MatchingEngine engine = new MatchingEngine();
+        Portfolio buyer = new Portfolio(Double.MAX_VALUE / 4);
+        Portfolio seller = new Portfolio(Double.MAX_VALUE / 4);
+        seller.addAsset(new Share("BENCH", "Benchmark", 100.0), Integer.MAX_VALUE / 2, LocalDate.of(2000, 1, 1));
+
+        if (strategy == null) {
+            return produce(orders, buyer, seller, (order, account) -> {
+                synchronized (engine) {
+                    engine.submit(order, account, TRADE_DATE);
+                }
+            });
+        }
+
+        OrderIntake intake = new OrderIntake(engine, RING_CAPACITY, strategy);
+        intake.start();
+        long start = System.nanoTime();
+        produce(orders, buyer, seller, (order, account) -> intake.submit(order, account, TRADE_DATE));
+        intake.close();
+        return System.nanoTime() - start;
+    }
+
+    private static long produce(Order[][] orders, Portfolio buyer, Portfolio seller, Submitter submitter) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] producers = new Thread[orders.length];
+        for (int p = 0; p < orders.length; p++) {
+            final Order[] own = orders[p];
+            producers[p] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < own.length; i++) {
+                        submitter.submit(own[i], own[i].getOrderType() == OrderType.BUY ? buyer : seller);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producers[p].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (int p = 0; p < producers.length; p++) {
+            producers[p].join();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static Order[] generateOrders(int count, long seed) {
+        Random random = new Random(seed);
+        Order[] orders = new Order[count];
+        for (int i = 0; i < count; i++) {
+            OrderType type = random.nextBoolean() ? OrderType.BUY : OrderType.SELL;
+            double price = 95.0 + random.nextInt(100) * 0.1;
+            orders[i] = new Order("BENCH", type, 1 + random.nextInt(100), price, 100.0);
+        }
+        return orders;
+    }
+}
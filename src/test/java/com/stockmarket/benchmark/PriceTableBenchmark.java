@@ -0,0 +1,47 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.marketdata.PriceTable;
+
+import java.time.LocalDate;
+
+public class PriceTableBenchmark {
+    private static final int SYMBOL_COUNT = 10_000;
+    private static final int ACCOUNT_COUNT = 10_000;
+    private static final int HOLDINGS_PER_ACCOUNT = 20;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        String[] symbols = new String[SYMBOL_COUNT];
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            symbols[i] = "S" + i;
+        }
+
+        PriceTable table = new PriceTable();
+        LocalDate date = LocalDate.of(2024, 1, 2);
+        for (int account = 0; account < ACCOUNT_COUNT; account++) {
+            Portfolio portfolio = new Portfolio(1.0E9);
+            for (int h = 0; h < HOLDINGS_PER_ACCOUNT; h++) {
+                int symbol = (int) ((account * 7919L + h * 104729L) % SYMBOL_COUNT);
+                portfolio.addAsset(new Share(symbols[symbol], "Spółka " + symbol, 100.0), 1 + h, date);
+            }
+            table.subscribe(portfolio);
+        }
+
+        double[] prices = new double[SYMBOL_COUNT];
+        long repriced = 0;
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < SYMBOL_COUNT; i++) {
+                prices[i] = 100.0 + (round * 31 + i) % 97;
+            }
+            long start = System.nanoTime();
+            repriced = table.applyPrices(symbols, prices);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        System.out.println(SYMBOL_COUNT + " symboli, " + ACCOUNT_COUNT + " kont po " + HOLDINGS_PER_ACCOUNT
+            + " aktywów: applyPrices " + (best / 1_000_000) + " ms (przecenione pozycje: " + repriced + ")");
+    }
+}
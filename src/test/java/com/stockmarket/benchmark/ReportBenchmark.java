@@ -0,0 +1,136 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.reporting.PortfolioReporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class ReportBenchmark {
+    private static final int SYMBOL_COUNT = 200_000;
+    private static final int ROUNDS = 5;
+
+    private static class Row {
+        private final Asset asset;
+        private final double value;
+
+        Row(Asset asset, double value) {
+            this.asset = asset;
+            this.value = value;
+        }
+    }
+
+    private static class DiscardingOutputStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Portfolio portfolio = new Portfolio(Double.MAX_VALUE / 4);
+        LocalDate date = LocalDate.of(2024, 1, 2);
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            portfolio.addAsset(new Share("S" + i, "Spółka " + i, 10.0 + (i % 9973) / 7.0), 1 + i % 50, date);
+        }
+        PortfolioReporter reporter = new PortfolioReporter(portfolio);
+
+        for (int warmup = 0; warmup < 2; warmup++) {
+            formatWithStringFormat(portfolio);
+            reporter.generateReport();
+            reporter.writeReport(new DiscardingOutputStream());
+        }
+
+        long gcBefore = gcCount();
+        long start = System.nanoTime();
+        int length = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            length += formatWithStringFormat(portfolio).length();
+        }
+        report("String.format + StringBuilder", start, gcBefore, length);
+
+        gcBefore = gcCount();
+        start = System.nanoTime();
+        length = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            length += reporter.generateReport().length();
+        }
+        report("generateReport()", start, gcBefore, length);
+
+        gcBefore = gcCount();
+        start = System.nanoTime();
+        long bytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            DiscardingOutputStream out = new DiscardingOutputStream();
+            reporter.writeReport(out);
+            bytes += out.bytes;
+        }
+        report("writeReport(OutputStream)", start, gcBefore, bytes);
+    }
+
+    private static String formatWithStringFormat(Portfolio portfolio) {
+        StringBuilder report = new StringBuilder();
+        report.append("=== RAPORT PORTFELA ===\n");
+        report.append("Gotówka: ").append(String.format("%.2f", portfolio.getCash())).append("\n");
+        report.append("Wartość całkowita: ").append(String.format("%.2f", portfolio.auditPortfolio())).append("\n\n");
+
+        List<String> symbols = portfolio.getAllAssetSymbols();
+        List<Row> rows = new ArrayList<>(symbols.size());
+        for (int i = 0; i < symbols.size(); i++) {
+            Asset asset = portfolio.getAsset(symbols.get(i));
+            rows.add(new Row(asset, asset.calculateRealValue(portfolio.getAssetQuantity(symbols.get(i)))));
+        }
+        rows.sort(new Comparator<Row>() {
+            @Override
+            public int compare(Row r1, Row r2) {
+                int typeComparison = r1.asset.getAssetType().compareTo(r2.asset.getAssetType());
+                if (typeComparison != 0) {
+                    return typeComparison;
+                }
+                return Double.compare(r2.value, r1.value);
+            }
+        });
+
+        report.append("Aktywa (posortowane: Typ -> Wartość malejąco):\n");
+        report.append("----------------------------------------\n");
+        for (int i = 0; i < rows.size(); i++) {
+            Asset asset = rows.get(i).asset;
+            report.append(String.format("%s (%s): %s - Wartość: %.2f\n",
+                asset.getSymbol(),
+                asset.getAssetType().name(),
+                asset.getName(),
+                rows.get(i).value));
+        }
+        return report.toString();
+    }
+
+    private static void report(String label, long start, long gcBefore, long size) {
+        long millis = (System.nanoTime() - start) / 1_000_000 / ROUNDS;
+        System.out.println(label + ": " + millis + " ms/raport, kolekcje GC: " + (gcCount() - gcBefore)
+            + " (" + (size / ROUNDS) + " znaków)");
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        for (int i = 0; i < collectors.size(); i++) {
+            total += Math.max(0, collectors.get(i).getCollectionCount());
+        }
+        return total;
+    }
+}
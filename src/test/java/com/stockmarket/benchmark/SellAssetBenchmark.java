@@ -0,0 +1,89 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.PurchaseLot;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SellAssetBenchmark {
+    private static final int LOT_COUNT = 100_000;
+    private static final int SALE_SIZE = 10_000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runLegacy();
+            runPortfolio();
+        }
+
+        long legacyNanos = 0;
+        long portfolioNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            legacyNanos += runLegacy();
+            portfolioNanos += runPortfolio();
+        }
+
+        int salesPerRound = LOT_COUNT / SALE_SIZE;
+        System.out.println("Sprzedaż " + SALE_SIZE + " partii z " + LOT_COUNT + " (średnio na sprzedaż):");
+        System.out.println("  przed (ArrayList.remove): " + formatMicros(legacyNanos / (MEASURED_ROUNDS * salesPerRound)));
+        System.out.println("  po (ArrayDeque FIFO):     " + formatMicros(portfolioNanos / (MEASURED_ROUNDS * salesPerRound)));
+    }
+
+    private static long runPortfolio() {
+        Portfolio portfolio = new Portfolio(Double.MAX_VALUE / 4);
+        Share share = new Share("DCA", "Dollar Cost", 10.0);
+        LocalDate date = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < LOT_COUNT; i++) {
+            portfolio.addAsset(share, 1, date.plusDays(i));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < LOT_COUNT / SALE_SIZE; i++) {
+            portfolio.sellAsset("DCA", SALE_SIZE, 12.0);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long runLegacy() {
+        List<PurchaseLot> lots = new ArrayList<>();
+        LocalDate date = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < LOT_COUNT; i++) {
+            lots.add(new PurchaseLot(date.plusDays(i), 10.0, 1));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < LOT_COUNT / SALE_SIZE; i++) {
+            legacySell(lots, SALE_SIZE);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void legacySell(List<PurchaseLot> lots, int quantity) {
+        int remainingToSell = quantity;
+        List<PurchaseLot> lotsToRemove = new ArrayList<>();
+
+        for (int i = 0; i < lots.size() && remainingToSell > 0; i++) {
+            PurchaseLot lot = lots.get(i);
+            int lotQuantity = lot.getQuantity();
+            if (lotQuantity <= remainingToSell) {
+                remainingToSell -= lotQuantity;
+                lotsToRemove.add(lot);
+            } else {
+                lot.setQuantity(lotQuantity - remainingToSell);
+                remainingToSell = 0;
+            }
+        }
+
+        for (int i = 0; i < lotsToRemove.size(); i++) {
+            lots.remove(lotsToRemove.get(i));
+        }
+    }
+
+    private static String formatMicros(long nanos) {
+        return (nanos / 1000) + " µs";
+    }
+}
@@ -0,0 +1,47 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.PurchaseLot;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.simulation.PriceFeed;
+import com.stockmarket.simulation.SimulationReport;
+import com.stockmarket.simulation.SimulationRunner;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class SimulationBenchmark {
+    private static final int DEFAULT_ACCOUNT_COUNT = 100_000;
+    private static final int ORDERS_PER_ACCOUNT = 10;
+    private static final long THINK_TIME_MILLIS = 1;
+    private static final int SYMBOL_COUNT = 50;
+
+    public static void main(String[] args) throws InterruptedException {
+        int accountCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ACCOUNT_COUNT;
+
+        String[] symbols = new String[SYMBOL_COUNT];
+        double[] prices = new double[SYMBOL_COUNT];
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            symbols[i] = "SYM" + i;
+            prices[i] = 50.0 + i;
+        }
+
+        List<Portfolio> accounts = new ArrayList<>(accountCount);
+        LocalDate purchaseDate = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < accountCount; i++) {
+            Portfolio account = new Portfolio(100000.0);
+            int s = i % SYMBOL_COUNT;
+            account.restoreHolding(new Share(symbols[s], symbols[s], prices[s]),
+                Collections.singletonList(new PurchaseLot(purchaseDate, prices[s], 50)));
+            accounts.add(account);
+        }
+
+        SimulationRunner runner = new SimulationRunner(ORDERS_PER_ACCOUNT, THINK_TIME_MILLIS, LocalDate.of(2024, 1, 2));
+        SimulationReport report = runner.run(new PriceFeed(symbols, prices), accounts);
+        System.out.println("Java " + Runtime.version().feature() + ", rdzenie: " + Runtime.getRuntime().availableProcessors()
+            + ", czas namysłu " + THINK_TIME_MILLIS + " ms na zlecenie");
+        System.out.println(report);
+    }
+}
@@ -0,0 +1,89 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.persistence.PortfolioPersistence;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+public class TextSnapshotLoadBenchmark {
+    private static final int DEFAULT_LINE_COUNT = 1_000_000;
+    private static final int LOTS_PER_ASSET = 10_000;
+    private static final int MEASURED_ROUNDS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int lineCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_LINE_COUNT;
+        Path filePath = Files.createTempFile("portfolio-bench", ".txt");
+        try {
+            writeSnapshot(filePath, lineCount);
+            PortfolioPersistence persistence = new PortfolioPersistence();
+
+            runLegacy(filePath);
+            persistence.loadPortfolio(filePath);
+
+            long legacyNanos = 0;
+            long parserNanos = 0;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                runLegacy(filePath);
+                legacyNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                persistence.loadPortfolio(filePath);
+                parserNanos += System.nanoTime() - start;
+            }
+
+            System.out.println("Wczytanie " + lineCount + " linii LOT (średnio):");
+            System.out.println("  przed (String.split):  " + (legacyNanos / MEASURED_ROUNDS / 1_000_000) + " ms");
+            System.out.println("  po (TextSnapshotParser): " + (parserNanos / MEASURED_ROUNDS / 1_000_000) + " ms");
+        } finally {
+            Files.deleteIfExists(filePath);
+        }
+    }
+
+    private static void writeSnapshot(Path filePath, int lineCount) throws IOException {
+        LocalDate date = LocalDate.of(2000, 1, 1);
+        try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
+            writer.write("HEADER | CASH | 1.0E15");
+            writer.newLine();
+            for (int i = 0; i < lineCount; i++) {
+                if (i % LOTS_PER_ASSET == 0) {
+                    writer.write("ASSET | SHARE | SYM" + (i / LOTS_PER_ASSET));
+                    writer.newLine();
+                }
+                writer.write("LOT | " + date.plusDays(i % 9000) + " | " + (1 + i % 50) + " | " + (100.0 + (i % 1000) * 0.25));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static Portfolio runLegacy(Path filePath) throws IOException {
+        Portfolio portfolio = null;
+        Share current = null;
+        try (BufferedReader reader = Files.newBufferedReader(filePath)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.trim().split("\\s*\\|\\s*");
+                String prefix = parts[0].trim();
+                if ("HEADER".equals(prefix)) {
+                    portfolio = new Portfolio(Double.parseDouble(parts[2].trim()));
+                } else if ("ASSET".equals(prefix)) {
+                    current = new Share(parts[2].trim(), parts[2].trim(), 1.0);
+                } else {
+                    LocalDate date = LocalDate.parse(parts[1].trim(), DateTimeFormatter.ISO_LOCAL_DATE);
+                    int quantity = Integer.parseInt(parts[2].trim());
+                    double price = Double.parseDouble(parts[3].trim());
+                    current.setMarketPrice(price);
+                    portfolio.addAsset(current, quantity, date);
+                }
+            }
+        }
+        return portfolio;
+    }
+}
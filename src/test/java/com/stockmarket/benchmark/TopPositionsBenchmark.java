@@ -0,0 +1,59 @@
+package com.stockmarket.benchmark;
+
+import com.stockmarket.domain.AssetType;
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.reporting.PortfolioReporter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+public class TopPositionsBenchmark {
+    private static final int SYMBOL_COUNT = 200_000;
+    private static final int TOP = 20;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) throws IOException {
+        Portfolio portfolio = new Portfolio(Double.MAX_VALUE / 4);
+        LocalDate date = LocalDate.of(2024, 1, 2);
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            double price = 10.0 + (i * 7919L % 100_003) / 13.0;
+            if (i % 4 == 0) {
+                portfolio.addAsset(new Commodity("C" + i, "Surowiec " + i, price), 1 + i % 50, date);
+            } else {
+                portfolio.addAsset(new Share("S" + i, "Spółka " + i, price), 1 + i % 50, date);
+            }
+        }
+        PortfolioReporter reporter = new PortfolioReporter(portfolio);
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            reporter.generateReport();
+            reporter.getTopPositionsByType(TOP);
+            reporter.getPositionsPage(AssetType.SHARE, 4, TOP);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            reporter.writeReport(new StringBuilder());
+        }
+        long fullNanos = (System.nanoTime() - start) / ROUNDS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            reporter.writeTopReport(new StringBuilder(), TOP);
+        }
+        long topNanos = (System.nanoTime() - start) / ROUNDS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            reporter.getPositionsPage(AssetType.SHARE, 4, TOP);
+        }
+        long pageNanos = (System.nanoTime() - start) / ROUNDS;
+
+        System.out.println(SYMBOL_COUNT + " aktywów:");
+        System.out.println("  pełny raport (sortowanie):     " + (fullNanos / 1_000_000) + " ms");
+        System.out.println("  top " + TOP + " na typ (kopce):      " + (topNanos / 1_000_000) + " ms");
+        System.out.println("  strona 5 po " + TOP + " (SHARE):      " + (pageNanos / 1_000_000) + " ms");
+    }
+}
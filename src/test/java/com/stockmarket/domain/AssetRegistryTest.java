@@ -0,0 +1,230 @@
+package com.stockmarket.domain;
+
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.marketdata.PriceTable;
+import com.stockmarket.persistence.PortfolioPersistence;
+import com.stockmarket.persistence.SnapshotFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+
+class AssetRegistryTest {
+    private static final LocalDate DATE = LocalDate.of(2024, 2, 1);
+
+    private AssetRegistry registry;
+    private Portfolio first;
+    private Portfolio second;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        registry = new AssetRegistry();
+        first = new Portfolio(100000.0, registry);
+        second = new Portfolio(100000.0, registry);
+        first.addAsset(new Share("AAPL", "Apple Inc.", 150.0), 10, DATE);
+        second.addAsset(new Share("AAPL", "Apple Inc.", 155.0), 4, DATE);
+    }
+
+    @Test
+    void testPortfoliosShareOneCanonicalAsset() {
+        Asset canonical = registry.get("AAPL");
+
+        assertSame(canonical, first.getAsset("AAPL"));
+        assertSame(canonical, second.getAsset("AAPL"));
+        assertEquals(1, registry.size());
+        assertEquals(150.0, canonical.getMarketPrice(), 0.0);
+        assertEquals(155.0, second.getPurchaseLots("AAPL").getUnitPrice(0), 0.0);
+        assertSame(registry, first.getAssetRegistry());
+    }
+
+    @Test
+    void testSingleRepriceUpdatesEveryHolder() {
+        registry.get("AAPL").setMarketPrice(200.0);
+
+        assertEquals(first.auditPortfolio(), first.getNetAssetValue(), 1e-9);
+        assertEquals(second.auditPortfolio(), second.getNetAssetValue(), 1e-9);
+        assertEquals(first.getCash() + 200.0 * 10 - 5.0, first.getNetAssetValue(), 1e-9);
+
+        first.sellAsset("AAPL", 10, 210.0);
+        registry.get("AAPL").setMarketPrice(100.0);
+        assertEquals(1, registry.getSubscriberCount("AAPL"));
+        assertEquals(1, registry.get("AAPL").getPriceListenerCount());
+        assertEquals(first.getCash(), first.getNetAssetValue(), 1e-9);
+        assertEquals(second.getCash() + 100.0 * 4 - 5.0, second.getNetAssetValue(), 1e-9);
+    }
+
+    @Test
+    void testConflictingAssetTypeIsRejected() {
+        Portfolio third = new Portfolio(1000.0, registry);
+        assertThrows(IllegalArgumentException.class,
+            () -> third.addAsset(new Commodity("AAPL", "Jabłka", 3.0), 1, DATE));
+        assertEquals(0, third.getAssetQuantity("AAPL"));
+        assertEquals(1000.0, third.getCash(), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> registry.intern(null));
+    }
+
+    @Test
+    void testPortfoliosWithoutRegistryKeepPrivateCopies() {
+        Portfolio a = new Portfolio(1000.0);
+        Portfolio b = new Portfolio(1000.0);
+        Share share = new Share("MSFT", "Microsoft", 10.0);
+        a.addAsset(share, 1, DATE);
+        b.addAsset(share, 1, DATE);
+
+        assertNotSame(a.getAsset("MSFT"), b.getAsset("MSFT"));
+        assertNotSame(share, a.getAsset("MSFT"));
+        assertNull(a.getAssetRegistry());
+    }
+
+    @Test
+    void testLoaderInternsIntoSharedRegistry() throws Exception {
+        PortfolioPersistence writer = new PortfolioPersistence();
+        writer.savePortfolio(first, tempDir.resolve("first.bin"), SnapshotFormat.BINARY);
+        writer.savePortfolio(second, tempDir.resolve("second.txt"), SnapshotFormat.TEXT);
+        writer.savePortfolio(second, tempDir.resolve("second.gz"), SnapshotFormat.COMPRESSED);
+
+        AssetRegistry shared = new AssetRegistry();
+        PortfolioPersistence reader = new PortfolioPersistence(shared);
+        Portfolio loadedFirst = reader.loadPortfolio(tempDir.resolve("first.bin"));
+        Portfolio loadedSecond = reader.loadPortfolio(tempDir.resolve("second.txt"));
+        Portfolio loadedThird = reader.loadPortfolio(tempDir.resolve("second.gz"));
+        Portfolio mapped = reader.loadPortfolioMapped(tempDir.resolve("first.bin"));
+
+        assertEquals(1, shared.size());
+        assertSame(shared.get("AAPL"), loadedFirst.getAsset("AAPL"));
+        assertSame(shared.get("AAPL"), loadedSecond.getAsset("AAPL"));
+        assertSame(shared.get("AAPL"), loadedThird.getAsset("AAPL"));
+        assertSame(shared.get("AAPL"), mapped.getAsset("AAPL"));
+        assertEquals(10, loadedFirst.getAssetQuantity("AAPL"));
+        assertEquals(4, loadedSecond.getAssetQuantity("AAPL"));
+        assertThrows(IllegalArgumentException.class, () -> new PortfolioPersistence(null));
+    }
+
+    @Test
+    void testPriceTableRepricesRegistryOnce() {
+        PriceTable table = new PriceTable();
+        table.subscribe(registry);
+        table.subscribe(first);
+        table.subscribe(second);
+
+        long repriced = table.applyPrices(new String[] {"AAPL"}, new double[] {175.0});
+
+        assertEquals(1, repriced);
+        assertEquals(175.0, first.getAsset("AAPL").getMarketPrice(), 0.0);
+        assertEquals(second.auditPortfolio(), second.getNetAssetValue(), 1e-9);
+    }
+
+    @Test
+    void testPriceTableRepricesOnlySymbolsInBatch() {
+        first.addAsset(new Commodity("GOLD", "Gold", 2000.0), 1, DATE);
+        PriceTable table = new PriceTable();
+        table.setPrice("GOLD", 1900.0);
+        table.subscribe(registry);
+
+        long repriced = table.applyPrices(new String[] {"AAPL", "MSFT", "AAPL"}, new double[] {170.0, 300.0, 171.0});
+
+        assertEquals(1, repriced);
+        assertEquals(171.0, registry.get("AAPL").getMarketPrice(), 0.0);
+        assertEquals(2000.0, registry.get("GOLD").getMarketPrice(), 0.0);
+        assertNull(registry.get("MSFT"));
+        assertEquals(first.auditPortfolio(), first.getNetAssetValue(), 1e-9);
+        assertThrows(IllegalArgumentException.class,
+            () -> registry.applyPrices(new String[] {"AAPL"}, new double[] {1.0}, 2));
+    }
+
+    @Test
+    void testRepricingDoesNotDeadlockWithSettlement() throws Exception {
+        PriceTable table = new PriceTable();
+        table.subscribe(registry);
+        table.subscribe(first);
+        table.subscribe(second);
+        int rounds = 2000;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread pricer = new Thread(() -> {
+            try {
+                for (int i = 0; i < rounds; i++) {
+                    table.applyPrices(new String[] {"AAPL"}, new double[] {150.0 + i % 7});
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        Thread settler = new Thread(() -> {
+            try {
+                for (int i = 0; i < rounds; i++) {
+                    synchronized (second) {
+                        synchronized (first) {
+                            first.addAsset(new Share("S" + i, "Settled " + i, 1.0), 1, DATE);
+                            second.addAsset(new Share("AAPL", "Apple Inc.", 150.0), 1, DATE);
+                            second.sellAsset("AAPL", 1, 150.0);
+                        }
+                    }
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        pricer.setDaemon(true);
+        settler.setDaemon(true);
+        pricer.start();
+        settler.start();
+        pricer.join(30_000);
+        settler.join(30_000);
+
+        assertFalse(pricer.isAlive() || settler.isAlive(), "Przecena zakleszczyła się z rozliczeniem");
+        assertNull(failure.get());
+        assertEquals(rounds + 1, registry.size());
+        assertEquals(first.auditPortfolio(), first.getNetAssetValue(), 1e-6);
+        assertEquals(second.auditPortfolio(), second.getNetAssetValue(), 1e-6);
+    }
+
+    @Test
+    void testDiscardedPortfolioIsReleasedByCanonicalAsset() throws Exception {
+        Asset canonical = registry.get("AAPL");
+        WeakReference<Portfolio> discarded = holdAndDiscard(canonical);
+        assertEquals(3, registry.getSubscriberCount("AAPL"));
+
+        for (int i = 0; i < 50 && (discarded.get() != null || registry.getSubscriberCount("AAPL") != 2); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(discarded.get());
+        assertEquals(2, registry.getSubscriberCount("AAPL"));
+        assertEquals(1, canonical.getPriceListenerCount());
+
+        canonical.setMarketPrice(180.0);
+        assertEquals(first.auditPortfolio(), first.getNetAssetValue(), 1e-9);
+    }
+
+    @Test
+    void testSubscriptionsRequireCanonicalAsset() {
+        Asset canonical = registry.get("AAPL");
+        PriceListener listener = (asset, oldPrice, newPrice) -> { };
+
+        assertThrows(IllegalArgumentException.class,
+            () -> registry.subscribe(new Share("AAPL", "Apple Inc.", 150.0), listener));
+        registry.subscribe(canonical, listener);
+        registry.subscribe(canonical, listener);
+        assertEquals(3, registry.getSubscriberCount("AAPL"));
+        assertTrue(registry.unsubscribe(canonical, listener));
+        assertFalse(registry.unsubscribe(canonical, listener));
+        assertEquals(2, registry.getSubscriberCount("AAPL"));
+        assertEquals(0, registry.getSubscriberCount("MSFT"));
+    }
+
+    private WeakReference<Portfolio> holdAndDiscard(Asset canonical) {
+        Portfolio portfolio = new Portfolio(100000.0, registry);
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 150.0), 1, DATE);
+        assertSame(canonical, portfolio.getAsset("AAPL"));
+        return new WeakReference<>(portfolio);
+    }
+}
@@ -0,0 +1,183 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.Currency;
+import com.stockmarket.domain.PurchaseLot;
+import com.stockmarket.domain.Share;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ConcurrentPortfolioTest {
+    private static final int THREAD_COUNT = 8;
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 2);
+
+    private static List<Future<?>> runConcurrently(ExecutorService executor, int threads, TaskBody body) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int threadIndex = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                body.run(threadIndex);
+                return null;
+            }));
+        }
+        start.countDown();
+        return futures;
+    }
+
+    private interface TaskBody {
+        void run(int threadIndex) throws Exception;
+    }
+
+    private static void awaitAll(List<Future<?>> futures) throws Exception {
+        for (int i = 0; i < futures.size(); i++) {
+            futures.get(i).get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testConcurrentPurchasesAreAllRecorded() throws Exception {
+        ConcurrentPortfolio portfolio = new ConcurrentPortfolio(1000000.0);
+        int purchasesPerThread = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            awaitAll(runConcurrently(executor, THREAD_COUNT, threadIndex -> {
+                for (int i = 0; i < purchasesPerThread; i++) {
+                    portfolio.addAsset(new Currency("C" + (i % 16), "Waluta", 10.0, 0.0), 1, DATE);
+                }
+            }));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int total = 0;
+        for (int s = 0; s < 16; s++) {
+            total += portfolio.getAssetQuantity("C" + s);
+        }
+        assertEquals(THREAD_COUNT * purchasesPerThread, total);
+        assertEquals(1000000.0 - THREAD_COUNT * purchasesPerThread * 10.0, portfolio.getCash(), 0.0);
+        assertEquals(16, portfolio.getHoldingsCount());
+    }
+
+    @Test
+    void testCashIsNeverOverdrawn() throws Exception {
+        ConcurrentPortfolio portfolio = new ConcurrentPortfolio(1000.0);
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            awaitAll(runConcurrently(executor, THREAD_COUNT, threadIndex -> {
+                for (int i = 0; i < 100; i++) {
+                    try {
+                        portfolio.addAsset(new Currency("T" + threadIndex, "Waluta", 10.0, 0.0), 1, DATE);
+                    } catch (InsufficientFundsException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0.0, portfolio.getCash(), 0.0);
+        assertEquals(THREAD_COUNT * 100 - 100, rejected.get());
+    }
+
+    @Test
+    void testAuditSeesConsistentStateDuringTrading() throws Exception {
+        double initialCash = 1000000.0;
+        ConcurrentPortfolio portfolio = new ConcurrentPortfolio(initialCash, 4);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT + 1);
+        try {
+            List<Future<?>> traders = runConcurrently(executor, THREAD_COUNT, threadIndex -> {
+                Currency currency = new Currency("C" + threadIndex, "Waluta", 10.0, 0.0);
+                for (int i = 0; i < 3000; i++) {
+                    portfolio.addAsset(currency, 3, DATE);
+                    portfolio.sellAsset(currency.getSymbol(), 2, 10.0);
+                    portfolio.sellAsset(currency.getSymbol(), 1, 10.0);
+                }
+            });
+            Future<?> auditor = executor.submit(() -> {
+                int audits = 0;
+                while (running.get() || audits == 0) {
+                    assertEquals(initialCash, portfolio.auditPortfolio(), 0.0);
+                    Portfolio snapshot = portfolio.snapshot();
+                    assertEquals(initialCash, snapshot.auditPortfolio(), 0.0);
+                    audits++;
+                }
+                return audits;
+            });
+
+            awaitAll(traders);
+            running.set(false);
+            assertTrue((Integer) auditor.get(30, TimeUnit.SECONDS) > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(initialCash, portfolio.getCash(), 0.0);
+        assertEquals(0, portfolio.getHoldingsCount());
+    }
+
+    @Test
+    void testSingleThreadedBehaviourMatchesPortfolio() {
+        ConcurrentPortfolio concurrent = new ConcurrentPortfolio(100000.0);
+        Portfolio plain = new Portfolio(100000.0);
+        Share share = new Share("XYZ", "XYZ Company", 100.0);
+        concurrent.addAsset(share, 10, LocalDate.of(2023, 1, 1));
+        plain.addAsset(share, 10, LocalDate.of(2023, 1, 1));
+        share.setMarketPrice(120.0);
+        concurrent.addAsset(share, 10, LocalDate.of(2023, 2, 1));
+        plain.addAsset(share, 10, LocalDate.of(2023, 2, 1));
+
+        SaleResult expected = plain.sellAsset("XYZ", 15, 130.0);
+        SaleResult actual = concurrent.sellAsset("XYZ", 15, 130.0);
+
+        assertEquals(expected.getTotalProfit(), actual.getTotalProfit(), 0.0);
+        assertEquals(plain.getCash(), concurrent.getCash(), 0.0);
+        assertEquals(plain.getCostBasis("XYZ"), concurrent.getCostBasis("XYZ"), 0.0);
+        assertEquals(plain.auditPortfolio(), concurrent.auditPortfolio(), 0.0);
+
+        List<PurchaseLot> lots = concurrent.snapshot().getPurchaseLots("XYZ");
+        assertEquals(1, lots.size());
+        assertEquals(5, lots.get(0).getQuantity());
+        assertThrows(InsufficientAssetsException.class, () -> concurrent.sellAsset("XYZ", 6, 130.0));
+        assertThrows(InsufficientAssetsException.class, () -> concurrent.sellAsset("ABC", 1, 130.0));
+    }
+
+    @Test
+    void testRejectedPurchaseLeavesCashAndHoldingsUnchanged() {
+        ConcurrentPortfolio concurrent = new ConcurrentPortfolio(10000.0);
+        Share share = new Share("XYZ", "XYZ Company", 100.0);
+
+        assertThrows(IllegalArgumentException.class, () -> concurrent.addAsset(share, 10, LocalDate.MAX));
+        assertEquals(10000.0, concurrent.getCash(), 0.0);
+        assertEquals(0, concurrent.getHoldingsCount());
+
+        List<PurchaseLot> lots = new ArrayList<>();
+        lots.add(new PurchaseLot(LocalDate.of(2023, 1, 1), 100.0, 5));
+        lots.add(new PurchaseLot(LocalDate.MAX, 100.0, 5));
+        assertThrows(IllegalArgumentException.class, () -> concurrent.restoreHolding(share, lots));
+        assertEquals(0, concurrent.getHoldingsCount());
+        assertTrue(concurrent.getAllAssetSymbols().isEmpty());
+    }
+
+    @Test
+    void testStripeCountIsRoundedToPowerOfTwo() {
+        assertEquals(8, new ConcurrentPortfolio(0.0, 5).getStripeCount());
+        assertEquals(1, new ConcurrentPortfolio(0.0, 1).getStripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentPortfolio(0.0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentPortfolio(-1.0));
+    }
+}
@@ -0,0 +1,177 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.PurchaseLot;
+import com.stockmarket.domain.Share;
+import com.stockmarket.persistence.PortfolioPersistence;
+import com.stockmarket.persistence.SnapshotFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+class OffHeapHoldingsStoreTest {
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    @TempDir
+    Path tempDir;
+
+    private static void assertSameHoldings(Portfolio expected, Portfolio actual) {
+        List<String> expectedSymbols = expected.getAllAssetSymbols();
+        List<String> actualSymbols = actual.getAllAssetSymbols();
+        Collections.sort(expectedSymbols);
+        Collections.sort(actualSymbols);
+        assertEquals(expectedSymbols, actualSymbols);
+        assertEquals(expected.getHoldingsCount(), actual.getHoldingsCount());
+        assertEquals(expected.getCash(), actual.getCash(), 1e-6);
+        assertEquals(expected.auditPortfolio(), actual.auditPortfolio(), 1e-3);
+
+        for (int i = 0; i < expectedSymbols.size(); i++) {
+            String symbol = expectedSymbols.get(i);
+            assertEquals(expected.getAssetQuantity(symbol), actual.getAssetQuantity(symbol));
+            assertEquals(expected.getCostBasis(symbol), actual.getCostBasis(symbol), 1e-6);
+            assertEquals(expected.getAsset(symbol).getMarketPrice(), actual.getAsset(symbol).getMarketPrice(), 0.0);
+
+            PurchaseLotView expectedLots = expected.getPurchaseLots(symbol);
+            PurchaseLotView actualLots = actual.getPurchaseLots(symbol);
+            assertEquals(expectedLots.size(), actualLots.size());
+            for (int j = 0; j < expectedLots.size(); j++) {
+                assertEquals(expectedLots.getEpochDay(j), actualLots.getEpochDay(j));
+                assertEquals(expectedLots.getQuantity(j), actualLots.getQuantity(j));
+                assertEquals(expectedLots.getUnitPrice(j), actualLots.getUnitPrice(j), 0.0);
+            }
+        }
+    }
+
+    @Test
+    void testOffHeapBackendMatchesHeapBackendForRandomTrading() {
+        Portfolio heap = new Portfolio(1.0E12);
+        Portfolio offHeap = new Portfolio(1.0E12, HoldingsBackend.OFF_HEAP);
+        assertEquals(HoldingsBackend.HEAP, heap.getHoldingsBackend());
+        assertEquals(HoldingsBackend.OFF_HEAP, offHeap.getHoldingsBackend());
+
+        Random random = new Random(11);
+        for (int step = 0; step < 20000; step++) {
+            String symbol = "S" + random.nextInt(40);
+            if (random.nextInt(3) > 0) {
+                Share share = new Share(symbol, "Spółka " + symbol, 10.0 + random.nextInt(500));
+                int quantity = 1 + random.nextInt(20);
+                LocalDate date = START.plusDays(step);
+                heap.addAsset(share, quantity, date);
+                offHeap.addAsset(share, quantity, date);
+            } else {
+                int available = heap.getAssetQuantity(symbol);
+                if (available > 0) {
+                    int quantity = 1 + random.nextInt(available);
+                    double price = 10.0 + random.nextInt(500);
+                    SaleResult expected = heap.sellAsset(symbol, quantity, price);
+                    SaleResult actual = offHeap.sellAsset(symbol, quantity, price);
+                    assertEquals(expected.getTotalProfit(), actual.getTotalProfit(), 1e-6);
+                }
+            }
+
+            if (step % 1000 == 0) {
+                assertSameHoldings(heap, offHeap);
+            }
+        }
+        assertSameHoldings(heap, offHeap);
+    }
+
+    @Test
+    void testSellingWholePositionRemovesHoldingAndReusesSlot() {
+        Portfolio portfolio = new Portfolio(1.0E9, HoldingsBackend.OFF_HEAP);
+        Share share = new Share("AAA", "AAA SA", 100.0);
+        for (int i = 0; i < 100; i++) {
+            portfolio.addAsset(share, 1, START.plusDays(i));
+        }
+
+        portfolio.sellAsset("AAA", 100, 120.0);
+
+        assertEquals(0, portfolio.getHoldingsCount());
+        assertEquals(0, portfolio.getAssetQuantity("AAA"));
+        assertEquals(0.0, portfolio.getAverageCost("AAA"), 0.0);
+        assertNull(portfolio.getAsset("AAA"));
+        assertTrue(portfolio.getPurchaseLots("AAA").isEmpty());
+        assertThrows(InsufficientAssetsException.class, () -> portfolio.sellAsset("AAA", 1, 120.0));
+
+        Commodity gold = new Commodity("GOLD", "Złoto", 2000.0);
+        portfolio.addAsset(gold, 3, START);
+        assertEquals(1, portfolio.getHoldingsCount());
+        assertEquals(3, portfolio.getAssetQuantity("GOLD"));
+        assertEquals(1, portfolio.getPurchaseLots("GOLD").size());
+        assertEquals(2000.0, portfolio.getAverageCost("GOLD"), 0.0);
+    }
+
+    @Test
+    void testManySymbolsSurviveIndexGrowthAndRemoval() {
+        Portfolio portfolio = new Portfolio(1.0E12, HoldingsBackend.OFF_HEAP);
+        for (int i = 0; i < 5000; i++) {
+            portfolio.addAsset(new Share("SYM" + i, "Spółka " + i, 10.0 + i), 1 + i % 7, START);
+        }
+        for (int i = 0; i < 5000; i += 2) {
+            portfolio.sellAsset("SYM" + i, 1 + i % 7, 50.0);
+        }
+
+        assertEquals(2500, portfolio.getHoldingsCount());
+        assertEquals(2500, portfolio.getAllAssetSymbols().size());
+        for (int i = 0; i < 5000; i++) {
+            int expected = i % 2 == 0 ? 0 : 1 + i % 7;
+            assertEquals(expected, portfolio.getAssetQuantity("SYM" + i));
+        }
+    }
+
+    @Test
+    void testViewFailsFastAfterModification() {
+        Portfolio portfolio = new Portfolio(1.0E9, HoldingsBackend.OFF_HEAP);
+        Share share = new Share("XYZ", "XYZ SA", 100.0);
+        portfolio.addAsset(share, 10, START);
+        portfolio.addAsset(share, 10, START.plusDays(1));
+
+        PurchaseLotView lots = portfolio.getPurchaseLots("XYZ");
+        Iterator<PurchaseLot> iterator = lots.iterator();
+        iterator.next();
+        portfolio.sellAsset("XYZ", 5, 110.0);
+
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+        assertThrows(ConcurrentModificationException.class, () -> lots.get(0));
+        assertEquals(5, portfolio.getPurchaseLots("XYZ").getQuantity(0));
+    }
+
+    @Test
+    void testRejectsNullBackend() {
+        assertThrows(IllegalArgumentException.class, () -> new Portfolio(100.0, (HoldingsBackend) null));
+    }
+
+    @Test
+    void testSnapshotRoundTripFromOffHeapPortfolio() throws Exception {
+        Portfolio portfolio = new Portfolio(1.0E7, HoldingsBackend.OFF_HEAP);
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 150.0), 10, LocalDate.of(2023, 5, 10));
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 155.5), 5, LocalDate.of(2023, 6, 12));
+        portfolio.addAsset(new Commodity("GOLD", "Gold", 2000.0), 20, LocalDate.of(2023, 7, 1));
+        portfolio.sellAsset("AAPL", 12, 160.0);
+
+        PortfolioPersistence persistence = new PortfolioPersistence();
+        Path filePath = tempDir.resolve("portfolio.bin");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+        Portfolio loaded = persistence.loadPortfolio(filePath);
+
+        Portfolio restored = new Portfolio(loaded.getCash(), HoldingsBackend.OFF_HEAP);
+        List<String> symbols = new ArrayList<>(loaded.getAllAssetSymbols());
+        for (int i = 0; i < symbols.size(); i++) {
+            restored.restoreHolding(loaded.getAsset(symbols.get(i)), loaded.getPurchaseLots(symbols.get(i)));
+        }
+
+        assertEquals(portfolio.getAssetQuantity("AAPL"), loaded.getAssetQuantity("AAPL"));
+        assertEquals(portfolio.getAssetQuantity("GOLD"), loaded.getAssetQuantity("GOLD"));
+        assertEquals(portfolio.getPurchaseLots("AAPL").getEpochDay(0), loaded.getPurchaseLots("AAPL").getEpochDay(0));
+        assertSameHoldings(loaded, restored);
+    }
+}
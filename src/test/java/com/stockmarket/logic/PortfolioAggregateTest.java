@@ -0,0 +1,82 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.PurchaseLot;
+import com.stockmarket.domain.Share;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+class PortfolioAggregateTest {
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio(1000000.0);
+    }
+
+    private void assertAggregatesMatchLots(String symbol) {
+        List<PurchaseLot> lots = portfolio.getPurchaseLots(symbol);
+        int quantity = 0;
+        double cost = 0.0;
+        for (int i = 0; i < lots.size(); i++) {
+            quantity += lots.get(i).getQuantity();
+            cost += lots.get(i).getTotalValue();
+        }
+        assertEquals(quantity, portfolio.getAssetQuantity(symbol));
+        assertEquals(cost, portfolio.getCostBasis(symbol), 0.0001);
+    }
+
+    @Test
+    void testAggregatesAfterPurchases() {
+        portfolio.addAsset(new Share("XYZ", "XYZ Company", 100.0), 10, LocalDate.of(2023, 1, 1));
+        portfolio.addAsset(new Share("XYZ", "XYZ Company", 120.0), 10, LocalDate.of(2023, 2, 1));
+
+        assertEquals(20, portfolio.getAssetQuantity("XYZ"));
+        assertEquals(2200.0, portfolio.getCostBasis("XYZ"), 0.01);
+        assertEquals(110.0, portfolio.getAverageCost("XYZ"), 0.01);
+        assertAggregatesMatchLots("XYZ");
+    }
+
+    @Test
+    void testAggregatesAfterPartialSale() {
+        portfolio.addAsset(new Share("XYZ", "XYZ Company", 100.0), 10, LocalDate.of(2023, 1, 1));
+        portfolio.addAsset(new Share("XYZ", "XYZ Company", 120.0), 10, LocalDate.of(2023, 2, 1));
+
+        portfolio.sellAsset("XYZ", 15, 150.0);
+
+        assertEquals(5, portfolio.getAssetQuantity("XYZ"));
+        assertEquals(600.0, portfolio.getCostBasis("XYZ"), 0.01);
+        assertEquals(120.0, portfolio.getAverageCost("XYZ"), 0.01);
+        assertAggregatesMatchLots("XYZ");
+    }
+
+    @Test
+    void testAggregatesResetAfterFullSale() {
+        portfolio.addAsset(new Commodity("GOLD", "Gold", 2000.0), 3, LocalDate.of(2023, 7, 1));
+
+        portfolio.sellAsset("GOLD", 3, 2100.0);
+
+        assertEquals(0, portfolio.getAssetQuantity("GOLD"));
+        assertEquals(0.0, portfolio.getCostBasis("GOLD"), 0.0);
+        assertEquals(0.0, portfolio.getAverageCost("GOLD"), 0.0);
+    }
+
+    @Test
+    void testAggregatesStayConsistentOverManyLots() {
+        Share share = new Share("DCA", "Dollar Cost", 50.0);
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 1000; i++) {
+            share.setMarketPrice(50.0 + (i % 17));
+            portfolio.addAsset(share, 1 + (i % 5), date.plusDays(i));
+        }
+
+        portfolio.sellAsset("DCA", 777, 60.0);
+        portfolio.sellAsset("DCA", 5, 60.0);
+
+        assertAggregatesMatchLots("DCA");
+    }
+}
@@ -1,11 +1,14 @@
 package com.stockmarket.logic;
 
+import com.stockmarket.domain.PurchaseLot;
 import com.stockmarket.domain.Share;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 
 class PortfolioExceptionTest {
     private Portfolio portfolio;
@@ -52,4 +55,25 @@ class PortfolioExceptionTest {
         
         assertTrue(exception.getMessage().contains("Niewystarczająca gotówka"));
     }
+
+    @Test
+    void testRejectedPurchaseLeavesPortfolioUnchanged() {
+        HoldingsBackend[] backends = HoldingsBackend.values();
+        for (int b = 0; b < backends.length; b++) {
+            Portfolio target = new Portfolio(1000.0, backends[b]);
+            Share share = new Share("AAPL", "Apple", 10.0);
+
+            assertThrows(IllegalArgumentException.class, () -> target.addAsset(share, 1, LocalDate.MAX));
+            List<PurchaseLot> lots = Arrays.asList(
+                    new PurchaseLot(LocalDate.of(2023, 1, 1), 10.0, 1),
+                    new PurchaseLot(LocalDate.MIN, 10.0, 1));
+            assertThrows(IllegalArgumentException.class, () -> target.restoreHolding(share, lots));
+
+            assertTrue(target.getAllAssetSymbols().isEmpty());
+            assertEquals(0, target.getHoldingsCount());
+            assertEquals(1000.0, target.getCash(), 0.0);
+            assertEquals(1000.0, target.getNetAssetValue(), 0.0);
+            assertEquals(1000.0, target.auditPortfolio(), 0.0);
+        }
+    }
 }
@@ -0,0 +1,114 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.Currency;
+import com.stockmarket.domain.PurchaseLot;
+import com.stockmarket.domain.Share;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class PortfolioNetAssetValueTest {
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 2);
+
+    private static Asset newAsset(int index, double price) {
+        switch (index % 3) {
+            case 0:
+                return new Share("S" + index, "Spółka " + index, price);
+            case 1:
+                return new Commodity("C" + index, "Surowiec " + index, price);
+            default:
+                return new Currency("F" + index, "Waluta " + index, price, 0.01);
+        }
+    }
+
+    private static void runRandomTrading(Portfolio portfolio) {
+        Random random = new Random(21);
+        for (int step = 0; step < 20000; step++) {
+            int action = random.nextInt(10);
+            int index = random.nextInt(60);
+            String symbol = newAsset(index, 1.0).getSymbol();
+            if (action < 4) {
+                portfolio.addAsset(newAsset(index, 5.0 + random.nextInt(100)), 1 + random.nextInt(20), DATE);
+            } else if (action < 6) {
+                int available = portfolio.getAssetQuantity(symbol);
+                if (available > 0) {
+                    portfolio.sellAsset(symbol, 1 + random.nextInt(available), 5.0 + random.nextInt(100));
+                }
+            } else {
+                Asset held = portfolio.getAsset(symbol);
+                if (held != null) {
+                    held.setMarketPrice(1.0 + random.nextInt(10000) / 100.0);
+                }
+            }
+
+            double expected = portfolio.getCash();
+            List<String> held = portfolio.getAllAssetSymbols();
+            for (int i = 0; i < held.size(); i++) {
+                expected += portfolio.getAsset(held.get(i)).calculateRealValue(portfolio.getAssetQuantity(held.get(i)));
+            }
+            assertEquals(expected, portfolio.getNetAssetValue(), 1e-6 * Math.max(1.0, Math.abs(expected)));
+        }
+    }
+
+    @Test
+    void testNetAssetValueTracksTradesAndPriceChanges() {
+        runRandomTrading(new Portfolio(1.0E9));
+    }
+
+    @Test
+    void testNetAssetValueTracksOffHeapHoldings() {
+        runRandomTrading(new Portfolio(1.0E9, HoldingsBackend.OFF_HEAP));
+    }
+
+    @Test
+    void testDetachedAssetsNoLongerAffectValue() {
+        Portfolio portfolio = new Portfolio(100000.0);
+        Share share = new Share("AAA", "AAA SA", 100.0);
+        portfolio.addAsset(share, 10, DATE);
+
+        share.setMarketPrice(500.0);
+        assertEquals(portfolio.auditPortfolio(), portfolio.getNetAssetValue(), 1e-9);
+
+        Asset held = portfolio.getAsset("AAA");
+        portfolio.sellAsset("AAA", 10, 120.0);
+        held.setMarketPrice(1000.0);
+
+        assertEquals(0, held.getPriceListenerCount());
+        assertEquals(portfolio.getCash(), portfolio.getNetAssetValue(), 1e-9);
+    }
+
+    @Test
+    void testRestoredHoldingsAreTracked() {
+        Portfolio portfolio = new Portfolio(1000.0);
+        List<PurchaseLot> lots = new ArrayList<>();
+        lots.add(new PurchaseLot(DATE, 10.0, 5));
+        lots.add(new PurchaseLot(DATE.plusDays(1), 12.0, 7));
+        portfolio.restoreHolding(new Commodity("OIL", "Ropa", 11.0), lots);
+
+        assertEquals(1000.0 + 12 * 11.0 - 12 * 1.0, portfolio.getNetAssetValue(), 1e-9);
+        portfolio.getAsset("OIL").setMarketPrice(20.0);
+        assertEquals(1000.0 + 12 * 20.0 - 12 * 1.0, portfolio.getNetAssetValue(), 1e-9);
+    }
+
+    @Test
+    void testPeriodicAuditResynchronisesValue() {
+        Portfolio portfolio = new Portfolio(1.0E6);
+        portfolio.setNavAuditInterval(3);
+        portfolio.addAsset(new Share("AAA", "AAA SA", 0.1), 3, DATE);
+        Asset held = portfolio.getAsset("AAA");
+        for (int i = 0; i < 10; i++) {
+            held.setMarketPrice(0.1 + i * 0.1);
+        }
+
+        double live = portfolio.getNetAssetValue();
+        assertEquals(portfolio.auditPortfolio(), live, 0.0);
+        assertEquals(3, portfolio.getNavAuditInterval());
+        assertThrows(IllegalArgumentException.class, () -> portfolio.setNavAuditInterval(0));
+    }
+}
@@ -0,0 +1,116 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.Order;
+import com.stockmarket.domain.OrderType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioOrderCancellationTest {
+    private Portfolio portfolio;
+    private static final double MARKET_PRICE = 110.0;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio(100000.0);
+    }
+
+    @Test
+    void testAddOrderAssignsDistinctIds() {
+        long first = portfolio.addOrder(new Order("AAPL", OrderType.BUY, 10, 100.0, MARKET_PRICE));
+        long second = portfolio.addOrder(new Order("AAPL", OrderType.BUY, 10, 100.0, MARKET_PRICE));
+
+        assertNotEquals(first, second);
+        assertEquals(2, portfolio.getPendingOrderCount());
+    }
+
+    @Test
+    void testCancelHeadOrder() {
+        Order best = new Order("AAPL", OrderType.BUY, 10, 108.0, MARKET_PRICE);
+        Order other = new Order("AAPL", OrderType.BUY, 10, 100.0, MARKET_PRICE);
+        long bestId = portfolio.addOrder(best);
+        portfolio.addOrder(other);
+
+        assertSame(best, portfolio.cancelOrder(bestId));
+        assertSame(other, portfolio.peekNextOrder());
+        assertNull(portfolio.getPendingOrder(bestId));
+    }
+
+    @Test
+    void testCancelUnknownOrderReturnsNull() {
+        long id = portfolio.addOrder(new Order("AAPL", OrderType.BUY, 10, 100.0, MARKET_PRICE));
+        portfolio.pollNextOrder();
+
+        assertNull(portfolio.cancelOrder(id));
+        assertNull(portfolio.cancelOrder(12345L));
+    }
+
+    @Test
+    void testAmendPriceRepositionsOrder() {
+        long lowId = portfolio.addOrder(new Order("AAPL", OrderType.BUY, 10, 100.0, MARKET_PRICE));
+        portfolio.addOrder(new Order("AAPL", OrderType.BUY, 10, 105.0, MARKET_PRICE));
+
+        assertTrue(portfolio.amendOrder(lowId, 20, 107.0));
+
+        Order next = portfolio.pollNextOrder();
+        assertEquals(107.0, next.getLimitPrice(), 0.0);
+        assertEquals(20, next.getQuantity());
+    }
+
+    @Test
+    void testAmendQuantityDownKeepsTimePriority() {
+        long firstId = portfolio.addOrder(new Order("AAPL", OrderType.SELL, 10, 112.0, MARKET_PRICE));
+        Order second = new Order("AAPL", OrderType.SELL, 10, 112.0, MARKET_PRICE);
+        portfolio.addOrder(second);
+
+        assertTrue(portfolio.amendOrder(firstId, 4, 112.0));
+
+        assertEquals(4, portfolio.pollNextOrder().getQuantity());
+        assertSame(second, portfolio.pollNextOrder());
+    }
+
+    @Test
+    void testAmendQuantityUpLosesTimePriority() {
+        long firstId = portfolio.addOrder(new Order("AAPL", OrderType.SELL, 10, 112.0, MARKET_PRICE));
+        Order second = new Order("AAPL", OrderType.SELL, 10, 112.0, MARKET_PRICE);
+        portfolio.addOrder(second);
+
+        assertTrue(portfolio.amendOrder(firstId, 15, 112.0));
+
+        assertSame(second, portfolio.pollNextOrder());
+        assertEquals(15, portfolio.pollNextOrder().getQuantity());
+    }
+
+    @Test
+    void testAmendRejectsInvalidValues() {
+        long id = portfolio.addOrder(new Order("AAPL", OrderType.BUY, 10, 100.0, MARKET_PRICE));
+
+        assertThrows(IllegalArgumentException.class, () -> portfolio.amendOrder(id, 0, 100.0));
+        assertFalse(portfolio.amendOrder(id + 1, 10, 100.0));
+        assertEquals(10, portfolio.getPendingOrder(id).getQuantity());
+    }
+
+    @Test
+    void testCancelHeavyWorkloadKeepsHeapOrder() {
+        int count = 20000;
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            double price = 50.0 + (i * 7919 % 1000) * 0.1;
+            ids[i] = portfolio.addOrder(new Order("AAPL", OrderType.BUY, 1, price, MARKET_PRICE));
+        }
+        for (int i = 0; i < count; i++) {
+            if (i % 10 != 0) {
+                assertNotNull(portfolio.cancelOrder(ids[i]));
+            }
+        }
+
+        assertEquals(count / 10, portfolio.getPendingOrderCount());
+        double previous = Double.MAX_VALUE;
+        Order order = portfolio.pollNextOrder();
+        while (order != null) {
+            assertTrue(order.getLimitPrice() <= previous);
+            previous = order.getLimitPrice();
+            order = portfolio.pollNextOrder();
+        }
+    }
+}
@@ -6,6 +6,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 class PortfolioPriorityQueueTest {
     private Portfolio portfolio;
     private static final double MARKET_PRICE = 110.0;
@@ -66,4 +69,110 @@ class PortfolioPriorityQueueTest {
         Order next3 = portfolio.pollNextOrder();
         assertEquals(100.0, next3.getLimitPrice(), 0.01);
     }
+
+    @Test
+    void testEqualPriceOrdersDequeuedInArrivalOrder() {
+        Order first = new Order("AAPL", OrderType.BUY, 10, 105.0, MARKET_PRICE);
+        Order second = new Order("MSFT", OrderType.BUY, 20, 105.0, MARKET_PRICE);
+        Order third = new Order("GOOGL", OrderType.BUY, 30, 105.0, MARKET_PRICE);
+
+        portfolio.addOrder(first);
+        portfolio.addOrder(second);
+        portfolio.addOrder(third);
+
+        assertSame(first, portfolio.pollNextOrder());
+        assertSame(second, portfolio.pollNextOrder());
+        assertSame(third, portfolio.pollNextOrder());
+    }
+
+    @Test
+    void testPriceTakesPrecedenceOverArrivalOrder() {
+        Order early = new Order("AAPL", OrderType.SELL, 10, 112.0, MARKET_PRICE);
+        Order late = new Order("AAPL", OrderType.SELL, 10, 111.0, MARKET_PRICE);
+        Order lateEqual = new Order("AAPL", OrderType.SELL, 5, 112.0, MARKET_PRICE);
+
+        portfolio.addOrder(early);
+        portfolio.addOrder(late);
+        portfolio.addOrder(lateEqual);
+
+        assertSame(late, portfolio.pollNextOrder());
+        assertSame(early, portfolio.pollNextOrder());
+        assertSame(lateEqual, portfolio.pollNextOrder());
+    }
+
+    @Test
+    void testBulkLoadedOrdersDequeueInPriorityOrder() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            orders.add(new Order("AAPL", OrderType.BUY, 1 + i, 90.0 + (i * 37 % 100) * 0.25, MARKET_PRICE));
+        }
+
+        long[] ids = portfolio.addOrders(orders);
+
+        assertEquals(1000, ids.length);
+        assertEquals(1000, portfolio.getPendingOrderCount());
+        double previous = Double.MAX_VALUE;
+        Order order = portfolio.pollNextOrder();
+        while (order != null) {
+            assertTrue(order.getLimitPrice() <= previous);
+            previous = order.getLimitPrice();
+            order = portfolio.pollNextOrder();
+        }
+    }
+
+    @Test
+    void testBulkLoadKeepsArrivalOrderAmongEqualPrices() {
+        Order existing = new Order("AAPL", OrderType.BUY, 1, 100.0, MARKET_PRICE);
+        portfolio.addOrder(existing);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            orders.add(new Order("AAPL", OrderType.BUY, 2 + i, 100.0, MARKET_PRICE));
+        }
+
+        long[] ids = portfolio.addOrders(orders);
+
+        assertSame(existing, portfolio.pollNextOrder());
+        for (int i = 0; i < orders.size(); i++) {
+            assertSame(orders.get(i), portfolio.pollNextOrder());
+        }
+        assertNull(portfolio.cancelOrder(ids[0]));
+    }
+
+    @Test
+    void testBulkLoadedOrdersCanBeCancelled() {
+        List<Order> orders = new ArrayList<>();
+        orders.add(new Order("AAPL", OrderType.SELL, 10, 111.0, MARKET_PRICE));
+        orders.add(new Order("AAPL", OrderType.SELL, 10, 110.0, MARKET_PRICE));
+
+        long[] ids = portfolio.addOrders(orders);
+
+        assertSame(orders.get(1), portfolio.cancelOrder(ids[1]));
+        assertSame(orders.get(0), portfolio.peekNextOrder());
+    }
+
+    @Test
+    void testDrainOrdersInBatches() {
+        for (int i = 0; i < 25; i++) {
+            portfolio.addOrder(new Order("AAPL", OrderType.BUY, 1, 100.0 + i, MARKET_PRICE));
+        }
+
+        List<Order> batch = new ArrayList<>();
+        assertEquals(10, portfolio.drainOrders(10, batch::add));
+        assertEquals(124.0, batch.get(0).getLimitPrice(), 0.0);
+        assertEquals(115.0, batch.get(9).getLimitPrice(), 0.0);
+        assertEquals(10, portfolio.drainOrders(10, batch::add));
+        assertEquals(5, portfolio.drainOrders(10, batch::add));
+        assertEquals(0, portfolio.drainOrders(10, batch::add));
+        assertEquals(25, batch.size());
+    }
+
+    @Test
+    void testAddOrdersRejectsNullElement() {
+        List<Order> orders = new ArrayList<>();
+        orders.add(new Order("AAPL", OrderType.BUY, 1, 100.0, MARKET_PRICE));
+        orders.add(null);
+
+        assertThrows(IllegalArgumentException.class, () -> portfolio.addOrders(orders));
+        assertEquals(0, portfolio.getPendingOrderCount());
+    }
 }
@@ -0,0 +1,120 @@
+package com.stockmarket.logic;
+
+import com.stockmarket.domain.PurchaseLot;
+import com.stockmarket.domain.Share;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+class PurchaseLotStoreTest {
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    private Portfolio portfolio;
+    private Share share;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio(1.0E12);
+        share = new Share("XYZ", "XYZ Company", 100.0);
+    }
+
+    @Test
+    void testInterleavedBuysAndSellsMatchReferenceFifo() {
+        Deque<int[]> reference = new ArrayDeque<>();
+        Random random = new Random(7);
+        int day = 0;
+        for (int round = 0; round < 50; round++) {
+            int buys = 1 + random.nextInt(200);
+            for (int i = 0; i < buys; i++) {
+                int quantity = 1 + random.nextInt(10);
+                share.setMarketPrice(50.0 + random.nextInt(100));
+                portfolio.addAsset(share, quantity, START.plusDays(day));
+                reference.addLast(new int[] {day, quantity, (int) share.getMarketPrice()});
+                day++;
+            }
+
+            int toSell = random.nextInt(portfolio.getAssetQuantity("XYZ") + 1);
+            if (toSell > 0) {
+                portfolio.sellAsset("XYZ", toSell, 120.0);
+            }
+            while (toSell > 0) {
+                int[] head = reference.peekFirst();
+                if (head[1] <= toSell) {
+                    toSell -= head[1];
+                    reference.pollFirst();
+                } else {
+                    head[1] -= toSell;
+                    toSell = 0;
+                }
+            }
+
+            PurchaseLotView lots = portfolio.getPurchaseLots("XYZ");
+            assertEquals(reference.size(), lots.size());
+            int index = 0;
+            for (int[] expected : reference) {
+                assertEquals(START.plusDays(expected[0]).toEpochDay(), lots.getEpochDay(index));
+                assertEquals(expected[1], lots.getQuantity(index));
+                assertEquals(expected[2], lots.getUnitPrice(index), 0.0);
+                index++;
+            }
+        }
+    }
+
+    @Test
+    void testViewIsReadOnlyAndMaterializesLotsOnDemand() {
+        portfolio.addAsset(share, 10, START);
+        share.setMarketPrice(110.0);
+        portfolio.addAsset(share, 5, START.plusDays(1));
+
+        List<PurchaseLot> lots = portfolio.getPurchaseLots("XYZ");
+
+        assertEquals(2, lots.size());
+        PurchaseLot second = lots.get(1);
+        assertEquals(START.plusDays(1), second.getPurchaseDate());
+        assertEquals(5, second.getQuantity());
+        assertEquals(110.0, second.getUnitPrice(), 0.0);
+        assertNotSame(lots.get(0), lots.get(0));
+        lots.get(0).setQuantity(1);
+        assertEquals(15, portfolio.getAssetQuantity("XYZ"));
+        assertEquals(10, lots.get(0).getQuantity());
+
+        assertThrows(UnsupportedOperationException.class, () -> lots.add(second));
+        assertThrows(UnsupportedOperationException.class, () -> lots.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> lots.get(2));
+        assertTrue(portfolio.getPurchaseLots("ABC").isEmpty());
+    }
+
+    @Test
+    void testViewFailsFastAfterHoldingChanges() {
+        portfolio.addAsset(share, 10, START);
+        PurchaseLotView lots = portfolio.getPurchaseLots("XYZ");
+
+        portfolio.sellAsset("XYZ", 3, 120.0);
+
+        assertThrows(ConcurrentModificationException.class, lots::size);
+        assertThrows(ConcurrentModificationException.class, () -> lots.getQuantity(0));
+        assertEquals(7, portfolio.getPurchaseLots("XYZ").getQuantity(0));
+    }
+
+    @Test
+    void testRestoreHoldingCopiesFromAnotherView() {
+        for (int i = 0; i < 100; i++) {
+            portfolio.addAsset(share, 1 + i, START.plusDays(i));
+        }
+        Portfolio copy = new Portfolio(0.0);
+        copy.restoreHolding(share, portfolio.getPurchaseLots("XYZ"));
+        portfolio.sellAsset("XYZ", 50, 120.0);
+
+        assertEquals(5050, copy.getAssetQuantity("XYZ"));
+        assertEquals(portfolio.getCostBasis("XYZ") + 50 * 100.0, copy.getCostBasis("XYZ"), 1e-6);
+        assertEquals(100, copy.getPurchaseLots("XYZ").size());
+        assertEquals(1, copy.getPurchaseLots("XYZ").getQuantity(0));
+    }
+}
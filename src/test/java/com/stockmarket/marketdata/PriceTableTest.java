@@ -0,0 +1,116 @@
+package com.stockmarket.marketdata;
+
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.persistence.DataIntegrityException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+class PriceTableTest {
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 6);
+
+    private PriceTable table;
+    private Portfolio first;
+    private Portfolio second;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        table = new PriceTable();
+        first = new Portfolio(100000.0);
+        first.addAsset(new Share("AAPL", "Apple Inc.", 150.0), 10, DATE);
+        first.addAsset(new Commodity("GOLD", "Złoto", 2000.0), 2, DATE);
+        second = new Portfolio(100000.0);
+        second.addAsset(new Share("AAPL", "Apple Inc.", 150.0), 5, DATE);
+        table.subscribe(first);
+        table.subscribe(second);
+    }
+
+    @Test
+    void testBatchRepricesAllSubscribedPortfolios() {
+        List<PriceTick> ticks = new ArrayList<>();
+        ticks.add(new PriceTick("AAPL", 160.0));
+        ticks.add(new PriceTick("GOLD", 2100.0));
+        ticks.add(new PriceTick("MSFT", 300.0));
+
+        long repriced = table.applyPrices(ticks);
+
+        assertEquals(3, repriced);
+        assertEquals(160.0, first.getAsset("AAPL").getMarketPrice(), 0.0);
+        assertEquals(2100.0, first.getAsset("GOLD").getMarketPrice(), 0.0);
+        assertEquals(160.0, second.getAsset("AAPL").getMarketPrice(), 0.0);
+        assertEquals(first.auditPortfolio(), first.getNetAssetValue(), 1e-9);
+        assertEquals(300.0, table.getPrice("MSFT"), 0.0);
+        assertTrue(Double.isNaN(table.getPrice("XYZ")));
+        assertEquals(3, table.size());
+
+        assertEquals(0, table.applyPrices(ticks));
+    }
+
+    @Test
+    void testUnsubscribedPortfolioKeepsItsPrices() {
+        assertTrue(table.unsubscribe(second));
+        table.applyPrices(new String[] {"AAPL"}, new double[] {170.0});
+
+        assertEquals(170.0, first.getAsset("AAPL").getMarketPrice(), 0.0);
+        assertEquals(150.0, second.getAsset("AAPL").getMarketPrice(), 0.0);
+        assertEquals(1, table.getSubscriberCount());
+    }
+
+    @Test
+    void testInvalidBatchIsRejectedWithoutChanges() {
+        assertThrows(IllegalArgumentException.class,
+            () -> table.applyPrices(new String[] {"AAPL", "GOLD"}, new double[] {170.0, -1.0}));
+        assertThrows(IllegalArgumentException.class,
+            () -> table.applyPrices(new String[] {"AAPL"}, new double[] {170.0, 1.0}));
+
+        assertTrue(Double.isNaN(table.getPrice("AAPL")));
+        assertEquals(150.0, first.getAsset("AAPL").getMarketPrice(), 0.0);
+    }
+
+    @Test
+    void testTickFileIsAppliedToSubscribers() throws Exception {
+        Path file = tempDir.resolve("ticks.txt");
+        String content = "TICK | AAPL | 151.5\n\nTICK | GOLD | 1999.25\nTICK | AAPL | 152.75\n";
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+
+        long repriced = table.applyTickFile(file);
+
+        assertEquals(3, repriced);
+        assertEquals(152.75, table.getPrice("AAPL"), 0.0);
+        assertEquals(152.75, second.getAsset("AAPL").getMarketPrice(), 0.0);
+        assertEquals(1999.25, first.getAsset("GOLD").getMarketPrice(), 0.0);
+    }
+
+    @Test
+    void testMalformedTickLinesAreReported() {
+        TickFileReader reader = new TickFileReader();
+        String[] invalid = {
+            "TICK | AAPL",
+            "QUOTE | AAPL | 10.0",
+            "TICK |  | 10.0",
+            "TICK | AAPL | abc",
+            "TICK | AAPL | -5",
+            "TICK | AAPL | 10.0 | 1"
+        };
+        for (int i = 0; i < invalid.length; i++) {
+            String line = invalid[i];
+            DataIntegrityException e = assertThrows(DataIntegrityException.class,
+                () -> reader.read(new StringReader("TICK | MSFT | 1.0\n" + line)));
+            assertTrue(e.getMessage().contains("linia 2"), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.stockmarket.matching;
+
+import com.stockmarket.domain.Order;
+import com.stockmarket.domain.OrderType;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.InsufficientAssetsException;
+import com.stockmarket.logic.InsufficientFundsException;
+import com.stockmarket.logic.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+class MatchingEngineTest {
+    private static final LocalDate TRADE_DATE = LocalDate.of(2024, 3, 1);
+    private static final double MARKET_PRICE = 100.0;
+
+    private MatchingEngine engine;
+    private Portfolio seller;
+    private Portfolio buyer;
+
+    @BeforeEach
+    void setUp() {
+        engine = new MatchingEngine();
+        seller = new Portfolio(100000.0);
+        buyer = new Portfolio(100000.0);
+        seller.addAsset(new Share("AAPL", "Apple", MARKET_PRICE), 100, LocalDate.of(2023, 1, 1));
+    }
+
+    @Test
+    void testNonCrossingOrdersRestOnSeparateSides() {
+        engine.submit(new Order("AAPL", OrderType.SELL, 10, 105.0, MARKET_PRICE), seller, TRADE_DATE);
+        List<Fill> fills = engine.submit(new Order("AAPL", OrderType.BUY, 10, 100.0, MARKET_PRICE), buyer, TRADE_DATE);
+
+        assertTrue(fills.isEmpty());
+        OrderBook book = engine.getOrderBook("AAPL");
+        assertEquals(100.0, book.getBestBid(), 0.0);
+        assertEquals(105.0, book.getBestAsk(), 0.0);
+        assertEquals(2, book.getRestingOrderCount());
+    }
+
+    @Test
+    void testCrossingOrderFillsAtRestingPriceAndSettles() {
+        engine.submit(new Order("AAPL", OrderType.SELL, 10, 101.0, MARKET_PRICE), seller, TRADE_DATE);
+        List<Fill> fills = engine.submit(new Order("AAPL", OrderType.BUY, 10, 103.0, MARKET_PRICE), buyer, TRADE_DATE);
+
+        assertEquals(1, fills.size());
+        assertEquals(10, fills.get(0).getQuantity());
+        assertEquals(101.0, fills.get(0).getPrice(), 0.0);
+        assertEquals(90, seller.getAssetQuantity("AAPL"));
+        assertEquals(10, buyer.getAssetQuantity("AAPL"));
+        assertEquals(101.0, buyer.getAverageCost("AAPL"), 0.0001);
+        assertTrue(engine.getOrderBook("AAPL").isEmpty());
+    }
+
+    @Test
+    void testPriceTimePriorityAcrossLevels() {
+        Order firstAt101 = new Order("AAPL", OrderType.SELL, 5, 101.0, MARKET_PRICE);
+        Order secondAt101 = new Order("AAPL", OrderType.SELL, 5, 101.0, MARKET_PRICE);
+        Order at100 = new Order("AAPL", OrderType.SELL, 5, 100.0, MARKET_PRICE);
+        engine.submit(firstAt101, seller, TRADE_DATE);
+        engine.submit(secondAt101, seller, TRADE_DATE);
+        engine.submit(at100, seller, TRADE_DATE);
+
+        List<Fill> fills = engine.submit(new Order("AAPL", OrderType.BUY, 12, 101.0, MARKET_PRICE), buyer, TRADE_DATE);
+
+        assertEquals(3, fills.size());
+        assertSame(at100, fills.get(0).getSellOrder());
+        assertSame(firstAt101, fills.get(1).getSellOrder());
+        assertSame(secondAt101, fills.get(2).getSellOrder());
+        assertEquals(2, fills.get(2).getQuantity());
+        assertEquals(3, engine.getOrderBook("AAPL").getAskQuantity(101.0));
+    }
+
+    @Test
+    void testPartiallyFilledIncomingOrderRestsRemainder() {
+        engine.submit(new Order("AAPL", OrderType.SELL, 4, 100.0, MARKET_PRICE), seller, TRADE_DATE);
+        engine.submit(new Order("AAPL", OrderType.BUY, 10, 100.0, MARKET_PRICE), buyer, TRADE_DATE);
+
+        OrderBook book = engine.getOrderBook("AAPL");
+        assertEquals(0, book.getAskLevelCount());
+        assertEquals(6, book.getBidQuantity(100.0));
+    }
+
+    @Test
+    void testRestingSellWithoutAssetsIsDropped() {
+        Portfolio emptySeller = new Portfolio(1000.0);
+        engine.submit(new Order("AAPL", OrderType.SELL, 10, 99.0, MARKET_PRICE), emptySeller, TRADE_DATE);
+        engine.submit(new Order("AAPL", OrderType.SELL, 10, 100.0, MARKET_PRICE), seller, TRADE_DATE);
+
+        List<Fill> fills = engine.submit(new Order("AAPL", OrderType.BUY, 10, 100.0, MARKET_PRICE), buyer, TRADE_DATE);
+
+        assertEquals(1, fills.size());
+        assertEquals(100.0, fills.get(0).getPrice(), 0.0);
+        assertEquals(10, buyer.getAssetQuantity("AAPL"));
+        assertTrue(engine.getOrderBook("AAPL").isEmpty());
+    }
+
+    @Test
+    void testIncomingBuyWithoutCashIsRejected() {
+        Portfolio poorBuyer = new Portfolio(50.0);
+        engine.submit(new Order("AAPL", OrderType.SELL, 10, 100.0, MARKET_PRICE), seller, TRADE_DATE);
+
+        InsufficientFundsException exception = assertThrows(InsufficientFundsException.class,
+            () -> engine.submit(new Order("AAPL", OrderType.BUY, 10, 100.0, MARKET_PRICE), poorBuyer, TRADE_DATE));
+
+        assertTrue(exception.getMessage().endsWith("Zrealizowano: 0, odrzucono: 10"), exception.getMessage());
+        assertEquals(0, poorBuyer.getAssetQuantity("AAPL"));
+        assertEquals(10, engine.getOrderBook("AAPL").getAskQuantity(100.0));
+        assertEquals(0, engine.getOrderBook("AAPL").getBidLevelCount());
+    }
+
+    @Test
+    void testIncomingBuyRunningOutOfCashReportsRejectedRemainder() {
+        Portfolio poorBuyer = new Portfolio(520.0);
+        engine.submit(new Order("AAPL", OrderType.SELL, 5, 100.0, MARKET_PRICE), seller, TRADE_DATE);
+        engine.submit(new Order("AAPL", OrderType.SELL, 5, 101.0, MARKET_PRICE), seller, TRADE_DATE);
+
+        List<Fill> fills = new ArrayList<>();
+        InsufficientFundsException exception = assertThrows(InsufficientFundsException.class,
+            () -> engine.submit(new Order("AAPL", OrderType.BUY, 10, 101.0, MARKET_PRICE), poorBuyer, TRADE_DATE, fills));
+
+        assertTrue(exception.getMessage().endsWith("Zrealizowano: 5, odrzucono: 5"), exception.getMessage());
+        assertEquals(1, fills.size());
+        assertEquals(5, poorBuyer.getAssetQuantity("AAPL"));
+        assertEquals(5, engine.getOrderBook("AAPL").getAskQuantity(101.0));
+        assertEquals(0, engine.getOrderBook("AAPL").getBidLevelCount());
+    }
+
+    @Test
+    void testIncomingSellWithoutAssetsIsRejected() {
+        Portfolio emptySeller = new Portfolio(1000.0);
+        engine.submit(new Order("AAPL", OrderType.BUY, 10, 100.0, MARKET_PRICE), buyer, TRADE_DATE);
+
+        InsufficientAssetsException exception = assertThrows(InsufficientAssetsException.class,
+            () -> engine.submit(new Order("AAPL", OrderType.SELL, 10, 100.0, MARKET_PRICE), emptySeller, TRADE_DATE));
+
+        assertTrue(exception.getMessage().endsWith("Zrealizowano: 0, odrzucono: 10"), exception.getMessage());
+        assertEquals(1000.0, emptySeller.getCash(), 0.0);
+        assertEquals(10, engine.getOrderBook("AAPL").getBidQuantity(100.0));
+        assertEquals(0, engine.getOrderBook("AAPL").getAskLevelCount());
+    }
+
+    @Test
+    void testRoutePendingOrdersFromPortfolio() {
+        engine.submit(new Order("AAPL", OrderType.SELL, 10, 100.0, MARKET_PRICE), seller, TRADE_DATE);
+        buyer.addOrder(new Order("AAPL", OrderType.BUY, 4, 100.0, MARKET_PRICE));
+        buyer.addOrder(new Order("AAPL", OrderType.BUY, 3, 101.0, MARKET_PRICE));
+
+        int routed = engine.routePendingOrders(buyer, TRADE_DATE);
+
+        assertEquals(2, routed);
+        assertNull(buyer.peekNextOrder());
+        assertEquals(7, buyer.getAssetQuantity("AAPL"));
+        assertEquals(3, engine.getOrderBook("AAPL").getAskQuantity(100.0));
+    }
+
+    @Test
+    void testManyLevelsKeepPriceOrderInBothSides() {
+        List<Integer> offsets = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            offsets.add(i);
+        }
+        Collections.shuffle(offsets, new Random(4));
+        for (int i = 0; i < offsets.size(); i++) {
+            engine.submit(new Order("AAPL", OrderType.SELL, 1, 100.0 + offsets.get(i), MARKET_PRICE), seller, TRADE_DATE);
+            engine.submit(new Order("AAPL", OrderType.BUY, 1, 50.0 + offsets.get(i), MARKET_PRICE), buyer, TRADE_DATE);
+        }
+
+        OrderBook book = engine.getOrderBook("AAPL");
+        assertEquals(40, book.getAskLevelCount());
+        assertEquals(40, book.getBidLevelCount());
+        assertEquals(100.0, book.getBestAsk(), 0.0);
+        assertEquals(89.0, book.getBestBid(), 0.0);
+
+        List<Fill> fills = engine.submit(new Order("AAPL", OrderType.BUY, 25, 119.0, MARKET_PRICE), buyer, TRADE_DATE);
+
+        assertEquals(20, fills.size());
+        for (int i = 0; i < fills.size(); i++) {
+            assertEquals(100.0 + i, fills.get(i).getPrice(), 0.0);
+        }
+        assertEquals(120.0, book.getBestAsk(), 0.0);
+        assertEquals(20, book.getAskLevelCount());
+        assertEquals(119.0, book.getBestBid(), 0.0);
+        assertEquals(5, book.getBidQuantity(119.0));
+        assertEquals(1, book.getBidQuantity(75.0));
+        assertEquals(0, book.getAskQuantity(110.0));
+    }
+}
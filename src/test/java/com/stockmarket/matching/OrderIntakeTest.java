@@ -0,0 +1,248 @@
+package com.stockmarket.matching;
+
+import com.stockmarket.domain.Order;
+import com.stockmarket.domain.OrderType;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+class OrderIntakeTest {
+    private static final LocalDate TRADE_DATE = LocalDate.of(2024, 3, 1);
+    private static final double MARKET_PRICE = 100.0;
+    private static final int PRODUCER_COUNT = 4;
+
+    @Test
+    void testRingBufferIsFifoAndBounded() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(3);
+        assertEquals(4, ring.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+        assertEquals(0, ring.poll());
+        assertTrue(ring.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, ring.poll());
+        }
+        assertNull(ring.poll());
+        assertFalse(ring.hasUnconsumedClaims());
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<Integer>(0));
+    }
+
+    @Test
+    void testRingBufferKeepsEveryElementFromManyProducers() throws Exception {
+        MpscRingBuffer<Long> ring = new MpscRingBuffer<>(64);
+        int perProducer = 50_000;
+        Thread[] producers = new Thread[PRODUCER_COUNT];
+        for (int p = 0; p < PRODUCER_COUNT; p++) {
+            final long base = (long) p * perProducer;
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producers[p].start();
+        }
+
+        long[] lastSeen = new long[PRODUCER_COUNT];
+        for (int p = 0; p < PRODUCER_COUNT; p++) {
+            lastSeen[p] = -1;
+        }
+        long sum = 0;
+        int received = 0;
+        while (received < PRODUCER_COUNT * perProducer) {
+            Long value = ring.poll();
+            if (value == null) {
+                Thread.yield();
+                continue;
+            }
+            int producer = (int) (value / perProducer);
+            assertTrue(value > lastSeen[producer]);
+            lastSeen[producer] = value;
+            sum += value;
+            received++;
+        }
+        for (int p = 0; p < PRODUCER_COUNT; p++) {
+            producers[p].join();
+        }
+
+        long n = (long) PRODUCER_COUNT * perProducer;
+        assertEquals(n * (n - 1) / 2, sum);
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void testConcurrentProducersAreMatchedBySingleConsumer() throws Exception {
+        WaitStrategy[] strategies = {WaitStrategies.busySpin(), WaitStrategies.yielding(), WaitStrategies.parking(50_000)};
+        for (int s = 0; s < strategies.length; s++) {
+            MatchingEngine engine = new MatchingEngine();
+            Portfolio seller = new Portfolio(1000000.0);
+            Portfolio buyer = new Portfolio(1000000.0);
+            seller.addAsset(new Share("AAPL", "Apple", MARKET_PRICE), 4000, LocalDate.of(2023, 1, 1));
+            AtomicLong filledQuantity = new AtomicLong();
+
+            OrderIntake intake = new OrderIntake(engine, 16, strategies[s], fill -> filledQuantity.addAndGet(fill.getQuantity()));
+            intake.start();
+            int ordersPerProducer = 500;
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] producers = new Thread[PRODUCER_COUNT];
+            for (int p = 0; p < PRODUCER_COUNT; p++) {
+                final boolean buying = p % 2 == 0;
+                producers[p] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < ordersPerProducer; i++) {
+                        if (buying) {
+                            intake.submit(new Order("AAPL", OrderType.BUY, 2, 100.0, MARKET_PRICE), buyer, TRADE_DATE);
+                        } else {
+                            intake.submit(new Order("AAPL", OrderType.SELL, 2, 100.0, MARKET_PRICE), seller, TRADE_DATE);
+                        }
+                    }
+                });
+                producers[p].start();
+            }
+            start.countDown();
+            for (int p = 0; p < PRODUCER_COUNT; p++) {
+                producers[p].join();
+            }
+            intake.close();
+
+            assertEquals(PRODUCER_COUNT * ordersPerProducer, intake.getProcessedCount());
+            assertEquals(0, intake.getRejectedCount());
+            assertEquals(2000, filledQuantity.get());
+            assertEquals(2000, buyer.getAssetQuantity("AAPL"));
+            assertEquals(2000, seller.getAssetQuantity("AAPL"));
+            assertTrue(engine.getOrderBook("AAPL").isEmpty());
+        }
+    }
+
+    @Test
+    void testEveryAcceptedOrderIsProcessedWhenCloseRacesSubmitters() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            OrderIntake intake = new OrderIntake(new MatchingEngine(), 8, WaitStrategies.yielding());
+            Portfolio buyer = new Portfolio(1000000.0);
+            AtomicLong accepted = new AtomicLong();
+            intake.start();
+
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] producers = new Thread[PRODUCER_COUNT];
+            for (int p = 0; p < PRODUCER_COUNT; p++) {
+                final boolean blocking = p % 2 == 0;
+                producers[p] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    Order order = new Order("AAPL", OrderType.BUY, 1, 90.0, MARKET_PRICE);
+                    try {
+                        while (true) {
+                            if (blocking) {
+                                intake.submit(order, buyer, TRADE_DATE);
+                                accepted.incrementAndGet();
+                            } else if (intake.trySubmit(order, buyer, TRADE_DATE)) {
+                                accepted.incrementAndGet();
+                            }
+                        }
+                    } catch (IllegalStateException e) {
+                        // przyjmowanie zamknięte
+                    }
+                });
+                producers[p].start();
+            }
+            start.countDown();
+            Thread.sleep(1);
+            intake.close();
+            for (int p = 0; p < PRODUCER_COUNT; p++) {
+                producers[p].join();
+            }
+
+            assertEquals(accepted.get(), intake.getProcessedCount());
+        }
+    }
+
+    @Test
+    void testUnsettledRemainderCountsAsRejectedAndKeepsPartialFills() throws Exception {
+        MatchingEngine engine = new MatchingEngine();
+        Portfolio seller = new Portfolio(10000.0);
+        seller.addAsset(new Share("AAPL", "Apple", MARKET_PRICE), 10, LocalDate.of(2023, 1, 1));
+        Portfolio poorBuyer = new Portfolio(520.0);
+        AtomicLong filledQuantity = new AtomicLong();
+        OrderIntake intake = new OrderIntake(engine, 4, WaitStrategies.yielding(),
+            fill -> filledQuantity.addAndGet(fill.getQuantity()));
+
+        intake.submit(new Order("AAPL", OrderType.SELL, 5, 100.0, MARKET_PRICE), seller, TRADE_DATE);
+        intake.submit(new Order("AAPL", OrderType.SELL, 5, 100.0, MARKET_PRICE), seller, TRADE_DATE);
+        intake.submit(new Order("AAPL", OrderType.BUY, 10, 100.0, MARKET_PRICE), poorBuyer, TRADE_DATE);
+        intake.start();
+        intake.close();
+
+        assertEquals(3, intake.getProcessedCount());
+        assertEquals(1, intake.getRejectedCount());
+        assertEquals(1, intake.getFillCount());
+        assertEquals(5, filledQuantity.get());
+        assertEquals(5, poorBuyer.getAssetQuantity("AAPL"));
+    }
+
+    @Test
+    void testCloseWithoutStartProcessesQueuedOrders() {
+        MatchingEngine engine = new MatchingEngine();
+        Portfolio seller = new Portfolio(10000.0);
+        seller.addAsset(new Share("AAPL", "Apple", MARKET_PRICE), 5, LocalDate.of(2023, 1, 1));
+        Portfolio buyer = new Portfolio(10000.0);
+        OrderIntake intake = new OrderIntake(engine, 4, WaitStrategies.yielding());
+
+        intake.submit(new Order("AAPL", OrderType.SELL, 5, 100.0, MARKET_PRICE), seller, TRADE_DATE);
+        intake.submit(new Order("AAPL", OrderType.BUY, 5, 100.0, MARKET_PRICE), buyer, TRADE_DATE);
+        intake.close();
+
+        assertEquals(2, intake.getProcessedCount());
+        assertEquals(1, intake.getFillCount());
+        assertEquals(5, buyer.getAssetQuantity("AAPL"));
+        assertThrows(IllegalStateException.class, intake::start);
+    }
+
+    @Test
+    void testInterruptedCloseStillWaitsForConsumerAndKeepsFlag() {
+        OrderIntake intake = new OrderIntake(new MatchingEngine(), 4, WaitStrategies.yielding());
+        Portfolio buyer = new Portfolio(1000.0);
+        intake.start();
+        intake.submit(new Order("AAPL", OrderType.BUY, 1, 99.0, MARKET_PRICE), buyer, TRADE_DATE);
+
+        Thread.currentThread().interrupt();
+        intake.close();
+
+        assertTrue(Thread.interrupted());
+        assertEquals(1, intake.getProcessedCount());
+    }
+
+    @Test
+    void testTrySubmitReportsFullBufferAndCloseRejectsNewOrders() throws Exception {
+        OrderIntake intake = new OrderIntake(new MatchingEngine(), 2, WaitStrategies.yielding());
+        Portfolio buyer = new Portfolio(1000.0);
+        Order order = new Order("AAPL", OrderType.BUY, 1, 99.0, MARKET_PRICE);
+
+        assertTrue(intake.trySubmit(order, buyer, TRADE_DATE));
+        assertTrue(intake.trySubmit(order, buyer, TRADE_DATE));
+        assertFalse(intake.trySubmit(order, buyer, TRADE_DATE));
+
+        intake.start();
+        intake.close();
+
+        assertEquals(2, intake.getProcessedCount());
+        assertThrows(IllegalStateException.class, () -> intake.submit(order, buyer, TRADE_DATE));
+        assertThrows(IllegalArgumentException.class, () -> intake.trySubmit(null, buyer, TRADE_DATE));
+        assertThrows(IllegalArgumentException.class, () -> WaitStrategies.parking(0));
+    }
+}
@@ -0,0 +1,100 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.Currency;
+import com.stockmarket.domain.PurchaseLot;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+class CompressedSnapshotTest {
+    private PortfolioPersistence persistence;
+    private Portfolio portfolio;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        persistence = new PortfolioPersistence();
+        portfolio = new Portfolio(1.0E12);
+        Share share = new Share("AAPL", "Apple Inc.", 100.0);
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 2000; i++) {
+            share.setMarketPrice(100.0 + (i % 40) * 0.25);
+            portfolio.addAsset(share, 1 + i % 9, date.plusDays(i));
+        }
+    }
+
+    @Test
+    void testRoundTripPreservesLotsExactly() throws Exception {
+        Commodity gold = new Commodity("GOLD", "Gold", 1.0 / 3.0);
+        portfolio.addAsset(gold, 3, LocalDate.of(2023, 5, 1));
+        gold.setMarketPrice(1850.125);
+        portfolio.addAsset(gold, 2, LocalDate.of(2021, 2, 1));
+        gold.setMarketPrice(1.0E8);
+        portfolio.addAsset(gold, 1, LocalDate.of(1999, 12, 31));
+        portfolio.addAsset(new Currency("EUR", "Euro", 4.3125, 0.05), 1000, LocalDate.of(2023, 3, 3));
+
+        Path filePath = tempDir.resolve("portfolio.gz");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.COMPRESSED);
+
+        assertEquals(SnapshotFormat.COMPRESSED, persistence.detectFormat(filePath));
+        Portfolio loaded = persistence.loadPortfolio(filePath);
+
+        assertEquals(portfolio.getCash(), loaded.getCash(), 0.0);
+        String[] symbols = {"AAPL", "GOLD", "EUR"};
+        for (int s = 0; s < symbols.length; s++) {
+            List<PurchaseLot> expected = portfolio.getPurchaseLots(symbols[s]);
+            List<PurchaseLot> actual = loaded.getPurchaseLots(symbols[s]);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getPurchaseDate(), actual.get(i).getPurchaseDate());
+                assertEquals(expected.get(i).getQuantity(), actual.get(i).getQuantity());
+                assertEquals(expected.get(i).getUnitPrice(), actual.get(i).getUnitPrice(), 0.0);
+            }
+        }
+        assertEquals("Gold", loaded.getAsset("GOLD").getName());
+    }
+
+    @Test
+    void testCompressedFileIsSmallerThanOtherFormats() throws Exception {
+        Path textPath = tempDir.resolve("portfolio.txt");
+        Path binaryPath = tempDir.resolve("portfolio.bin");
+        Path compressedPath = tempDir.resolve("portfolio.gz");
+        persistence.savePortfolio(portfolio, textPath, SnapshotFormat.TEXT);
+        persistence.savePortfolio(portfolio, binaryPath, SnapshotFormat.BINARY);
+        persistence.savePortfolio(portfolio, compressedPath, SnapshotFormat.COMPRESSED);
+
+        assertTrue(Files.size(compressedPath) * 10 < Files.size(binaryPath));
+        assertTrue(Files.size(compressedPath) * 10 < Files.size(textPath));
+    }
+
+    @Test
+    void testTruncatedFileIsRejected() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.gz");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.COMPRESSED);
+        byte[] bytes = Files.readAllBytes(filePath);
+        byte[] truncated = new byte[bytes.length / 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(filePath, truncated);
+
+        assertThrows(DataIntegrityException.class, () -> persistence.loadPortfolio(filePath));
+    }
+
+    @Test
+    void testMappedLoaderFallsBackForCompressedFiles() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.gz");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.COMPRESSED);
+
+        assertEquals(portfolio.getAssetQuantity("AAPL"), persistence.loadPortfolioMapped(filePath).getAssetQuantity("AAPL"));
+    }
+}
@@ -0,0 +1,163 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+class DeltaSnapshotStoreTest {
+    private Portfolio portfolio;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio(1000000.0);
+        LocalDate date = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < 200; i++) {
+            Share share = new Share("S" + i, "Share " + i, 10.0 + i);
+            for (int j = 0; j < 5; j++) {
+                portfolio.addAsset(share, 1 + j, date.plusDays(j));
+            }
+        }
+    }
+
+    @Test
+    void testDirtySymbolsTrackChangedHoldings() {
+        portfolio.clearDirtySymbols();
+        portfolio.addAsset(new Share("S1", "Share 1", 11.0), 1, LocalDate.of(2023, 2, 1));
+        portfolio.sellAsset("S2", 3, 20.0);
+
+        List<String> dirty = portfolio.getDirtySymbols();
+        assertEquals(2, dirty.size());
+        assertTrue(dirty.contains("S1"));
+        assertTrue(dirty.contains("S2"));
+    }
+
+    @Test
+    void testDeltaContainsOnlyChangedHoldings() throws Exception {
+        DeltaSnapshotStore store = new DeltaSnapshotStore(tempDir, 100);
+        store.save(portfolio);
+        long baseSize = Files.size(tempDir.resolve("base-0.bin"));
+
+        portfolio.addAsset(new Share("S7", "Share 7", 17.0), 4, LocalDate.of(2023, 3, 1));
+        store.save(portfolio);
+        store.close();
+
+        assertEquals(1, store.getDeltaCount());
+        assertTrue(Files.size(tempDir.resolve("delta-1.bin")) * 50 < baseSize);
+        assertTrue(portfolio.getDirtySymbols().isEmpty());
+    }
+
+    @Test
+    void testLoadAppliesDeltasIncludingRemovedHoldings() throws Exception {
+        DeltaSnapshotStore store = new DeltaSnapshotStore(tempDir, 100);
+        store.save(portfolio);
+
+        portfolio.sellAsset("S0", 15, 12.0);
+        portfolio.sellAsset("S1", 4, 12.0);
+        store.save(portfolio);
+        portfolio.addAsset(new Commodity("GOLD", "Gold", 1800.0), 2, LocalDate.of(2023, 4, 1));
+        store.save(portfolio);
+        store.close();
+
+        Portfolio loaded = new DeltaSnapshotStore(tempDir, 100).load();
+        assertEquals(portfolio.getCash(), loaded.getCash(), 0.0);
+        assertEquals(0, loaded.getAssetQuantity("S0"));
+        assertNull(loaded.getAsset("S0"));
+        assertEquals(11, loaded.getAssetQuantity("S1"));
+        assertEquals(2, loaded.getAssetQuantity("GOLD"));
+        assertEquals(200, loaded.getHoldingsCount());
+        assertTrue(loaded.getDirtySymbols().isEmpty());
+    }
+
+    @Test
+    void testCompactionFoldsDeltasIntoNewBase() throws Exception {
+        DeltaSnapshotStore store = new DeltaSnapshotStore(tempDir, 100);
+        store.save(portfolio);
+        portfolio.sellAsset("S3", 2, 15.0);
+        store.save(portfolio);
+        portfolio.sellAsset("S4", 2, 15.0);
+        store.save(portfolio);
+
+        store.compact();
+        store.close();
+
+        assertEquals(0, store.getDeltaCount());
+        assertTrue(Files.exists(tempDir.resolve("base-2.bin")));
+        assertFalse(Files.exists(tempDir.resolve("base-0.bin")));
+        assertFalse(Files.exists(tempDir.resolve("delta-1.bin")));
+
+        Portfolio loaded = new PortfolioPersistence().loadPortfolio(tempDir.resolve("base-2.bin"));
+        assertEquals(13, loaded.getAssetQuantity("S3"));
+        assertEquals(13, loaded.getAssetQuantity("S4"));
+        assertEquals(portfolio.getCash(), loaded.getCash(), 0.0);
+    }
+
+    @Test
+    void testThresholdTriggersBackgroundCompaction() throws Exception {
+        DeltaSnapshotStore store = new DeltaSnapshotStore(tempDir, 3);
+        store.save(portfolio);
+        for (int i = 0; i < 3; i++) {
+            portfolio.sellAsset("S" + i, 1, 15.0);
+            store.save(portfolio);
+        }
+        store.close();
+
+        assertEquals(0, store.getDeltaCount());
+        Portfolio loaded = new DeltaSnapshotStore(tempDir, 3).load();
+        assertEquals(14, loaded.getAssetQuantity("S2"));
+    }
+
+    @Test
+    void testBackgroundCompactionFailureIsReportedBySaveAndClose() throws Exception {
+        DeltaSnapshotStore store = new DeltaSnapshotStore(tempDir, 100);
+        store.save(portfolio);
+        portfolio.sellAsset("S1", 1, 15.0);
+        store.save(portfolio);
+        Files.delete(tempDir.resolve("base-0.bin"));
+
+        assertThrows(ExecutionException.class, () -> store.compactAsync().get());
+        portfolio.sellAsset("S2", 1, 15.0);
+        assertThrows(IOException.class, () -> store.save(portfolio));
+        store.save(portfolio);
+        assertEquals(2, store.getDeltaCount());
+
+        assertThrows(ExecutionException.class, () -> store.compactAsync().get());
+        assertThrows(IOException.class, store::close);
+    }
+
+    @Test
+    void testConstructorDeletesLeftoverTempFiles() throws Exception {
+        DeltaSnapshotStore store = new DeltaSnapshotStore(tempDir, 10);
+        store.save(portfolio);
+        store.close();
+        Files.write(tempDir.resolve("base-7.bin.tmp"), new byte[] {1, 2, 3});
+        Files.write(tempDir.resolve("delta-8.bin.12345.tmp"), new byte[] {4, 5});
+
+        DeltaSnapshotStore reopened = new DeltaSnapshotStore(tempDir, 10);
+
+        assertFalse(Files.exists(tempDir.resolve("base-7.bin.tmp")));
+        assertFalse(Files.exists(tempDir.resolve("delta-8.bin.12345.tmp")));
+        assertEquals(portfolio.getCash(), reopened.load().getCash(), 0.0);
+        reopened.close();
+    }
+
+    @Test
+    void testLoadWithoutBaseFails() throws Exception {
+        DeltaSnapshotStore store = new DeltaSnapshotStore(tempDir, 10);
+        assertThrows(IOException.class, store::load);
+        store.close();
+    }
+}
@@ -0,0 +1,151 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Currency;
+import com.stockmarket.domain.PurchaseLot;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+class MappedSnapshotLoaderTest {
+    private PortfolioPersistence persistence;
+    private Portfolio portfolio;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        persistence = new PortfolioPersistence();
+        portfolio = new Portfolio(10000000.0);
+        Share share = new Share("AAPL", "Apple Inc.", 100.0);
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 500; i++) {
+            share.setMarketPrice(100.0 + i);
+            portfolio.addAsset(share, 1 + i % 3, date.plusDays(i));
+        }
+        portfolio.addAsset(new Currency("EUR", "Euro", 4.3, 0.05), 1000, LocalDate.of(2023, 3, 3));
+    }
+
+    @Test
+    void testMappedLoadMatchesStreamingLoad() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+
+        Portfolio streamed = persistence.loadPortfolio(filePath);
+        Portfolio mapped = persistence.loadPortfolioMapped(filePath);
+
+        assertEquals(streamed.getCash(), mapped.getCash(), 0.0);
+        assertEquals(streamed.getAssetQuantity("AAPL"), mapped.getAssetQuantity("AAPL"));
+        assertEquals(1000, mapped.getAssetQuantity("EUR"));
+        assertEquals(500, mapped.getPurchaseLots("AAPL").size());
+    }
+
+    @Test
+    void testSmallWindowsRemapAcrossRecordBoundaries() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+
+        Portfolio mapped = persistence.loadPortfolioMapped(filePath, 37);
+
+        List<PurchaseLot> lots = mapped.getPurchaseLots("AAPL");
+        assertEquals(500, lots.size());
+        assertEquals(LocalDate.of(2020, 1, 1).plusDays(499), lots.get(499).getPurchaseDate());
+        assertEquals(599.0, lots.get(499).getUnitPrice(), 0.0);
+    }
+
+    @Test
+    void testCorruptLotReportsByteOffset() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+        byte[] bytes = Files.readAllBytes(filePath);
+
+        long lotOffset = firstLotOffset(bytes);
+        ByteBuffer.wrap(bytes).putInt((int) lotOffset + 4, 0);
+        Files.write(filePath, bytes);
+
+        DataIntegrityException exception = assertThrows(DataIntegrityException.class,
+            () -> persistence.loadPortfolioMapped(filePath));
+        assertEquals(lotOffset, exception.getOffset());
+        assertTrue(exception.getMessage().contains("offset " + lotOffset));
+    }
+
+    @Test
+    void testTruncatedFileReportsOffset() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+        byte[] bytes = Files.readAllBytes(filePath);
+        byte[] truncated = new byte[bytes.length - 10];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(filePath, truncated);
+
+        DataIntegrityException exception = assertThrows(DataIntegrityException.class,
+            () -> persistence.loadPortfolioMapped(filePath));
+        assertTrue(exception.getOffset() > 0);
+    }
+
+    @Test
+    void testTextSnapshotFallsBackToStreamingLoader() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.txt");
+        Files.write(filePath, ("HEADER | CASH | 10000.0\n" +
+            "ASSET | SHARE | AAPL\n" +
+            "LOT | 2023-05-10 | 10 | 150.00\n").getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(10, persistence.loadPortfolioMapped(filePath).getAssetQuantity("AAPL"));
+    }
+
+    @Test
+    void testTotalQuantityOverflowIsRejected() throws Exception {
+        byte[] symbol = "AAPL".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 2 + 8 + 4 + 4 + symbol.length + 4 + 4 + 4 + 1 + 4 + 2 * 16);
+        buffer.putInt(BinarySnapshotCodec.MAGIC).putShort(BinarySnapshotCodec.LEGACY_VERSION).putDouble(1000.0);
+        buffer.putInt(1).putInt(symbol.length).put(symbol);
+        buffer.putInt(1).putInt(0).putInt(0).put((byte) 0).putInt(2);
+        for (int i = 0; i < 2; i++) {
+            buffer.putInt(19000 + i).putInt(Integer.MAX_VALUE - 10).putDouble(1.0);
+        }
+        Path filePath = tempDir.resolve("overflow.bin");
+        Files.write(filePath, buffer.array());
+
+        DataIntegrityException mapped = assertThrows(DataIntegrityException.class,
+            () -> persistence.loadPortfolioMapped(filePath));
+        DataIntegrityException streamed = assertThrows(DataIntegrityException.class,
+            () -> persistence.loadPortfolio(filePath));
+        assertTrue(mapped.getMessage().startsWith("Łączna ilość aktywa AAPL przekracza zakres"), mapped.getMessage());
+        assertTrue(streamed.getMessage().startsWith("Łączna ilość aktywa AAPL przekracza zakres"), streamed.getMessage());
+    }
+
+    @Test
+    void testHugeStringCountIsRejectedWithOffset() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(18);
+        buffer.putInt(BinarySnapshotCodec.MAGIC).putShort(BinarySnapshotCodec.VERSION).putDouble(1000.0);
+        buffer.putInt(0x7ffffff0);
+        Path filePath = tempDir.resolve("huge-count.bin");
+        Files.write(filePath, buffer.array());
+
+        DataIntegrityException exception = assertThrows(DataIntegrityException.class,
+            () -> persistence.loadPortfolioMapped(filePath));
+        assertEquals(14, exception.getOffset());
+    }
+
+    private long firstLotOffset(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(4 + 2 + 8);
+        int stringCount = buffer.getInt();
+        for (int i = 0; i < stringCount; i++) {
+            int length = buffer.getInt();
+            buffer.position(buffer.position() + length);
+        }
+        buffer.getInt();
+        return buffer.position() + 4 + 4 + 1 + 4;
+    }
+}
@@ -0,0 +1,98 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class PortfolioBatchPersistenceTest {
+    private static final int PORTFOLIO_COUNT = 40;
+
+    private PortfolioBatchPersistence batch;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        batch = new PortfolioBatchPersistence(4, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batch.close();
+    }
+
+    private Map<Path, Portfolio> createPortfolios(String extension) {
+        Map<Path, Portfolio> portfolios = new LinkedHashMap<>();
+        for (int i = 0; i < PORTFOLIO_COUNT; i++) {
+            Portfolio portfolio = new Portfolio(10000.0 + i);
+            portfolio.addAsset(new Share("AAPL", "Apple Inc.", 100.0), 1 + i, LocalDate.of(2023, 1, 1));
+            portfolios.put(tempDir.resolve("account-" + i + extension), portfolio);
+        }
+        return portfolios;
+    }
+
+    @Test
+    void testSaveAllAndLoadAllRoundTrip() throws Exception {
+        Map<Path, Portfolio> portfolios = createPortfolios(".bin");
+        BatchReport saveReport = batch.saveAll(portfolios, SnapshotFormat.BINARY);
+        assertEquals(PORTFOLIO_COUNT, saveReport.getSuccessCount());
+        assertFalse(saveReport.hasFailures());
+
+        Map<Path, Portfolio> loaded = new HashMap<>();
+        BatchReport loadReport = batch.loadAll(tempDir, loaded::put);
+
+        assertEquals(PORTFOLIO_COUNT, loadReport.getSuccessCount());
+        for (Map.Entry<Path, Portfolio> entry : portfolios.entrySet()) {
+            Portfolio restored = loaded.get(entry.getKey());
+            assertEquals(entry.getValue().getCash(), restored.getCash(), 0.0);
+            assertEquals(entry.getValue().getAssetQuantity("AAPL"), restored.getAssetQuantity("AAPL"));
+        }
+    }
+
+    @Test
+    void testFailuresAreReportedWithoutAbortingOtherFiles() throws Exception {
+        batch.saveAll(createPortfolios(".txt"), SnapshotFormat.TEXT);
+        Path broken = tempDir.resolve("account-broken.txt");
+        Files.write(broken, "HEADER | CASH | abc\n".getBytes(StandardCharsets.UTF_8));
+
+        Map<Path, Portfolio> loaded = new HashMap<>();
+        BatchReport report = batch.loadAll(tempDir, loaded::put);
+
+        assertEquals(PORTFOLIO_COUNT, report.getSuccessCount());
+        assertEquals(1, report.getFailureCount());
+        assertTrue(report.getFailures().get(broken) instanceof DataIntegrityException);
+        assertFalse(loaded.containsKey(broken));
+    }
+
+    @Test
+    void testSaveFailureIsReported() {
+        Map<Path, Portfolio> portfolios = new LinkedHashMap<>();
+        Path missingDirectory = tempDir.resolve("missing").resolve("account.bin");
+        portfolios.put(missingDirectory, new Portfolio(1.0));
+        portfolios.put(tempDir.resolve("account.bin"), new Portfolio(2.0));
+
+        BatchReport report = batch.saveAll(portfolios, SnapshotFormat.BINARY);
+
+        assertEquals(1, report.getSuccessCount());
+        assertTrue(report.getFailures().containsKey(missingDirectory));
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new PortfolioBatchPersistence(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new PortfolioBatchPersistence(4, 2));
+    }
+}
@@ -0,0 +1,118 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.PurchaseLot;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+class PortfolioBinarySnapshotTest {
+    private PortfolioPersistence persistence;
+    private Portfolio portfolio;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        persistence = new PortfolioPersistence();
+        portfolio = new Portfolio(1000000.0);
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 150.0), 10, LocalDate.of(2023, 5, 10));
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 155.5), 5, LocalDate.of(2023, 6, 12));
+        portfolio.addAsset(new Commodity("GOLD", "Gold", 2000.0), 20, LocalDate.of(2023, 7, 1));
+    }
+
+    @Test
+    void testBinaryRoundTripPreservesLots() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+
+        Portfolio loaded = persistence.loadPortfolio(filePath);
+
+        assertEquals(15, loaded.getAssetQuantity("AAPL"));
+        assertEquals(20, loaded.getAssetQuantity("GOLD"));
+        assertEquals("Apple Inc.", loaded.getAsset("AAPL").getName());
+        List<PurchaseLot> lots = loaded.getPurchaseLots("AAPL");
+        assertEquals(2, lots.size());
+        assertEquals(LocalDate.of(2023, 5, 10), lots.get(0).getPurchaseDate());
+        assertEquals(155.5, lots.get(1).getUnitPrice(), 0.0);
+    }
+
+    @Test
+    void testFormatIsDetectedAutomatically() throws Exception {
+        Path binaryPath = tempDir.resolve("portfolio.bin");
+        Path textPath = tempDir.resolve("portfolio.txt");
+        persistence.savePortfolio(portfolio, binaryPath, SnapshotFormat.BINARY);
+        persistence.savePortfolio(portfolio, textPath);
+
+        assertEquals(SnapshotFormat.BINARY, persistence.detectFormat(binaryPath));
+        assertEquals(SnapshotFormat.TEXT, persistence.detectFormat(textPath));
+        assertEquals(20, persistence.loadPortfolio(textPath).getAssetQuantity("GOLD"));
+    }
+
+    @Test
+    void testBinarySnapshotIsSmallerThanText() throws Exception {
+        Path binaryPath = tempDir.resolve("portfolio.bin");
+        Path textPath = tempDir.resolve("portfolio.txt");
+        persistence.savePortfolio(portfolio, binaryPath, SnapshotFormat.BINARY);
+        persistence.savePortfolio(portfolio, textPath, SnapshotFormat.TEXT);
+
+        assertTrue(Files.size(binaryPath) < Files.size(textPath));
+    }
+
+    @Test
+    void testTruncatedBinarySnapshotIsRejected() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+        byte[] bytes = Files.readAllBytes(filePath);
+        Files.write(filePath, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertThrows(DataIntegrityException.class, () -> persistence.loadPortfolio(filePath));
+    }
+
+    @Test
+    void testUnsupportedVersionIsRejected() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+        byte[] bytes = Files.readAllBytes(filePath);
+        bytes[5] = 99;
+        Files.write(filePath, bytes);
+
+        DataIntegrityException exception = assertThrows(DataIntegrityException.class,
+            () -> persistence.loadPortfolio(filePath));
+        assertTrue(exception.getMessage().contains("wersja"));
+    }
+
+    @Test
+    void testTrailingGarbageIsRejected() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+        byte[] bytes = Files.readAllBytes(filePath);
+        Files.write(filePath, Arrays.copyOf(bytes, bytes.length + 1));
+
+        assertThrows(DataIntegrityException.class, () -> persistence.loadPortfolio(filePath));
+    }
+
+    @Test
+    void testHugeStringCountIsRejectedWithoutAllocatingTable() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        ByteBuffer header = ByteBuffer.allocate(18);
+        header.putInt(BinarySnapshotCodec.MAGIC);
+        header.putShort(BinarySnapshotCodec.VERSION);
+        header.putDouble(1000.0);
+        header.putInt(0x7ffffff0);
+        Files.write(filePath, header.array());
+
+        assertThrows(DataIntegrityException.class, () -> persistence.loadPortfolio(filePath));
+    }
+}
@@ -0,0 +1,192 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.Currency;
+import com.stockmarket.domain.Order;
+import com.stockmarket.domain.OrderType;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+class PortfolioJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecoverReplaysCommittedMutations() throws Exception {
+        Portfolio portfolio = new Portfolio(100000.0);
+        PortfolioJournal journal = PortfolioJournal.create(tempDir, portfolio, 1);
+
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 150.0), 10, LocalDate.of(2023, 1, 10));
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 160.0), 5, LocalDate.of(2023, 2, 10));
+        portfolio.addAsset(new Currency("EUR", "Euro", 4.3, 0.05), 100, LocalDate.of(2023, 3, 1));
+        portfolio.sellAsset("AAPL", 12, 170.0);
+
+        long first = portfolio.addOrder(new Order("AAPL", OrderType.BUY, 10, 100.0, 110.0));
+        long second = portfolio.addOrder(new Order("GOLD", OrderType.SELL, 3, 50.0, 55.0));
+        portfolio.addOrder(new Order("AAPL", OrderType.BUY, 7, 105.0, 110.0));
+        portfolio.cancelOrder(second);
+        portfolio.amendOrder(first, 20, 108.0);
+
+        Portfolio recovered = PortfolioJournal.recover(tempDir);
+        journal.close();
+
+        assertEquals(portfolio.getCash(), recovered.getCash(), 0.0);
+        assertEquals(3, recovered.getAssetQuantity("AAPL"));
+        assertEquals(160.0, recovered.getPurchaseLots("AAPL").get(0).getUnitPrice(), 0.0);
+        assertEquals(100, recovered.getAssetQuantity("EUR"));
+        assertEquals(0.05, ((Currency) recovered.getAsset("EUR")).getSpread(), 0.0);
+        assertEquals(2, recovered.getPendingOrderCount());
+        assertEquals(20, recovered.peekNextOrder().getQuantity());
+        assertEquals(108.0, recovered.peekNextOrder().getLimitPrice(), 0.0);
+    }
+
+    @Test
+    void testUncommittedGroupIsNotVisibleAfterCrash() throws Exception {
+        Portfolio portfolio = new Portfolio(10000.0);
+        PortfolioJournal journal = PortfolioJournal.create(tempDir, portfolio, 3);
+
+        portfolio.addAsset(new Commodity("GOLD", "Gold", 100.0), 1, LocalDate.of(2023, 1, 1));
+        portfolio.addAsset(new Commodity("GOLD", "Gold", 100.0), 1, LocalDate.of(2023, 1, 2));
+        assertEquals(2, journal.getPendingRecordCount());
+        assertEquals(0, PortfolioJournal.recover(tempDir).getAssetQuantity("GOLD"));
+
+        portfolio.addAsset(new Commodity("GOLD", "Gold", 100.0), 1, LocalDate.of(2023, 1, 3));
+        assertEquals(0, journal.getPendingRecordCount());
+        assertEquals(3, PortfolioJournal.recover(tempDir).getAssetQuantity("GOLD"));
+        journal.close();
+    }
+
+    @Test
+    void testTornTailIsIgnored() throws Exception {
+        Portfolio portfolio = new Portfolio(10000.0);
+        PortfolioJournal journal = PortfolioJournal.create(tempDir, portfolio, 1);
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 100.0), 10, LocalDate.of(2023, 1, 1));
+        portfolio.sellAsset("AAPL", 4, 120.0);
+        journal.close();
+
+        Path journalFile = tempDir.resolve("journal-" + journal.getGeneration() + ".log");
+        Files.write(journalFile, new byte[] {0, 0, 0, 40, 1, 2, 3, 4, 2, 0}, StandardOpenOption.APPEND);
+
+        Portfolio recovered = PortfolioJournal.recover(tempDir);
+        assertEquals(6, recovered.getAssetQuantity("AAPL"));
+        assertEquals(portfolio.getCash(), recovered.getCash(), 0.0);
+    }
+
+    @Test
+    void testCorruptedRecordStopsReplay() throws Exception {
+        Portfolio portfolio = new Portfolio(10000.0);
+        PortfolioJournal journal = PortfolioJournal.create(tempDir, portfolio, 1);
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 100.0), 10, LocalDate.of(2023, 1, 1));
+        portfolio.sellAsset("AAPL", 4, 120.0);
+        journal.close();
+
+        Path journalFile = tempDir.resolve("journal-" + journal.getGeneration() + ".log");
+        byte[] bytes = Files.readAllBytes(journalFile);
+        bytes[bytes.length - 1] ^= 0x55;
+        Files.write(journalFile, bytes);
+
+        assertEquals(10, PortfolioJournal.recover(tempDir).getAssetQuantity("AAPL"));
+    }
+
+    @Test
+    void testCheckpointCarriesPendingOrdersAndDropsOldGenerations() throws Exception {
+        Portfolio portfolio = new Portfolio(10000.0);
+        PortfolioJournal journal = PortfolioJournal.create(tempDir, portfolio, 1);
+        long orderId = portfolio.addOrder(new Order("AAPL", OrderType.BUY, 10, 100.0, 110.0));
+        portfolio.addOrder(new Order("AAPL", OrderType.BUY, 5, 90.0, 110.0));
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 100.0), 10, LocalDate.of(2023, 1, 1));
+
+        long previous = journal.getGeneration();
+        journal.checkpoint();
+        assertFalse(Files.exists(tempDir.resolve("journal-" + previous + ".log")));
+        assertFalse(Files.exists(tempDir.resolve("snapshot-" + previous + ".bin")));
+
+        portfolio.cancelOrder(orderId);
+        journal.close();
+
+        Portfolio recovered = PortfolioJournal.recover(tempDir);
+        assertEquals(10, recovered.getAssetQuantity("AAPL"));
+        assertEquals(1, recovered.getPendingOrderCount());
+        assertEquals(90.0, recovered.peekNextOrder().getLimitPrice(), 0.0);
+    }
+
+    @Test
+    void testOpenContinuesExistingJournal() throws Exception {
+        Portfolio portfolio = new Portfolio(10000.0);
+        PortfolioJournal journal = PortfolioJournal.create(tempDir, portfolio, 1);
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 100.0), 10, LocalDate.of(2023, 1, 1));
+        journal.close();
+
+        PortfolioJournal reopened = PortfolioJournal.open(tempDir, 1);
+        reopened.getPortfolio().sellAsset("AAPL", 3, 110.0);
+        reopened.close();
+
+        assertEquals(7, PortfolioJournal.recover(tempDir).getAssetQuantity("AAPL"));
+        assertThrows(IllegalArgumentException.class, () -> PortfolioJournal.create(tempDir, new Portfolio(1.0), 1));
+    }
+
+    @Test
+    void testFailedGroupCommitRejectsNextMutation() throws Exception {
+        Path deviceFull = Paths.get("/dev/full");
+        assumeTrue(Files.isWritable(deviceFull));
+        Portfolio portfolio = new Portfolio(10000.0);
+        PortfolioJournal journal = PortfolioJournal.create(tempDir, portfolio, 1);
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 100.0), 10, LocalDate.of(2023, 1, 1));
+        Files.createSymbolicLink(tempDir.resolve("journal-" + (journal.getGeneration() + 1) + ".log"), deviceFull);
+        journal.checkpoint();
+
+        portfolio.sellAsset("AAPL", 4, 120.0);
+        assertNotNull(journal.getCommitFailure());
+
+        double cash = portfolio.getCash();
+        assertThrows(IllegalStateException.class,
+            () -> portfolio.addAsset(new Share("AAPL", "Apple Inc.", 100.0), 1, LocalDate.of(2023, 1, 2)));
+        assertThrows(IllegalStateException.class, () -> portfolio.sellAsset("AAPL", 1, 120.0));
+        assertThrows(IllegalStateException.class,
+            () -> portfolio.addOrder(new Order("AAPL", OrderType.BUY, 1, 100.0, 110.0)));
+
+        assertEquals(6, portfolio.getAssetQuantity("AAPL"));
+        assertEquals(cash, portfolio.getCash(), 0.0);
+        assertEquals(0, portfolio.getPendingOrderCount());
+        assertEquals(1, journal.getPendingRecordCount());
+        assertThrows(IOException.class, journal::commit);
+        assertThrows(IOException.class, journal::close);
+        assertEquals(10, PortfolioJournal.recover(tempDir).getAssetQuantity("AAPL"));
+    }
+
+    @Test
+    void testPendingBufferIsCommittedBeforeGroupFillsWhenTooLarge() throws Exception {
+        Portfolio portfolio = new Portfolio(10000.0);
+        PortfolioJournal journal = PortfolioJournal.create(tempDir, portfolio, Integer.MAX_VALUE);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            orders.add(new Order("AAPL", OrderType.BUY, 1, 100.0, 110.0));
+        }
+        portfolio.addOrders(orders);
+
+        assertTrue(journal.getPendingRecordCount() < 200_000);
+        assertEquals(200_000 - journal.getPendingRecordCount(),
+            PortfolioJournal.recover(tempDir).getPendingOrderCount());
+        journal.close();
+        assertEquals(200_000, PortfolioJournal.recover(tempDir).getPendingOrderCount());
+    }
+
+    @Test
+    void testRecoverWithoutSnapshotFails() {
+        assertThrows(DataIntegrityException.class, () -> PortfolioJournal.recover(tempDir));
+    }
+}
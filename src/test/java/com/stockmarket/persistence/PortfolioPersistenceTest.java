@@ -1,6 +1,8 @@
 package com.stockmarket.persistence;
 
+import com.stockmarket.domain.PurchaseLot;
 import com.stockmarket.domain.Share;
+import com.stockmarket.logic.HoldingsBackend;
 import com.stockmarket.logic.Portfolio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 class PortfolioPersistenceTest {
     private PortfolioPersistence persistence;
@@ -100,4 +104,95 @@ class PortfolioPersistenceTest {
         assertEquals(10, loaded.getAssetQuantity("AAPL"));
         assertEquals(5, loaded.getAssetQuantity("GOOGL"));
     }
+
+    @Test
+    void testLoadRestoresSavedCashWithoutRebuying() throws Exception {
+        Portfolio spent = new Portfolio(1505.0);
+        spent.addAsset(new Share("AAPL", "Apple Inc.", 150.0), 10, LocalDate.of(2023, 5, 10));
+
+        Path filePath = tempDir.resolve("spent.txt");
+        persistence.savePortfolio(spent, filePath);
+
+        Portfolio loaded = persistence.loadPortfolio(filePath);
+
+        assertEquals(0.0, loaded.getCash(), 0.0);
+        assertEquals(10, loaded.getAssetQuantity("AAPL"));
+        assertEquals(spent.auditPortfolio(), loaded.auditPortfolio(), 0.01);
+    }
+
+    @Test
+    void testRestoreHoldingKeepsLotOrderAndAggregates() {
+        List<PurchaseLot> lots = new ArrayList<>();
+        lots.add(new PurchaseLot(LocalDate.of(2023, 1, 1), 100.0, 10));
+        lots.add(new PurchaseLot(LocalDate.of(2023, 2, 1), 120.0, 5));
+
+        portfolio.restoreHolding(new Share("XYZ", "XYZ Company", 120.0), lots);
+
+        assertEquals(10500.50, portfolio.getCash(), 0.0);
+        assertEquals(15, portfolio.getAssetQuantity("XYZ"));
+        assertEquals(1600.0, portfolio.getCostBasis("XYZ"), 0.01);
+        assertEquals(100.0, portfolio.getPurchaseLots("XYZ").get(0).getUnitPrice(), 0.0);
+    }
+
+    @Test
+    void testRestoreHoldingFromPrimitiveArrays() {
+        int[] epochDays = {(int) LocalDate.of(2023, 1, 1).toEpochDay(), (int) LocalDate.of(2023, 2, 1).toEpochDay(), 0};
+        double[] unitPrices = {100.0, 120.0, 0.0};
+        int[] quantities = {10, 5, 0};
+        HoldingsBackend[] backends = HoldingsBackend.values();
+
+        for (int i = 0; i < backends.length; i++) {
+            Portfolio portfolio = new Portfolio(500.0, backends[i]);
+            portfolio.restoreHolding(new Share("XYZ", "XYZ Company", 120.0), epochDays, unitPrices, quantities, 2);
+
+            assertEquals(500.0, portfolio.getCash(), 0.0);
+            assertEquals(15, portfolio.getAssetQuantity("XYZ"));
+            assertEquals(1600.0, portfolio.getCostBasis("XYZ"), 0.01);
+            assertEquals(LocalDate.of(2023, 2, 1), portfolio.getPurchaseLots("XYZ").get(1).getPurchaseDate());
+            assertEquals(portfolio.auditPortfolio(), portfolio.getNetAssetValue(), 1e-9);
+        }
+    }
+
+    @Test
+    void testRestoreHoldingFromPrimitiveArraysRejectsInvalidLots() {
+        Portfolio portfolio = new Portfolio(500.0);
+        Share share = new Share("XYZ", "XYZ Company", 120.0);
+        int[] epochDays = {19000, 19001};
+        double[] unitPrices = {100.0, Double.NaN};
+        int[] quantities = {10, 5};
+
+        assertThrows(IllegalArgumentException.class,
+            () -> portfolio.restoreHolding(share, epochDays, unitPrices, quantities, 2));
+        assertThrows(IllegalArgumentException.class,
+            () -> portfolio.restoreHolding(share, epochDays, unitPrices, new int[] {10, 0}, 2));
+        assertThrows(IllegalArgumentException.class,
+            () -> portfolio.restoreHolding(share, epochDays, unitPrices, quantities, 3));
+        assertThrows(IllegalArgumentException.class,
+            () -> portfolio.restoreHolding(share, epochDays, unitPrices, quantities, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> portfolio.restoreHolding(share, null, unitPrices, quantities, 1));
+        assertEquals(0, portfolio.getAssetQuantity("XYZ"));
+        assertTrue(portfolio.getAllAssetSymbols().isEmpty());
+        assertEquals(500.0, portfolio.getNetAssetValue(), 0.0);
+    }
+
+    @Test
+    void testVerifiedRestoreSkipsOnlyPerLotChecks() {
+        Portfolio portfolio = new Portfolio(500.0);
+        Share share = new Share("XYZ", "XYZ Company", 120.0);
+        int[] epochDays = {19000, 19001};
+        double[] unitPrices = {100.0, 120.0};
+        int[] quantities = {10, 5};
+
+        assertThrows(IllegalArgumentException.class,
+            () -> portfolio.restoreVerifiedHolding(share, epochDays, unitPrices, quantities, 3));
+        assertThrows(IllegalArgumentException.class,
+            () -> portfolio.restoreVerifiedHolding(null, epochDays, unitPrices, quantities, 2));
+        assertTrue(portfolio.getAllAssetSymbols().isEmpty());
+
+        portfolio.restoreVerifiedHolding(share, epochDays, unitPrices, quantities, 2);
+        assertEquals(15, portfolio.getAssetQuantity("XYZ"));
+        assertEquals(1600.0, portfolio.getCostBasis("XYZ"), 0.01);
+        assertEquals(portfolio.auditPortfolio(), portfolio.getNetAssetValue(), 1e-9);
+    }
 }
@@ -0,0 +1,158 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.LocalDate;
+
+class SnapshotChecksumTest {
+    private PortfolioPersistence persistence;
+    private Portfolio portfolio;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        persistence = new PortfolioPersistence();
+        portfolio = new Portfolio(1000000.0);
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 150.0), 10, LocalDate.of(2023, 5, 10));
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 155.5), 5, LocalDate.of(2023, 6, 12));
+        portfolio.addAsset(new Commodity("GOLD", "Gold", 2000.0), 20, LocalDate.of(2023, 7, 1));
+    }
+
+    private int countFiles() throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tempDir)) {
+            for (Path ignored : stream) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void testSaveReplacesTargetWithoutLeavingTempFiles() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        Files.write(filePath, "stara zawartość".getBytes(StandardCharsets.UTF_8));
+
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+        persistence.savePortfolio(portfolio, tempDir.resolve("portfolio.txt"), SnapshotFormat.TEXT);
+
+        assertEquals(2, countFiles());
+        assertEquals(15, persistence.loadPortfolio(filePath).getAssetQuantity("AAPL"));
+    }
+
+    @Test
+    void testFailedSaveKeepsPreviousFile() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+        byte[] before = Files.readAllBytes(filePath);
+
+        assertThrows(IOException.class, () -> AtomicFileWriter.write(filePath, out -> {
+            out.write(new byte[] {1, 2, 3});
+            throw new IOException("przerwany zapis");
+        }));
+
+        assertArrayEquals(before, Files.readAllBytes(filePath));
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    void testSaveKeepsTargetPermissions() throws Exception {
+        assumeTrue(Files.getFileAttributeView(tempDir, PosixFileAttributeView.class) != null);
+        Path reference = Files.createFile(tempDir.resolve("reference"));
+        Path filePath = tempDir.resolve("portfolio.bin");
+
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+        assertEquals(Files.getPosixFilePermissions(reference), Files.getPosixFilePermissions(filePath));
+
+        Files.setPosixFilePermissions(filePath, PosixFilePermissions.fromString("rw-r-----"));
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.COMPRESSED);
+
+        assertEquals(PosixFilePermissions.fromString("rw-r-----"), Files.getPosixFilePermissions(filePath));
+        assertEquals(2, countFiles());
+        assertEquals(15, persistence.loadPortfolio(filePath).getAssetQuantity("AAPL"));
+    }
+
+    @Test
+    void testCorruptedPriceIsDetectedByChecksum() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+        byte[] bytes = Files.readAllBytes(filePath);
+        int priceOffset = bytes.length - 4 - 4 - 8;
+        ByteBuffer.wrap(bytes).putDouble(priceOffset, 1999.0);
+        Files.write(filePath, bytes);
+
+        DataIntegrityException streaming = assertThrows(DataIntegrityException.class,
+            () -> persistence.loadPortfolio(filePath));
+        assertTrue(streaming.getMessage().startsWith("Niezgodna suma kontrolna aktywa"));
+        assertThrows(DataIntegrityException.class, () -> persistence.loadPortfolio(filePath, ValidationMode.CHECKSUM));
+        assertThrows(DataIntegrityException.class, () -> persistence.loadPortfolioMapped(filePath));
+    }
+
+    @Test
+    void testCorruptedCashIsDetectedByHeaderChecksum() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+        byte[] bytes = Files.readAllBytes(filePath);
+        ByteBuffer.wrap(bytes).putDouble(6, 5.0);
+        Files.write(filePath, bytes);
+
+        assertEquals("Niezgodna suma kontrolna nagłówka",
+            assertThrows(DataIntegrityException.class, () -> persistence.loadPortfolio(filePath)).getMessage());
+    }
+
+    @Test
+    void testChecksumModeLoadsSameState() throws Exception {
+        Path filePath = tempDir.resolve("portfolio.bin");
+        persistence.savePortfolio(portfolio, filePath, SnapshotFormat.BINARY);
+
+        Portfolio trusted = persistence.loadPortfolio(filePath, ValidationMode.CHECKSUM);
+
+        assertEquals(portfolio.getCash(), trusted.getCash(), 0.0);
+        assertEquals(15, trusted.getAssetQuantity("AAPL"));
+        assertEquals(portfolio.getCostBasis("AAPL"), trusted.getCostBasis("AAPL"), 0.0);
+        assertEquals(20, trusted.getAssetQuantity("GOLD"));
+    }
+
+    @Test
+    void testLegacyVersionWithoutChecksumsIsStillReadable() throws Exception {
+        Path filePath = tempDir.resolve("legacy.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(filePath))) {
+            out.writeInt(BinarySnapshotCodec.MAGIC);
+            out.writeShort(BinarySnapshotCodec.LEGACY_VERSION);
+            out.writeDouble(500.0);
+            out.writeInt(1);
+            out.writeInt(4);
+            out.write("AAPL".getBytes(StandardCharsets.UTF_8));
+            out.writeInt(1);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeByte(0);
+            out.writeInt(1);
+            out.writeInt((int) LocalDate.of(2023, 1, 1).toEpochDay());
+            out.writeInt(7);
+            out.writeDouble(120.0);
+        }
+
+        assertEquals(7, persistence.loadPortfolio(filePath).getAssetQuantity("AAPL"));
+        assertEquals(7, persistence.loadPortfolio(filePath, ValidationMode.CHECKSUM).getAssetQuantity("AAPL"));
+        assertEquals(7, persistence.loadPortfolioMapped(filePath).getAssetQuantity("AAPL"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.stockmarket.persistence;
+
+import com.stockmarket.domain.PurchaseLot;
+import com.stockmarket.logic.Portfolio;
+import com.stockmarket.logic.PurchaseLotView;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+
+class TextSnapshotParserTest {
+
+    private Portfolio parse(String content) throws Exception {
+        return TextSnapshotParser.parse(new StringReader(content));
+    }
+
+    private String errorMessage(String content) {
+        DataIntegrityException exception = assertThrows(DataIntegrityException.class, () -> parse(content));
+        return exception.getMessage();
+    }
+
+    @Test
+    void testParsesLotsWithIrregularWhitespaceAndLineEndings() throws Exception {
+        Portfolio portfolio = parse("HEADER|CASH|1000000.0\r\n" +
+            "  ASSET  |SHARE|  AAPL \r\n" +
+            "\r\n" +
+            "LOT | 2023-05-10 | 10 | 150.25\r" +
+            "LOT|2023-06-12|5|1.5E2\n");
+
+        List<PurchaseLot> lots = portfolio.getPurchaseLots("AAPL");
+        assertEquals(2, lots.size());
+        assertEquals(LocalDate.of(2023, 5, 10), lots.get(0).getPurchaseDate());
+        assertEquals(150.25, lots.get(0).getUnitPrice(), 0.0);
+        assertEquals(150.0, lots.get(1).getUnitPrice(), 0.0);
+        assertEquals(15, portfolio.getAssetQuantity("AAPL"));
+    }
+
+    @Test
+    void testDoublesMatchJdkParsing() throws Exception {
+        String[] prices = {"0.1", "123.456", "99999.99", "1.0E7", "3.141592653589793", "0.30000000000000004", "1e-3"};
+        for (int i = 0; i < prices.length; i++) {
+            Portfolio portfolio = parse("HEADER | CASH | 1.0E12\n" +
+                "ASSET | SHARE | X\n" +
+                "LOT | 2023-01-01 | 1 | " + prices[i] + "\n");
+            assertEquals(Double.parseDouble(prices[i]), portfolio.getPurchaseLots("X").get(0).getUnitPrice(), 0.0);
+        }
+    }
+
+    @Test
+    void testEmptyInput() {
+        assertEquals("Plik jest pusty", errorMessage(""));
+    }
+
+    @Test
+    void testHeaderErrors() {
+        assertEquals("Nieprawidłowy format HEADER: HEADER | CASH", errorMessage("HEADER | CASH"));
+        assertEquals("Oczekiwano HEADER, otrzymano: HEAD", errorMessage("HEAD | CASH | 1.0"));
+        assertEquals("Oczekiwano CASH, otrzymano: MONEY", errorMessage("HEADER | MONEY | 1.0"));
+        assertEquals("Nieprawidłowa wartość gotówki: invalid", errorMessage("HEADER | CASH | invalid"));
+        assertEquals("Gotówka nie może być ujemna: -5.0", errorMessage("HEADER | CASH | -5"));
+    }
+
+    @Test
+    void testLineErrors() {
+        String header = "HEADER | CASH | 1000.0\n";
+        assertEquals("Nieprawidłowy format linii: GARBAGE", errorMessage(header + "GARBAGE\n"));
+        assertEquals("Nieznany prefiks: LOTS", errorMessage(header + "LOTS | 1\n"));
+        assertEquals("LOT bez poprzedzającego ASSET: LOT | 2023-01-01 | 1 | 1.0",
+            errorMessage(header + "LOT | 2023-01-01 | 1 | 1.0\n"));
+        assertEquals("Nieprawidłowy format linii ASSET: ASSET | SHARE |",
+            errorMessage(header + "ASSET | SHARE | \n"));
+        assertEquals("Nieznany typ aktywa: BOND", errorMessage(header + "ASSET | BOND | X\n"));
+        assertEquals("Nieprawidłowy format linii LOT: LOT | 2023-01-01 | 1",
+            errorMessage(header + "ASSET | SHARE | X\nLOT | 2023-01-01 | 1\n"));
+    }
+
+    @Test
+    void testLotValueErrors() {
+        String prefix = "HEADER | CASH | 1000.0\nASSET | SHARE | X\n";
+        assertEquals("Nieprawidłowy format daty: 2023-02-30", errorMessage(prefix + "LOT | 2023-02-30 | 1 | 1.0\n"));
+        assertEquals("Nieprawidłowy format daty: 23-1-1", errorMessage(prefix + "LOT | 23-1-1 | 1 | 1.0\n"));
+        assertEquals("Nieprawidłowa ilość: 1x", errorMessage(prefix + "LOT | 2023-01-01 | 1x | 1.0\n"));
+        assertEquals("Nieprawidłowa ilość: 99999999999", errorMessage(prefix + "LOT | 2023-01-01 | 99999999999 | 1.0\n"));
+        assertEquals("Ilość musi być większa od zera: 0", errorMessage(prefix + "LOT | 2023-01-01 | 0 | 1.0\n"));
+        assertEquals("Nieprawidłowa cena: 1.0.0", errorMessage(prefix + "LOT | 2023-01-01 | 1 | 1.0.0\n"));
+        assertEquals("Cena musi być większa od zera: -1.0", errorMessage(prefix + "LOT | 2023-01-01 | 1 | -1\n"));
+        assertEquals("Cena musi być większa od zera: NaN", errorMessage(prefix + "LOT | 2023-01-01 | 1 | NaN\n"));
+        assertEquals("Nieprawidłowy format daty: 1900-02-29", errorMessage(prefix + "LOT | 1900-02-29 | 1 | 1.0\n"));
+        assertEquals("Nieprawidłowy format daty: 2023-13-01", errorMessage(prefix + "LOT | 2023-13-01 | 1 | 1.0\n"));
+        assertEquals("Nieprawidłowy format daty: 2023-04-31", errorMessage(prefix + "LOT | 2023-04-31 | 1 | 1.0\n"));
+    }
+
+    @Test
+    void testDatesMatchJdkCalendar() throws Exception {
+        StringBuilder content = new StringBuilder("HEADER | CASH | 1000.0\nASSET | SHARE | X\n");
+        LocalDate[][] ranges = {
+            {LocalDate.of(0, 1, 1), LocalDate.of(3, 12, 31)},
+            {LocalDate.of(1599, 12, 1), LocalDate.of(1600, 3, 31)},
+            {LocalDate.of(1896, 1, 1), LocalDate.of(2104, 12, 31)}
+        };
+        int expectedLots = 0;
+        for (int r = 0; r < ranges.length; r++) {
+            for (LocalDate date = ranges[r][0]; !date.isAfter(ranges[r][1]); date = date.plusDays(1)) {
+                content.append("LOT | ").append(date).append(" | 1 | 1.0\n");
+                expectedLots++;
+            }
+        }
+
+        PurchaseLotView lots = parse(content.toString()).getPurchaseLots("X");
+
+        assertEquals(expectedLots, lots.size());
+        int index = 0;
+        for (int r = 0; r < ranges.length; r++) {
+            for (LocalDate date = ranges[r][0]; !date.isAfter(ranges[r][1]); date = date.plusDays(1)) {
+                assertEquals(date.toEpochDay(), lots.getEpochDay(index), date.toString());
+                index++;
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.stockmarket.reporting;
+
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.Currency;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+
+class PortfolioReporterTest {
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio(1000000.0);
+        portfolio.addAsset(new Share("AAPL", "Apple Inc.", 150.125), 10, LocalDate.of(2023, 5, 10));
+        portfolio.addAsset(new Share("MSFT", "Microsoft", 310.5), 3, LocalDate.of(2023, 5, 11));
+        portfolio.addAsset(new Commodity("GOLD", "Złoto", 2000.0), 20, LocalDate.of(2023, 7, 1));
+        portfolio.addAsset(new Currency("EUR", "Euro", 4.3217, 0.0125), 1000, LocalDate.of(2023, 7, 2));
+    }
+
+    private static String formatted(FixedPointFormatter formatter, double value) throws Exception {
+        StringBuilder out = new StringBuilder();
+        formatter.appendTwoDecimals(out, value);
+        return out.toString();
+    }
+
+    @Test
+    void testFormatterMatchesStringFormat() throws Exception {
+        Locale[] locales = {Locale.US, new Locale("pl", "PL")};
+        double[] special = {0.0, -0.0, 0.005, 0.015, 0.125, 1.005, 2.675, -2.675, 1.115, 10.555,
+            -0.001, 0.994999, 0.995, 99.995, 1234567.895, 9.999999999999E12, 1.0E13, 123456789012345.67,
+            1.0E20, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY};
+
+        for (int l = 0; l < locales.length; l++) {
+            FixedPointFormatter formatter = new FixedPointFormatter(locales[l]);
+            for (int i = 0; i < special.length; i++) {
+                assertEquals(String.format(locales[l], "%.2f", special[i]), formatted(formatter, special[i]),
+                    "wartość " + special[i]);
+            }
+
+            Random random = new Random(5);
+            for (int i = 0; i < 50000; i++) {
+                double value;
+                switch (i % 4) {
+                    case 0:
+                        value = random.nextDouble() * 1000.0;
+                        break;
+                    case 1:
+                        value = (random.nextInt(2000000) - 1000000) / 1000.0;
+                        break;
+                    case 2:
+                        value = random.nextInt(100000) / 100.0 + 0.005;
+                        break;
+                    default:
+                        value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(16));
+                        break;
+                }
+                assertEquals(String.format(locales[l], "%.2f", value), formatted(formatter, value),
+                    "wartość " + value);
+            }
+        }
+    }
+
+    @Test
+    void testReportMatchesFormatterBasedLayout() {
+        String report = new PortfolioReporter(portfolio).generateReport();
+
+        StringBuilder expected = new StringBuilder();
+        expected.append("=== RAPORT PORTFELA ===\n");
+        expected.append("Gotówka: ").append(String.format("%.2f", portfolio.getCash())).append("\n");
+        expected.append("Wartość całkowita: ").append(String.format("%.2f", portfolio.auditPortfolio())).append("\n\n");
+        expected.append("Aktywa (posortowane: Typ -> Wartość malejąco):\n");
+        expected.append("----------------------------------------\n");
+        String[] order = {"AAPL", "MSFT", "GOLD", "EUR"};
+        for (int i = 0; i < order.length; i++) {
+            expected.append(String.format("%s (%s): %s - Wartość: %.2f\n",
+                order[i],
+                portfolio.getAsset(order[i]).getAssetType().name(),
+                portfolio.getAsset(order[i]).getName(),
+                portfolio.getAsset(order[i]).calculateRealValue(portfolio.getAssetQuantity(order[i]))));
+        }
+
+        assertEquals(expected.toString(), report);
+    }
+
+    @Test
+    void testStreamingTargetsProduceSameReport() throws Exception {
+        PortfolioReporter reporter = new PortfolioReporter(portfolio);
+        String report = reporter.generateReport();
+
+        StringWriter writer = new StringWriter();
+        reporter.writeReport(writer);
+        assertEquals(report, writer.toString());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        reporter.writeReport(bytes);
+        assertEquals(report, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRejectsNullTargets() {
+        PortfolioReporter reporter = new PortfolioReporter(portfolio);
+        assertThrows(IllegalArgumentException.class, () -> reporter.writeReport((Appendable) null));
+        assertThrows(IllegalArgumentException.class, () -> reporter.writeReport((java.io.OutputStream) null));
+    }
+}
@@ -0,0 +1,136 @@
+package com.stockmarket.reporting;
+
+import com.stockmarket.domain.Asset;
+import com.stockmarket.domain.AssetType;
+import com.stockmarket.domain.Commodity;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+class TopPositionsReportTest {
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+
+    private Portfolio portfolio;
+    private PortfolioReporter reporter;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio(1.0E12);
+        Random random = new Random(3);
+        for (int i = 0; i < 3000; i++) {
+            double price = 10.0 + random.nextInt(200);
+            int quantity = 1 + random.nextInt(30);
+            if (i % 3 == 0) {
+                portfolio.addAsset(new Commodity("C" + i, "Surowiec " + i, price), quantity, DATE);
+            } else {
+                portfolio.addAsset(new Share("S" + i, "Spółka " + i, price), quantity, DATE);
+            }
+        }
+        reporter = new PortfolioReporter(portfolio);
+    }
+
+    private List<String> fullSort(AssetType type) {
+        List<String> symbols = new ArrayList<>();
+        List<String> all = portfolio.getAllAssetSymbols();
+        for (int i = 0; i < all.size(); i++) {
+            if (portfolio.getAsset(all.get(i)).getAssetType() == type) {
+                symbols.add(all.get(i));
+            }
+        }
+        symbols.sort(new Comparator<String>() {
+            @Override
+            public int compare(String s1, String s2) {
+                int valueComparison = Double.compare(value(s2), value(s1));
+                return valueComparison != 0 ? valueComparison : s1.compareTo(s2);
+            }
+        });
+        return symbols;
+    }
+
+    private double value(String symbol) {
+        Asset asset = portfolio.getAsset(symbol);
+        return asset.calculateRealValue(portfolio.getAssetQuantity(symbol));
+    }
+
+    private static List<String> symbolsOf(List<PositionSummary> positions) {
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < positions.size(); i++) {
+            symbols.add(positions.get(i).getSymbol());
+        }
+        return symbols;
+    }
+
+    @Test
+    void testTopPositionsMatchFullSortIncludingTies() {
+        List<String> expected = fullSort(AssetType.SHARE);
+
+        List<PositionSummary> top = reporter.getTopPositions(AssetType.SHARE, 20);
+
+        assertEquals(expected.subList(0, 20), symbolsOf(top));
+        PositionSummary first = top.get(0);
+        assertEquals(AssetType.SHARE, first.getAssetType());
+        assertEquals(portfolio.getAssetQuantity(first.getSymbol()), first.getQuantity());
+        assertEquals(value(first.getSymbol()), first.getMarketValue(), 0.0);
+    }
+
+    @Test
+    void testTopPositionsByTypeAndLimitAboveHoldingCount() {
+        Map<AssetType, List<PositionSummary>> top = reporter.getTopPositionsByType(5000);
+
+        assertEquals(fullSort(AssetType.SHARE), symbolsOf(top.get(AssetType.SHARE)));
+        assertEquals(fullSort(AssetType.COMMODITY), symbolsOf(top.get(AssetType.COMMODITY)));
+        assertTrue(top.get(AssetType.CURRENCY).isEmpty());
+        assertTrue(reporter.getTopPositions(AssetType.SHARE, 0).isEmpty());
+    }
+
+    @Test
+    void testPagesConcatenateToFullRanking() {
+        List<String> expected = fullSort(AssetType.COMMODITY);
+
+        List<String> paged = new ArrayList<>();
+        int page = 0;
+        while (true) {
+            List<PositionSummary> positions = reporter.getPositionsPage(AssetType.COMMODITY, page, 64);
+            if (positions.isEmpty()) {
+                break;
+            }
+            assertTrue(positions.size() <= 64);
+            paged.addAll(symbolsOf(positions));
+            page++;
+        }
+
+        assertEquals(expected, paged);
+        assertTrue(reporter.getPositionsPage(AssetType.COMMODITY, Integer.MAX_VALUE, Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void testTopReportListsEachTypeSection() throws Exception {
+        StringBuilder out = new StringBuilder();
+        reporter.writeTopReport(out, 3);
+
+        String report = out.toString();
+        assertTrue(report.startsWith("=== RAPORT PORTFELA ===\n"));
+        assertTrue(report.contains("SHARE (top 3):\n"));
+        assertTrue(report.contains("COMMODITY (top 3):\n"));
+        assertFalse(report.contains("CURRENCY (top 3)"));
+        assertTrue(report.contains(fullSort(AssetType.SHARE).get(0) + " (SHARE): "));
+    }
+
+    @Test
+    void testRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> reporter.getTopPositions(null, 5));
+        assertThrows(IllegalArgumentException.class, () -> reporter.getTopPositions(AssetType.SHARE, -1));
+        assertThrows(IllegalArgumentException.class, () -> reporter.getPositionsPage(AssetType.SHARE, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> reporter.getPositionsPage(AssetType.SHARE, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> reporter.getTopPositionsByType(-1));
+    }
+}
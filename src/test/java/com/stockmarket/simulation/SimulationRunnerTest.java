@@ -0,0 +1,119 @@
+package com.stockmarket.simulation;
+
+import com.stockmarket.domain.Order;
+import com.stockmarket.domain.OrderType;
+import com.stockmarket.domain.PurchaseLot;
+import com.stockmarket.domain.Share;
+import com.stockmarket.logic.Portfolio;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+class SimulationRunnerTest {
+    private static final LocalDate TRADE_DATE = LocalDate.of(2024, 3, 1);
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOG"};
+
+    private static List<Portfolio> createAccounts(int count, int sharesEach) {
+        List<Portfolio> accounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Portfolio account = new Portfolio(100000.0);
+            String symbol = SYMBOLS[i % SYMBOLS.length];
+            account.restoreHolding(new Share(symbol, symbol, 100.0),
+                Collections.singletonList(new PurchaseLot(LocalDate.of(2023, 1, 1), 100.0, sharesEach)));
+            accounts.add(account);
+        }
+        return accounts;
+    }
+
+    private static int totalQuantity(List<Portfolio> accounts, String symbol) {
+        int total = 0;
+        for (int i = 0; i < accounts.size(); i++) {
+            total += accounts.get(i).getAssetQuantity(symbol);
+        }
+        return total;
+    }
+
+    @Test
+    void testAllOrdersAreProcessedAndSharesAreConserved() throws Exception {
+        List<Portfolio> accounts = createAccounts(300, 20);
+        PriceFeed feed = new PriceFeed(SYMBOLS, new double[] {100.0, 100.0, 100.0});
+        int[] before = new int[SYMBOLS.length];
+        for (int s = 0; s < SYMBOLS.length; s++) {
+            before[s] = totalQuantity(accounts, SYMBOLS[s]);
+        }
+
+        SimulationReport report = new SimulationRunner(20, 0, TRADE_DATE).run(feed, accounts);
+
+        assertEquals(300, report.getAccountCount());
+        assertEquals(0, report.getFailedAccounts());
+        assertEquals(6000, report.getSubmittedOrders());
+        assertEquals(6000, report.getProcessedOrders());
+        assertTrue(report.getFills() > 0);
+        assertTrue(report.getOrdersPerSecond() > 0);
+        for (int s = 0; s < SYMBOLS.length; s++) {
+            assertEquals(before[s], totalQuantity(accounts, SYMBOLS[s]));
+        }
+        for (int i = 0; i < accounts.size(); i++) {
+            assertTrue(accounts.get(i).getCash() >= 0);
+            assertEquals(0, accounts.get(i).getPendingOrderCount());
+        }
+    }
+
+    @Test
+    void testGeneratedOrdersBypassAccountsPendingQueue() throws Exception {
+        List<Portfolio> accounts = createAccounts(30, 20);
+        for (int i = 0; i < accounts.size(); i++) {
+            accounts.get(i).addOrder(new Order("ZZZ", OrderType.BUY, 1, 1000000.0, 100.0));
+        }
+        PriceFeed feed = new PriceFeed(SYMBOLS, new double[] {100.0, 100.0, 100.0});
+
+        SimulationReport report = new SimulationRunner(10, 0, TRADE_DATE).run(feed, accounts);
+
+        assertEquals(300, report.getSubmittedOrders());
+        assertEquals(300, report.getProcessedOrders());
+        for (int i = 0; i < accounts.size(); i++) {
+            assertEquals(1, accounts.get(i).getPendingOrderCount());
+            assertEquals("ZZZ", accounts.get(i).peekNextOrder().getAssetSymbol());
+        }
+    }
+
+    @Test
+    void testBlockingAccountsRunConcurrently() throws Exception {
+        List<Portfolio> accounts = createAccounts(2000, 5);
+        PriceFeed feed = new PriceFeed(SYMBOLS, new double[] {100.0, 100.0, 100.0});
+
+        SimulationReport report = new SimulationRunner(2, 10, TRADE_DATE).run(feed, accounts);
+
+        assertEquals(4000, report.getProcessedOrders());
+        assertEquals(SimulationRunner.isVirtualThreadSupported(), report.isVirtualThreads());
+        assertTrue(report.getElapsedNanos() < 2000L * 2 * 10 * 1_000_000 / 4);
+    }
+
+    @Test
+    void testExecutorMatchesRuntimeCapabilities() throws Exception {
+        assertEquals(Runtime.version().feature() >= 21, SimulationRunner.isVirtualThreadSupported());
+        ExecutorService executor = SimulationRunner.newAccountExecutor();
+        try {
+            assertEquals(42, executor.submit(() -> 42).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testPriceFeedValidation() {
+        PriceFeed feed = new PriceFeed(SYMBOLS, new double[] {1.0, 2.0, 3.0});
+        feed.setPrice("MSFT", 2.5);
+        assertEquals(2.5, feed.getPrice(feed.indexOf("MSFT")), 0.0);
+        assertEquals(-1, feed.indexOf("IBM"));
+        assertThrows(IllegalArgumentException.class, () -> feed.setPrice("IBM", 1.0));
+        assertThrows(IllegalArgumentException.class, () -> feed.setPrice(0, -1.0));
+        assertThrows(IllegalArgumentException.class, () -> new PriceFeed(new String[] {"A", "A"}, new double[] {1.0, 1.0}));
+        assertThrows(IllegalArgumentException.class, () -> new SimulationRunner(0, 0, TRADE_DATE));
+    }
+}